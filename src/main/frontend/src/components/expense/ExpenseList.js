@@ -2,10 +2,23 @@ import React, { useState, useEffect } from "react";
 import { useNavigate } from "react-router-dom";
 import styled from "styled-components";
 
+const SYNC_CACHE_KEY = "expense_sync_cache";
+
+// 캐시된 목록에 변경분(changed)을 덮어쓰고 삭제분(deletedIds)을 제거한 뒤 최신순 정렬
+const mergeChanges = (cachedExpenses, { changed = [], deletedIds = [] }) => {
+  const byId = new Map(cachedExpenses.map((expense) => [expense.id, expense]));
+  changed.forEach((expense) => byId.set(expense.id, expense));
+  deletedIds.forEach((id) => byId.delete(id));
+  return Array.from(byId.values()).sort((a, b) =>
+    (b.createdAt || "").localeCompare(a.createdAt || "")
+  );
+};
+
 const ExpenseList = () => {
   const [expenses, setExpenses] = useState([]);
   const [token, setToken] = useState(null);
   const [username, setUsername] = useState("");
+  const [monthlyTotals, setMonthlyTotals] = useState({});
   const navigate = useNavigate();
 
   // token 관리 useEffect
@@ -23,41 +36,40 @@ const ExpenseList = () => {
     if (!token) return; // 토큰이 없으면 API 요청을 하지 않음
 
     const fetchData = async () => {
-      try {
-        // 경비 목록 불러오기
-        const expenseResponse = await fetch("/api/expenses", {
-          method: "GET",
-          headers: {
-            Authorization: `Bearer ${token}`,
-            "Content-Type": "application/json",
-          },
-        });
+      const headers = {
+        Authorization: `Bearer ${token}`,
+        "Content-Type": "application/json",
+      };
 
-        if (expenseResponse.ok) {
-          const expenseData = await expenseResponse.json();
-          if (Array.isArray(expenseData)) {
-            setExpenses(expenseData);
-          } else {
-            console.error("Invalid expenses data format", expenseData);
-          }
+      try {
+        // 프로필과 이번 달 합계는 대시보드로, 경비 목록은 델타 동기화로 받는다
+        setUsername(localStorage.getItem("username") || "");
+        const cached = JSON.parse(localStorage.getItem(SYNC_CACHE_KEY) || "null");
+        const since = cached ? `?since=${encodeURIComponent(cached.watermark)}` : "";
+        const [dashboardResponse, expenseResponse] = await Promise.all([
+          fetch("/api/me/dashboard", { method: "GET", headers }),
+          fetch(`/api/expenses/sync${since}`, { method: "GET", headers }),
+        ]);
+
+        if (dashboardResponse.ok) {
+          const dashboard = await dashboardResponse.json();
+          setUsername(dashboard.username);
+          setMonthlyTotals(dashboard.monthlyCategoryTotals || {});
         } else {
-          console.error("Error fetching expenses:", expenseResponse.status);
+          console.error("Error fetching dashboard:", dashboardResponse.status);
         }
 
-        // 유저 정보 불러오기
-        const userResponse = await fetch("/api/user", {
-          method: "GET",
-          headers: {
-            Authorization: `Bearer ${token}`,
-            "Content-Type": "application/json",
-          },
-        });
-
-        if (userResponse.ok) {
-          const userData = await userResponse.json();
-          setUsername(userData.username);
+        // 마지막 watermark 이후 변경분만 받아서 캐시에 병합
+        if (expenseResponse.ok) {
+          const syncData = await expenseResponse.json();
+          const merged = mergeChanges(cached ? cached.expenses : [], syncData);
+          localStorage.setItem(
+            SYNC_CACHE_KEY,
+            JSON.stringify({ watermark: syncData.watermark, expenses: merged })
+          );
+          setExpenses(merged);
         } else {
-          console.error("Error fetching username");
+          console.error("Error fetching expenses:", expenseResponse.status);
         }
       } catch (error) {
         console.error("Error fetching data:", error);
@@ -70,6 +82,15 @@ const ExpenseList = () => {
   return (
     <ExpenseContainer>
       <h2>경비 관리</h2>
+      {Object.keys(monthlyTotals).length > 0 && (
+        <MonthlyTotals>
+          {Object.entries(monthlyTotals).map(([category, total]) => (
+            <MonthlyTotal key={category}>
+              {category}: {total} 원
+            </MonthlyTotal>
+          ))}
+        </MonthlyTotals>
+      )}
       <ExpenseListWrapper>
         {expenses.length > 0 ? (
           expenses.map((expense) => (
@@ -133,6 +154,23 @@ const ExpenseAuthor = styled.p`
   font-style: italic;
 `;
 
+const MonthlyTotals = styled.ul`
+  display: flex;
+  flex-wrap: wrap;
+  gap: 8px;
+  padding: 0;
+  margin: 0 0 10px;
+`;
+
+const MonthlyTotal = styled.li`
+  list-style: none;
+  padding: 4px 10px;
+  background: #ecf0f1;
+  border-radius: 12px;
+  color: #34495e;
+  font-size: 13px;
+`;
+
 const ExpenseListWrapper = styled.ul`
   padding: 0;
 `;
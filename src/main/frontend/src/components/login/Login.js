@@ -23,6 +23,7 @@ const Login = () => {
 
       localStorage.setItem("access_token", token); // JWT 토큰을 로컬 스토리지에 저장
       localStorage.setItem("username", username); // 사용자 이름을 로컬 스토리지에 저장
+      localStorage.removeItem("expense_sync_cache"); // 이전 사용자의 경비 동기화 캐시 삭제
 
       setError(""); // 로그인 성공 후, 원하는 페이지로 리디렉션
       window.location.href = "/list";
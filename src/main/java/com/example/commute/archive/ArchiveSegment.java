@@ -0,0 +1,345 @@
+package com.example.commute.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// 압축된 컬럼 단위 아카이브 파일 하나 (id 오름차순으로 정렬된 행)
+//
+// [컬럼 블록 (Deflate)...][footer][long footer 위치][long MAGIC]
+// footer: [int 행 수][int 컬럼 수] + 컬럼마다 [byte 타입][short 이름 길이][이름][long 위치][int 압축 길이][int 원본 길이][long min][long max]
+// LONG/DOUBLE 컬럼은 min/max 통계로 읽지 않고 건너뛸 수 있다 (DOUBLE 은 doubleToLongBits 로 저장)
+final class ArchiveSegment {
+
+    static final String ID = "id";
+    static final String MEMBER_ID = "memberId";
+    static final String CREATED_AT = "createdAt";
+    static final String AMOUNT = "amount";
+    static final String CATEGORY = "category";
+    static final String TITLE = "title";
+    static final String CONTENT = "content";
+    static final String PHOTO_PATHS = "photoPaths";
+
+    private static final long MAGIC = 0x4558504152433031L; // "EXPARC01"
+    private static final long NONE = Long.MIN_VALUE;
+
+    enum ColumnType {
+        LONG,
+        DOUBLE,
+        STRING
+    }
+
+    record Column(String name, ColumnType type, long offset, int compressedLength, int rawLength, long min, long max) {
+    }
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final Map<String, Column> columns;
+    // 풀어 둔 id 컬럼 (단건 조회마다 다시 풀지 않도록 처음 조회할 때 한 번만)
+    private volatile long[] ids;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer, int rowCount, Map<String, Column> columns) {
+        this.path = path;
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int end = (int) channel.size();
+            if (end < 16 || buffer.getLong(end - 8) != MAGIC) {
+                throw new IOException("올바른 아카이브 파일이 아닙니다: " + path);
+            }
+            ByteBuffer footer = buffer.duplicate().position((int) buffer.getLong(end - 16));
+            int rowCount = footer.getInt();
+            int columnCount = footer.getInt();
+            Map<String, Column> columns = new LinkedHashMap<>();
+            for (int i = 0; i < columnCount; i++) {
+                ColumnType type = ColumnType.values()[footer.get()];
+                byte[] name = new byte[footer.getShort()];
+                footer.get(name);
+                Column column = new Column(new String(name, StandardCharsets.UTF_8), type,
+                        footer.getLong(), footer.getInt(), footer.getInt(), footer.getLong(), footer.getLong());
+                columns.put(column.name(), column);
+            }
+            return new ArchiveSegment(path, buffer, rowCount, columns);
+        }
+    }
+
+    // rows 는 id 오름차순이어야 한다. 임시 파일에 쓴 뒤 원자적으로 이동한다
+    static void write(Path path, List<ArchivedExpense> rows) throws IOException {
+        List<ColumnData> columns = List.of(
+                longColumn(ID, rows, ArchivedExpense::id),
+                longColumn(MEMBER_ID, rows, ArchivedExpense::memberId),
+                longColumn(CREATED_AT, rows, row -> row.createdAt() != null ? toEpochMillis(row.createdAt()) : null),
+                doubleColumn(AMOUNT, rows),
+                stringColumn(CATEGORY, rows, ArchivedExpense::category),
+                stringColumn(TITLE, rows, ArchivedExpense::title),
+                stringColumn(CONTENT, rows, ArchivedExpense::content),
+                stringColumn(PHOTO_PATHS, rows, row -> row.photoPaths() != null ? String.join("\n", row.photoPaths()) : null));
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            ByteBuffer entry = ByteBuffer.allocate(8);
+            footer.write(entry.putInt(0, rows.size()).putInt(4, columns.size()).array());
+
+            long position = 0;
+            for (ColumnData column : columns) {
+                byte[] compressed = deflate(column.raw());
+                channel.write(ByteBuffer.wrap(compressed));
+
+                byte[] name = column.name().getBytes(StandardCharsets.UTF_8);
+                footer.write(ByteBuffer.allocate(1 + 2 + name.length + 8 + 4 + 4 + 8 + 8)
+                        .put((byte) column.type().ordinal())
+                        .putShort((short) name.length)
+                        .put(name)
+                        .putLong(position)
+                        .putInt(compressed.length)
+                        .putInt(column.raw().length)
+                        .putLong(column.min())
+                        .putLong(column.max())
+                        .array());
+                position += compressed.length;
+            }
+            channel.write(ByteBuffer.wrap(footer.toByteArray()));
+            channel.write(ByteBuffer.allocate(16).putLong(position).putLong(MAGIC).flip());
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    // LONG 컬럼 통계로 [low, high] 범위의 값이 있을 수 있는지 확인 (없으면 블록을 풀지 않고 건너뜀)
+    boolean mayContain(String name, long low, long high) {
+        Column column = columns.get(name);
+        return rowCount > 0 && column.min() <= high && column.max() >= low;
+    }
+
+    long[] longs(String name) {
+        ByteBuffer raw = inflate(columns.get(name));
+        long[] values = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = raw.getLong();
+        }
+        return values;
+    }
+
+    double[] doubles(String name) {
+        ByteBuffer raw = inflate(columns.get(name));
+        double[] values = new double[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = raw.getDouble();
+        }
+        return values;
+    }
+
+    String[] strings(String name) {
+        ByteBuffer raw = inflate(columns.get(name));
+        String[] values = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            int length = raw.getInt();
+            if (length >= 0) {
+                byte[] value = new byte[length];
+                raw.get(value);
+                values[i] = new String(value, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+
+    // id 로 행 번호 검색 (없으면 -1)
+    int indexOf(long id) {
+        if (!mayContain(ID, id, id)) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(ids(), id);
+        return index >= 0 ? index : -1;
+    }
+
+    // 행 하나만 읽는다. 컬럼마다 해당 행까지만 풀고, 배열로 만들지 않는다
+    ArchivedExpense row(int index) {
+        long memberId = longAt(MEMBER_ID, index);
+        long createdAt = longAt(CREATED_AT, index);
+        double amount = Double.longBitsToDouble(longAt(AMOUNT, index));
+        String photoPaths = stringAt(PHOTO_PATHS, index);
+        return new ArchivedExpense(
+                ids()[index],
+                memberId != NONE ? memberId : null,
+                createdAt != NONE ? toDateTime(createdAt) : null,
+                Double.isNaN(amount) ? null : amount,
+                stringAt(CATEGORY, index),
+                stringAt(TITLE, index),
+                stringAt(CONTENT, index),
+                photoPaths != null && !photoPaths.isEmpty() ? List.of(photoPaths.split("\n")) : List.of());
+    }
+
+    private long[] ids() {
+        long[] values = ids;
+        if (values == null) {
+            values = longs(ID);
+            ids = values;
+        }
+        return values;
+    }
+
+    private long longAt(String name, int index) {
+        try (DataInputStream in = stream(columns.get(name))) {
+            in.skipNBytes(index * 8L);
+            return in.readLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("아카이브 파일이 손상되었습니다: " + path, e);
+        }
+    }
+
+    private String stringAt(String name, int index) {
+        try (DataInputStream in = stream(columns.get(name))) {
+            for (int i = 0; i < index; i++) {
+                int length = in.readInt();
+                if (length > 0) {
+                    in.skipNBytes(length);
+                }
+            }
+            int length = in.readInt();
+            return length >= 0 ? new String(in.readNBytes(length), StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            throw new IllegalStateException("아카이브 파일이 손상되었습니다: " + path, e);
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    // 필요한 만큼만 풀어 읽는 스트림
+    private DataInputStream stream(Column column) {
+        byte[] compressed = new byte[column.compressedLength()];
+        buffer.get((int) column.offset(), compressed);
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private ByteBuffer inflate(Column column) {
+        byte[] compressed = new byte[column.compressedLength()];
+        buffer.get((int) column.offset(), compressed);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[column.rawLength()];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("아카이브 파일이 손상되었습니다: " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private record ColumnData(String name, ColumnType type, byte[] raw, long min, long max) {
+    }
+
+    private static ColumnData longColumn(String name, List<ArchivedExpense> rows, Function<ArchivedExpense, Long> getter) {
+        ByteBuffer raw = ByteBuffer.allocate(rows.size() * 8);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (ArchivedExpense row : rows) {
+            Long value = getter.apply(row);
+            raw.putLong(value != null ? value : NONE);
+            if (value != null) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        return new ColumnData(name, ColumnType.LONG, raw.array(), min, max);
+    }
+
+    private static ColumnData doubleColumn(String name, List<ArchivedExpense> rows) {
+        ByteBuffer raw = ByteBuffer.allocate(rows.size() * 8);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (ArchivedExpense row : rows) {
+            double value = row.amount() != null ? row.amount() : Double.NaN;
+            raw.putDouble(value);
+            if (!Double.isNaN(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        return new ColumnData(name, ColumnType.DOUBLE, raw.array(),
+                Double.doubleToLongBits(min), Double.doubleToLongBits(max));
+    }
+
+    private static ColumnData stringColumn(String name, List<ArchivedExpense> rows, Function<ArchivedExpense, String> getter) {
+        List<byte[]> values = new ArrayList<>(rows.size());
+        int size = 0;
+        for (ArchivedExpense row : rows) {
+            String value = getter.apply(row);
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+            values.add(bytes);
+            size += 4 + (bytes != null ? bytes.length : 0);
+        }
+        ByteBuffer raw = ByteBuffer.allocate(size);
+        for (byte[] bytes : values) {
+            raw.putInt(bytes != null ? bytes.length : -1);
+            if (bytes != null) {
+                raw.put(bytes);
+            }
+        }
+        return new ColumnData(name, ColumnType.STRING, raw.array(), 0L, 0L);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.commute.archive;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 아카이브 파일에 저장되는 게시글 한 건
+public record ArchivedExpense(
+        long id,
+        Long memberId,
+        LocalDateTime createdAt,
+        Double amount,
+        String category,
+        String title,
+        String content,
+        List<String> photoPaths
+) {
+}
@@ -0,0 +1,169 @@
+package com.example.commute.archive;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// MySQL 에서 옮겨진 오래된 게시글의 컬럼 단위 아카이브 (app.archive.dir 아래 *.seg 파일)
+// 단건 조회와 집계는 파일마다 min/max 통계로 건너뛸 수 있는 파일을 먼저 거른다
+// app.archive.dir 은 모든 인스턴스가 함께 보는 공유 저장소여야 한다. 다른 인스턴스가 쓴 파일은
+// 주기적인 refresh, 단건 조회 miss, 사진 경로 조회 때 목록에 추가된다 (파일은 임시 이름으로 쓴 뒤 옮기므로 반쯤 쓴 파일은 보이지 않는다)
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class ExpenseArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseArchive.class);
+
+    private static final String SUFFIX = ".seg";
+
+    // 단건 조회가 없는 id 를 반복해서 물어도 디렉터리를 매번 다시 읽지 않도록 하는 최소 간격
+    private static final long MISS_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Path directory;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    private final Set<Path> loaded = ConcurrentHashMap.newKeySet();
+    private volatile long lastRefreshNanos;
+
+    public ExpenseArchive(@Value("${app.archive.dir:./archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        refresh();
+        logger.info("Expense archive loaded {} segments from {}", segments.size(), directory);
+    }
+
+    // 아직 열지 않은 *.seg 파일(다른 인스턴스의 아카이버가 쓴 것)을 목록에 추가하고 추가한 개수를 반환
+    public synchronized int refresh() throws IOException {
+        lastRefreshNanos = System.nanoTime();
+        int added = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList()) {
+                if (!loaded.contains(path)) {
+                    segments.add(ArchiveSegment.open(path));
+                    loaded.add(path);
+                    added++;
+                }
+            }
+        }
+        if (added > 0) {
+            logger.info("Expense archive picked up {} new segments from {}", added, directory);
+        }
+        return added;
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (IOException e) {
+            logger.warn("Failed to refresh expense archive segments from {}", directory, e);
+        }
+    }
+
+    // id 오름차순으로 정렬된 게시글을 새 아카이브 파일로 저장
+    public synchronized void append(List<ArchivedExpense> rows) throws IOException {
+        Path path = directory.resolve(String.format("expense-archive-%020d-%020d%s",
+                rows.get(0).id(), rows.get(rows.size() - 1).id(), SUFFIX));
+        ArchiveSegment.write(path, rows);
+        segments.add(ArchiveSegment.open(path));
+        loaded.add(path);
+        logger.info("Archived {} expenses to {}", rows.size(), path.getFileName());
+    }
+
+    public boolean contains(long id) {
+        return segments.stream().anyMatch(segment -> segment.indexOf(id) >= 0);
+    }
+
+    // 없으면 다른 인스턴스가 방금 옮긴 게시글일 수 있으므로 목록을 다시 읽고 한 번 더 찾는다
+    public Optional<ArchivedExpense> findById(long id) {
+        Optional<ArchivedExpense> found = find(id);
+        if (found.isEmpty() && System.nanoTime() - lastRefreshNanos > MISS_REFRESH_INTERVAL_NANOS) {
+            try {
+                if (refresh() > 0) {
+                    found = find(id);
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to refresh expense archive segments from {}", directory, e);
+            }
+        }
+        return found;
+    }
+
+    private Optional<ArchivedExpense> find(long id) {
+        for (ArchiveSegment segment : segments) {
+            int index = segment.indexOf(id);
+            if (index >= 0) {
+                return Optional.of(segment.row(index));
+            }
+        }
+        return Optional.empty();
+    }
+
+    // 아카이브된 게시글이 참조하는 사진 경로 전체 (아카이브 파일은 바꿀 수 없으므로 이 경로들은 지우거나 옮기면 안 된다)
+    // 정리 작업이 다른 인스턴스가 방금 아카이브한 사진을 지우지 않도록 항상 목록을 먼저 다시 읽는다
+    public Set<String> photoPaths() {
+        try {
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("아카이브 목록을 읽을 수 없습니다: " + directory, e);
+        }
+        Set<String> paths = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            for (String joined : segment.strings(ArchiveSegment.PHOTO_PATHS)) {
+                if (joined != null && !joined.isEmpty()) {
+                    paths.addAll(List.of(joined.split("\n")));
+                }
+            }
+        }
+        return paths;
+    }
+
+    // [from, to) 기간의 카테고리별 합계 (memberId 가 null 이면 전체)
+    public Map<String, Double> sumByCategory(Long memberId, LocalDateTime from, LocalDateTime to) {
+        long low = ArchiveSegment.toEpochMillis(from);
+        long high = ArchiveSegment.toEpochMillis(to) - 1;
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (ArchiveSegment segment : segments) {
+            if (!segment.mayContain(ArchiveSegment.CREATED_AT, low, high)
+                    || (memberId != null && !segment.mayContain(ArchiveSegment.MEMBER_ID, memberId, memberId))) {
+                continue;
+            }
+            long[] createdAt = segment.longs(ArchiveSegment.CREATED_AT);
+            long[] memberIds = segment.longs(ArchiveSegment.MEMBER_ID);
+            double[] amounts = segment.doubles(ArchiveSegment.AMOUNT);
+            String[] categories = segment.strings(ArchiveSegment.CATEGORY);
+            for (int i = 0; i < segment.rowCount(); i++) {
+                if (createdAt[i] >= low && createdAt[i] <= high
+                        && (memberId == null || memberIds[i] == memberId)
+                        && !Double.isNaN(amounts[i])) {
+                    totals.merge(String.valueOf(categories[i]), amounts[i], Double::sum);
+                }
+            }
+        }
+        return totals;
+    }
+}
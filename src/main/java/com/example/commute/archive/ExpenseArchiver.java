@@ -0,0 +1,149 @@
+package com.example.commute.archive;
+
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.ExpenseTombstone;
+import com.example.commute.entity.Photo;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.ExpenseTombstoneRepository;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.service.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 보존 기간(app.archive.retention-months)이 지난 게시글을 아카이브 파일로 옮기고 MySQL 에서 삭제하는 작업
+// cron 은 모든 인스턴스에서 울리지만 JOB_LEASE 를 얻은 한 곳만 실행하고, lease 는 청크마다 연장한다
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+@UseDataSource(DataSourceWorkload.BACKGROUND)
+public class ExpenseArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseArchiver.class);
+
+    static final String LEASE_NAME = "expense-archiver";
+
+    private final ExpenseArchive expenseArchive;
+    private final ExpenseRepository expenseRepository;
+    private final PhotoRepository photoRepository;
+    private final ExpenseTombstoneRepository expenseTombstoneRepository;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+    private final int chunkSize;
+    private final Duration leaseDuration;
+
+    public ExpenseArchiver(
+            ExpenseArchive expenseArchive,
+            ExpenseRepository expenseRepository,
+            PhotoRepository photoRepository,
+            ExpenseTombstoneRepository expenseTombstoneRepository,
+            JobLeaseService jobLeaseService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.archive.retention-months:24}") int retentionMonths,
+            @Value("${app.archive.chunk-size:5000}") int chunkSize,
+            @Value("${app.archive.lease-minutes:30}") long leaseMinutes) {
+        this.expenseArchive = expenseArchive;
+        this.expenseRepository = expenseRepository;
+        this.photoRepository = photoRepository;
+        this.expenseTombstoneRepository = expenseTombstoneRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMonths = retentionMonths;
+        this.chunkSize = chunkSize;
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+    }
+
+    // 보존 기간 경계 (이 시각 이전에 생성된 게시글은 아카이브 대상)
+    public LocalDateTime horizon() {
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archive() throws IOException {
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            logger.info("Expense archiving is running on another instance, skipping");
+            return;
+        }
+        try {
+            // 이전 실행(다른 인스턴스일 수 있음)이 쓴 파일까지 보고 나서 이미 아카이브된 id 를 거른다
+            expenseArchive.refresh();
+            LocalDateTime horizon = horizon();
+            int total = 0;
+            int archived;
+            do {
+                archived = archiveChunk(horizon);
+                total += archived;
+            } while (archived == chunkSize && jobLeaseService.tryAcquire(LEASE_NAME, leaseDuration));
+            logger.info("Archived {} expenses created before {}", total, horizon);
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    // 파일을 먼저 쓰고(fsync) 나서 DB 에서 삭제한다. 중간에 실패하면 다음 실행에서 이미 아카이브된 id 는 다시 쓰지 않는다
+    private int archiveChunk(LocalDateTime horizon) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        List<ArchivedExpense> rows = readOnly.execute(status -> {
+            List<Expense> expenses = expenseRepository.findByCreatedAtBeforeOrderByIdAsc(horizon, PageRequest.of(0, chunkSize));
+            Map<Long, List<String>> photoPaths = photoRepository.findByExpenseIdIn(
+                            expenses.stream().map(Expense::getId).collect(Collectors.toList())).stream()
+                    .collect(Collectors.groupingBy(photo -> photo.getExpense().getId(),
+                            Collectors.mapping(Photo::getFilePath, Collectors.toList())));
+            return expenses.stream()
+                    .map(expense -> new ArchivedExpense(
+                            expense.getId(),
+                            expense.getMember() != null ? expense.getMember().getId() : null,
+                            expense.getCreatedAt(),
+                            expense.getAmount(),
+                            expense.getCategory() != null ? expense.getCategory().name() : null,
+                            expense.getTitle(),
+                            expense.getContent(),
+                            photoPaths.getOrDefault(expense.getId(), List.of())))
+                    .collect(Collectors.toList());
+        });
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchivedExpense> fresh = rows.stream()
+                .filter(row -> !expenseArchive.contains(row.id()))
+                .collect(Collectors.toList());
+        if (!fresh.isEmpty()) {
+            expenseArchive.append(fresh);
+        }
+
+        // 목록/동기화는 MySQL 만 보므로, 델타 동기화 클라이언트도 옮겨진 게시글을 지우도록 삭제 기록을 함께 남긴다
+        List<Long> ids = rows.stream().map(ArchivedExpense::id).collect(Collectors.toList());
+        LocalDateTime deletedAt = LocalDateTime.now();
+        List<ExpenseTombstone> tombstones = rows.stream()
+                .map(row -> ExpenseTombstone.builder()
+                        .expenseId(row.id())
+                        .memberId(row.memberId())
+                        .deletedAt(deletedAt)
+                        .build())
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            photoRepository.deleteByExpenseIds(ids);
+            expenseRepository.deleteAllByIdInBatch(ids);
+            expenseTombstoneRepository.saveAll(tombstones);
+        });
+        return rows.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.commute.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// app.cache.enabled=true 일 때만 @Cacheable 이 동작한다 (CacheManager 는 spring.cache.* 로 Caffeine 자동 구성)
+// 쓰기 쪽은 CacheInvalidationBus 로 지워야 다른 인스턴스의 캐시도 함께 무효화된다
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true")
+public class CacheConfig {
+}
@@ -0,0 +1,7 @@
+package com.example.commute.cache;
+
+import java.time.LocalDateTime;
+
+// 인스턴스 사이에 전달되는 무효화 메시지. key 가 null 이면 캐시 전체를 비운다
+public record CacheInvalidation(String cacheName, String key, String origin, LocalDateTime createdAt) {
+}
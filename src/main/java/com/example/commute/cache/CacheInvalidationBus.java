@@ -0,0 +1,94 @@
+package com.example.commute.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// 쓰기 쪽에서 부르는 캐시 무효화 진입점
+// 1) 이 인스턴스의 캐시에서 바로 지우고, 커밋 직후 한 번 더 지운다 (커밋 전에 다른 요청이 옛 값을 다시 채웠을 수 있다)
+// 2) InvalidationTransport 로 다른 인스턴스에 알린다 (트랜잭션이 롤백되면 알림도 같이 사라진다)
+// 캐시가 꺼져 있으면(app.cache.enabled=false) 아무것도 하지 않는다
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final CacheManager cacheManager;
+    private final InvalidationTransport transport;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    public CacheInvalidationBus(ObjectProvider<CacheManager> cacheManager, ObjectProvider<InvalidationTransport> transport) {
+        this(cacheManager.getIfAvailable(), transport.getIfAvailable());
+    }
+
+    public CacheInvalidationBus(CacheManager cacheManager, InvalidationTransport transport) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        if (cacheManager != null && transport != null) {
+            transport.subscribe(this::receive);
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        invalidate(cacheName, key != null ? key.toString() : null);
+    }
+
+    // 키를 특정할 수 없는 일괄 변경 (경로 일괄 수정 등)
+    public void clear(String cacheName) {
+        invalidate(cacheName, null);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private void invalidate(String cacheName, String key) {
+        if (cacheManager == null) {
+            return;
+        }
+        evictLocal(cacheName, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(cacheName, key);
+                }
+            });
+        }
+        if (transport != null) {
+            transport.publish(new CacheInvalidation(cacheName, key, instanceId, LocalDateTime.now()));
+        }
+    }
+
+    private void receive(List<CacheInvalidation> batch) {
+        for (CacheInvalidation invalidation : batch) {
+            if (!instanceId.equals(invalidation.origin())) {
+                evictLocal(invalidation.cacheName(), invalidation.key());
+            }
+        }
+    }
+
+    private void evictLocal(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            logger.debug("Ignoring invalidation for unknown cache: {}", cacheName);
+            return;
+        }
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+}
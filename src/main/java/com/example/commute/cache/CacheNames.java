@@ -0,0 +1,12 @@
+package com.example.commute.cache;
+
+// 캐시 이름 (spring.cache.cache-names 와 맞춘다)
+// 키는 문자열로 통일한다 - 다른 인스턴스로는 키가 문자열로 전달되기 때문
+public final class CacheNames {
+
+    public static final String MEMBERS = "members";   // username -> UserDetails (요청마다 하던 사용자 조회)
+    public static final String EXPENSES = "expenses"; // id -> ExpenseDto
+
+    private CacheNames() {
+    }
+}
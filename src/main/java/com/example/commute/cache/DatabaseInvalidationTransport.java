@@ -0,0 +1,189 @@
+package com.example.commute.cache;
+
+import com.example.commute.entity.CacheInvalidationEvent;
+import com.example.commute.repository.CacheInvalidationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// CACHE_INVALIDATION 테이블을 통한 전달 (별도 인프라 없음)
+// - publish: 변경과 같은 트랜잭션에 한 행 추가 -> 커밋된 변경만 다른 인스턴스에 알려진다
+// - poll: poll-interval-ms 마다 마지막으로 본 ID 이후를 배치로 읽는다 -> 지연은 폴링 주기 + 배치 처리 시간 이내
+// IDENTITY 는 커밋 순서와 ID 순서가 다를 수 있어서, 최근 lookback-seconds 동안의 행은 다시 읽고 처음 보는 ID 만 전달한다
+// (lookback 보다 오래 열려 있던 트랜잭션의 알림은 놓칠 수 있으므로 캐시 TTL 이 마지막 안전장치)
+// 폴링은 전용 스레드에서 돈다: 공유 @Scheduled 스레드는 하나뿐이라 압축/아카이브 같은 긴 작업 동안 무효화가 멈춘다
+// 받은 알림은 redeliver-delay-ms 뒤에 한 번 더 전달한다. 첫 삭제와 지연된 복제본 읽기가 겹쳐 옛 값이 다시 채워지는 경우를 지운다
+@Component
+@ConditionalOnExpression("${app.cache.enabled:false} and '${app.cache.invalidation.transport:database}' == 'database'")
+public class DatabaseInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseInvalidationTransport.class);
+
+    private final CacheInvalidationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Consumer<List<CacheInvalidation>>> receivers = new CopyOnWriteArrayList<>();
+    private final int batchSize;
+    private final Duration lookback;
+    private final Duration retention;
+    private final long pollIntervalMillis;
+    private final long redeliverDelayMillis;
+    private final ScheduledExecutorService poller;
+
+    private final Counter published;
+    private final Counter received;
+    private final Timer delay;
+
+    // watermark 이하는 모두 전달 완료, tail 은 그 이후에 이미 전달한 ID 와 기록 시각
+    private long watermark = -1;
+    private final TreeMap<Long, LocalDateTime> tail = new TreeMap<>();
+
+    public DatabaseInvalidationTransport(
+            CacheInvalidationRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.invalidation.batch-size:500}") int batchSize,
+            @Value("${app.cache.invalidation.lookback-seconds:10}") long lookbackSeconds,
+            @Value("${app.cache.invalidation.retention-minutes:60}") long retentionMinutes,
+            @Value("${app.cache.invalidation.poll-interval-ms:500}") long pollIntervalMillis,
+            @Value("${app.cache.invalidation.redeliver-delay-ms:1000}") long redeliverDelayMillis) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lookback = Duration.ofSeconds(lookbackSeconds);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.redeliverDelayMillis = redeliverDelayMillis;
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.published = Counter.builder("cache.invalidation.published")
+                .description("Cache invalidations written for other instances")
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidations read from the notification table")
+                .register(meterRegistry);
+        this.delay = Timer.builder("cache.invalidation.delay")
+                .description("Time between writing an invalidation and this instance reading it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        repository.save(CacheInvalidationEvent.builder()
+                .cacheName(invalidation.cacheName())
+                .cacheKey(invalidation.key())
+                .origin(invalidation.origin())
+                .createdAt(invalidation.createdAt())
+                .build());
+        published.increment();
+    }
+
+    @Override
+    public void subscribe(Consumer<List<CacheInvalidation>> receiver) {
+        receivers.add(receiver);
+    }
+
+    @PostConstruct
+    public void start() {
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                logger.warn("Cache invalidation poll failed: {}", e.getMessage());
+            }
+        }, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    public synchronized void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(lookback);
+        if (watermark < 0) {
+            // 시작 직전 lookback 구간은 다시 전달한다 (지워도 손해 없음)
+            watermark = repository.findMaxIdCreatedBefore(cutoff);
+        }
+
+        long cursor = watermark;
+        List<CacheInvalidationEvent> rows;
+        do {
+            rows = repository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, batchSize));
+            List<CacheInvalidation> fresh = new ArrayList<>(rows.size());
+            for (CacheInvalidationEvent row : rows) {
+                if (tail.putIfAbsent(row.getId(), row.getCreatedAt()) == null) {
+                    fresh.add(new CacheInvalidation(row.getCacheName(), row.getCacheKey(), row.getOrigin(), row.getCreatedAt()));
+                    delay.record(Duration.between(row.getCreatedAt(), now).abs());
+                }
+                cursor = row.getId();
+            }
+            if (!fresh.isEmpty()) {
+                received.increment(fresh.size());
+                deliver(fresh);
+                redeliverLater(fresh);
+            }
+        } while (rows.size() == batchSize);
+
+        // lookback 보다 오래된 행은 더 이상 다시 읽지 않는다
+        while (!tail.isEmpty() && tail.firstEntry().getValue().isBefore(cutoff)) {
+            Map.Entry<Long, LocalDateTime> oldest = tail.pollFirstEntry();
+            watermark = oldest.getKey();
+        }
+    }
+
+    // 오래된 알림 정리 (모든 인스턴스가 실행해도 결과는 같다)
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        Integer deleted = transactionTemplate.execute(status ->
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            logger.debug("Deleted {} cache invalidation rows older than {}", deleted, retention);
+        }
+    }
+
+    private void redeliverLater(List<CacheInvalidation> batch) {
+        if (redeliverDelayMillis <= 0 || poller.isShutdown()) {
+            return;
+        }
+        poller.schedule(() -> deliver(batch), redeliverDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void deliver(List<CacheInvalidation> batch) {
+        for (Consumer<List<CacheInvalidation>> receiver : receivers) {
+            try {
+                receiver.accept(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Cache invalidation receiver failed: {}", e.getMessage());
+            }
+        }
+    }
+}
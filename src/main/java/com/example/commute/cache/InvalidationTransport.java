@@ -0,0 +1,15 @@
+package com.example.commute.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// 무효화 메시지를 다른 인스턴스로 전달하는 방법 (기본: DatabaseInvalidationTransport)
+// 메시지 브로커가 생기면 이 인터페이스만 구현해서 app.cache.invalidation.transport 로 바꾼다
+public interface InvalidationTransport {
+
+    // 호출한 스레드의 트랜잭션이 있으면 그 트랜잭션과 함께 커밋/롤백되어야 한다
+    void publish(CacheInvalidation invalidation);
+
+    // 다른 인스턴스(자기 자신 포함)가 보낸 메시지를 배치로 받는다
+    void subscribe(Consumer<List<CacheInvalidation>> receiver);
+}
@@ -0,0 +1,258 @@
+package com.example.commute.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 엔드포인트 종류별 적응형 동시 실행 제한 (AIMD)
+// DB 가 느려지면 응답 지연이 최소 지연의 tolerance 배를 넘고, 그때마다 한도를 backoff-ratio 배로 줄인다.
+// 지연이 정상이면 한도를 조금씩(요청당 1/limit) 늘린다. 한도를 넘는 요청은 Hikari 대기(30초) 대신 바로 503 + Retry-After
+// 읽기가 포화 상태면 업로드/내보내기처럼 무거운 요청부터 거절해서 가벼운 조회를 살린다
+// 업로드/내보내기는 응답 시간이 클라이언트 전송 속도에 좌우되어 DB 혼잡 신호가 되지 못하므로 AIMD 없이 고정 한도(bulkhead)를 쓴다
+@Component
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true")
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // priority 가 작을수록 우선
+    public enum EndpointClass {
+        READ(0, true),
+        WRITE(1, true),
+        UPLOAD(2, false),
+        EXPORT(2, false);
+
+        private final int priority;
+        private final boolean adaptive; // false 이면 고정 한도
+
+        EndpointClass(int priority, boolean adaptive) {
+            this.priority = priority;
+            this.adaptive = adaptive;
+        }
+    }
+
+    private final Map<EndpointClass, Limiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+    private final int retryAfterSeconds;
+
+    public AdaptiveConcurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency.min-limit:2}") int minLimit,
+            @Value("${app.concurrency.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency.upload-limit:10}") int uploadLimit,
+            @Value("${app.concurrency.export-limit:10}") int exportLimit,
+            @Value("${app.concurrency.tolerance:2.0}") double tolerance,
+            @Value("${app.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.concurrency.latency-floor-ms:20}") long latencyFloorMillis,
+            @Value("${app.concurrency.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            Limiter limiter = switch (endpointClass) {
+                case UPLOAD -> Limiter.fixed(uploadLimit);
+                case EXPORT -> Limiter.fixed(exportLimit);
+                default -> new Limiter(initialLimit, minLimit, maxLimit, tolerance, backoffRatio, latencyFloorMillis * 1_000_000L);
+            };
+            limiters.put(endpointClass, limiter);
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("http.concurrency.limit", limiter, Limiter::getLimit)
+                    .tag("class", tag)
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in-flight", limiter, Limiter::getInFlight)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejected.put(endpointClass, Counter.builder("http.concurrency.rejected").tag("class", tag).register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Limiter limiter = limiters.get(endpointClass);
+        if (higherPrioritySaturated(endpointClass) || !limiter.tryAcquire()) {
+            rejected.get(endpointClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // 스트리밍 응답은 실제로 끝났을 때 반납
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start, released));
+            } else if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    // SSE 같은 장기 연결, 정적 리소스, actuator 는 제한하지 않는다
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (!path.startsWith("/api/") || path.equals("/api/expenses/stream")) {
+            return null;
+        }
+        String contentType = request.getContentType();
+        if (path.startsWith("/api/uploads") || (contentType != null && contentType.startsWith("multipart/"))) {
+            return EndpointClass.UPLOAD;
+        }
+        if ((path.startsWith("/api/photos/") && path.endsWith("/content")) || path.startsWith("/api/photos/reconcile")) {
+            return EndpointClass.EXPORT;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return EndpointClass.READ;
+        }
+        return EndpointClass.WRITE;
+    }
+
+    private boolean higherPrioritySaturated(EndpointClass endpointClass) {
+        for (Map.Entry<EndpointClass, Limiter> entry : limiters.entrySet()) {
+            if (entry.getKey().priority < endpointClass.priority && entry.getValue().isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // AIMD 한도. 최소 지연(minRtt)은 RTT_WINDOW 개 표본마다 다시 잰다 (DB 가 영구적으로 느려진 경우에 적응)
+    // fixed 로 만든 한도는 지연/실패와 관계없이 그대로다
+    static final class Limiter {
+
+        private static final int RTT_WINDOW = 500;
+        private static final double SMOOTHING = 0.2;
+
+        private final int minLimit;
+        private final int maxLimit;
+        private final double tolerance;
+        private final double backoffRatio;
+        private final long latencyFloorNanos;
+        private final boolean adaptive;
+
+        private double limit;
+        private int inFlight;
+        private long minRttNanos = Long.MAX_VALUE;
+        private long nextMinRttNanos = Long.MAX_VALUE;
+        private double smoothedRttNanos;
+        private int samples;
+
+        Limiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio, long latencyFloorNanos) {
+            this(initialLimit, minLimit, maxLimit, tolerance, backoffRatio, latencyFloorNanos, true);
+        }
+
+        private Limiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+                        long latencyFloorNanos, boolean adaptive) {
+            this.limit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.tolerance = tolerance;
+            this.backoffRatio = backoffRatio;
+            this.latencyFloorNanos = latencyFloorNanos;
+            this.adaptive = adaptive;
+        }
+
+        static Limiter fixed(int limit) {
+            return new Limiter(limit, limit, limit, 0, 1, 0, false);
+        }
+
+        synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized boolean isSaturated() {
+            return inFlight >= (int) limit;
+        }
+
+        synchronized void release(long rttNanos, boolean failed) {
+            inFlight--;
+            if (!adaptive) {
+                return;
+            }
+            nextMinRttNanos = Math.min(nextMinRttNanos, rttNanos);
+            if (++samples % RTT_WINDOW == 0) {
+                minRttNanos = nextMinRttNanos;
+                nextMinRttNanos = Long.MAX_VALUE;
+            } else {
+                minRttNanos = Math.min(minRttNanos, rttNanos);
+            }
+            smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos : smoothedRttNanos + SMOOTHING * (rttNanos - smoothedRttNanos);
+
+            boolean congested = failed
+                    || (smoothedRttNanos > minRttNanos * tolerance && smoothedRttNanos > latencyFloorNanos);
+            if (congested) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight * 2 >= limit) {
+                // 한도의 절반 이상을 쓰고 있을 때만 늘린다 (한가할 때 한도가 무한히 커지지 않도록)
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+
+        synchronized double getLimit() {
+            return limit;
+        }
+
+        synchronized double getInFlight() {
+            return inFlight;
+        }
+    }
+
+    private record ReleaseOnComplete(Limiter limiter, long start, AtomicBoolean released) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(event, ((HttpServletResponse) event.getSuppliedResponse()).getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(event, true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(event, true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(AsyncEvent event, boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.commute.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// app.datasource.bulkhead.enabled=true 일 때 작업 종류별로 독립된 Hikari 풀을 구성한다 (크기/타임아웃 따로)
+// - oltp: 기존 spring.datasource.* / spring.datasource.hikari.* (replica 라우팅을 켜면 routingDataSource 가 그 자리에 들어간다)
+// - reporting: app.datasource.pools.reporting.*
+// - background: app.datasource.pools.background.*
+// 풀마다 이름이 달라 hikaricp.connections.* 메트릭이 pool 태그로 나뉜다
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true")
+public class BulkheadDataSourceConfig {
+
+    // replica 라우팅이 켜져 있으면 DataSourceConfig 의 primaryDataSource 가 같은 설정으로 만들어지므로 만들지 않는다
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("oltp");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.reporting")
+    public HikariDataSource reportingDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("reporting");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.background")
+    public HikariDataSource backgroundDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("background");
+        return dataSource;
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(
+            @Qualifier("oltpDataSource") ObjectProvider<DataSource> oltpDataSource,
+            @Qualifier("routingDataSource") ObjectProvider<DataSource> replicationRoutingDataSource,
+            @Qualifier("reportingDataSource") DataSource reportingDataSource,
+            @Qualifier("backgroundDataSource") DataSource backgroundDataSource) {
+        DataSource oltp = replicationRoutingDataSource.getIfAvailable(oltpDataSource::getObject);
+        return new WorkloadRoutingDataSource(oltp, reportingDataSource, backgroundDataSource);
+    }
+
+    // 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻어야 작업 종류(와 readOnly)로 라우팅할 수 있다
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("workloadRoutingDataSource") DataSource workloadRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(workloadRoutingDataSource);
+    }
+}
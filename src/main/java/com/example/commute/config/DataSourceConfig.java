@@ -0,0 +1,61 @@
+package com.example.commute.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// app.datasource.replica.enabled=true 일 때 primary / replica 두 개의 Hikari 풀을 구성한다.
+// 비활성화 상태에서는 스프링 부트 기본 단일 DataSource 가 그대로 사용된다.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    // 기존 spring.datasource.* / spring.datasource.hikari.* 설정을 그대로 사용
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // app.datasource.replica.* 는 HikariDataSource 의 속성(jdbc-url, maximum-pool-size 등)에 바인딩된다.
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // replica 가 내려가 있어도 애플리케이션은 기동되어야 한다
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicationRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.replica-retry-interval-ms:30000}") long retryIntervalMillis) {
+        return new ReplicationRoutingDataSource(primaryDataSource, replicaDataSource, retryIntervalMillis);
+    }
+
+    // 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻어야 readOnly 여부로 라우팅할 수 있다
+    // bulkhead 풀을 켜면 BulkheadDataSourceConfig 가 routingDataSource 를 oltp 풀 자리에 넣어 대신 만든다
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.commute.config;
+
+// 커넥션 풀 격리(bulkhead) 단위. 각 작업 종류는 자기 풀만 쓰므로 긴 리포트/배치가 등록 요청의 커넥션을 뺏지 못한다
+public enum DataSourceWorkload {
+    OLTP,       // 사용자 요청 (기본값)
+    REPORTING,  // 전체 목록, 집계 같은 긴 조회
+    BACKGROUND  // @Scheduled 작업, 마이그레이션
+}
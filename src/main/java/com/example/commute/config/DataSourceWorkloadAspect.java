@@ -0,0 +1,50 @@
+package com.example.commute.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// @UseDataSource 를 DataSourceWorkloadContext 로 옮긴다
+// @Transactional 보다 바깥에서 돌아야 트랜잭션이 시작되기 전에 풀이 정해진다 (HIGHEST_PRECEDENCE)
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true")
+public class DataSourceWorkloadAspect {
+
+    @Around("@annotation(com.example.commute.config.UseDataSource) || @within(com.example.commute.config.UseDataSource)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        // 진행 중인 트랜잭션은 이미 (또는 곧) 바깥 풀의 커넥션을 쓰므로 바꾸지 않는다
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        UseDataSource annotation = resolve(joinPoint);
+        if (annotation == null) {
+            return joinPoint.proceed();
+        }
+        DataSourceWorkload previous = DataSourceWorkloadContext.enter(annotation.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceWorkloadContext.restore(previous);
+        }
+    }
+
+    // 메서드에 붙은 것이 클래스에 붙은 것보다 우선
+    private static UseDataSource resolve(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        UseDataSource annotation = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), UseDataSource.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), UseDataSource.class);
+        }
+        return annotation;
+    }
+}
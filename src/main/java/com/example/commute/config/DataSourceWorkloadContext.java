@@ -0,0 +1,53 @@
+package com.example.commute.config;
+
+import java.util.function.Supplier;
+
+// 현재 스레드의 작업 종류. WorkloadRoutingDataSource 가 커넥션을 얻을 때 이 값으로 풀을 고른다
+// 어노테이션을 붙일 수 없는 곳(직접 만든 스레드 풀 등)에서는 run / call / wrap 을 쓴다
+public final class DataSourceWorkloadContext {
+
+    private static final ThreadLocal<DataSourceWorkload> CURRENT = new ThreadLocal<>();
+
+    private DataSourceWorkloadContext() {
+    }
+
+    public static DataSourceWorkload current() {
+        DataSourceWorkload workload = CURRENT.get();
+        return workload != null ? workload : DataSourceWorkload.OLTP;
+    }
+
+    public static <T> T call(DataSourceWorkload workload, Supplier<T> action) {
+        DataSourceWorkload previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void run(DataSourceWorkload workload, Runnable action) {
+        call(workload, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static Runnable wrap(DataSourceWorkload workload, Runnable action) {
+        return () -> run(workload, action);
+    }
+
+    static DataSourceWorkload enter(DataSourceWorkload workload) {
+        DataSourceWorkload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(DataSourceWorkload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
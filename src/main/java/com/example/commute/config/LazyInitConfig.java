@@ -0,0 +1,32 @@
+package com.example.commute.config;
+
+import com.example.commute.service.ExpenseWriteBehindQueue;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// spring.main.lazy-initialization=true (faststart 프로필) 에서도 바로 만들어야 하는 빈
+// - @Scheduled 메서드가 있는 빈: 누가 먼저 찾지 않으면 만들어지지 않아 예약 작업이 돌지 않는다
+// - write-behind 큐: 시작 시 writer 스레드를 띄워야 첫 요청이 기다리지 않는다
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && (ExpenseWriteBehindQueue.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found.get();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.commute.config;
+
+import com.example.commute.dto.AmountDto;
+import com.example.commute.dto.DashboardDto;
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.ExpenseSyncDto;
+import com.example.commute.dto.LoginRequestDto;
+import com.example.commute.dto.LoginResponseDto;
+import com.example.commute.dto.MemberResponse;
+import com.example.commute.dto.PhotoMetaDto;
+import com.example.commute.dto.SignupRequestDto;
+import com.example.commute.entity.CacheInvalidationEvent;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.ExpenseTombstone;
+import com.example.commute.entity.IdempotencyKey;
+import com.example.commute.entity.JobLease;
+import com.example.commute.entity.Member;
+import com.example.commute.entity.OutboxEvent;
+import com.example.commute.entity.Photo;
+import com.example.commute.entity.UploadSession;
+import com.example.commute.event.ExpenseChangedEvent;
+import com.example.commute.logging.RateSamplingTurboFilter;
+import com.example.commute.storage.OrphanReport;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+// GraalVM native-image 용 힌트 (gradle nativeCompile)
+// - Jackson 으로 주고받는 DTO/이벤트: 생성자, getter/setter 바인딩
+// - JPA 엔티티: Hibernate 가 필드/생성자에 리플렉션으로 접근
+// - datasource-proxy: JDBC 프록시 인터페이스
+// - logback-spring.xml 의 사용자 정의 turboFilter (logback 이 생성자/setter 를 리플렉션으로 호출)
+// - jjwt: 구현체와 Jackson 직렬화기를 클래스 이름과 META-INF/services 로 찾는다 (jjwt-impl/jjwt-jackson 은 runtimeOnly)
+@Configuration
+@RegisterReflectionForBinding({
+        ExpenseDto.class,
+        AmountDto.class,
+        MemberResponse.class,
+        LoginRequestDto.class,
+        LoginResponseDto.class,
+        SignupRequestDto.class,
+        ExpenseSyncDto.class,
+        DashboardDto.class,
+        PhotoMetaDto.class,
+        OrphanReport.class,
+        ExpenseChangedEvent.class
+})
+@ImportRuntimeHints(NativeHintsConfig.CommuteRuntimeHints.class)
+public class NativeHintsConfig {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Expense.class, Member.class, Photo.class, ExpenseTombstone.class, OutboxEvent.class, UploadSession.class,
+            CacheInvalidationEvent.class, JobLease.class, IdempotencyKey.class);
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class CommuteRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.reflection().registerType(Expense.Category.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // datasource-proxy 는 JDBC 객체를 JDK 동적 프록시로 감싼다
+            for (Class<?> jdbcType : List.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class)) {
+                hints.proxies().registerJdkProxy(jdbcType, ProxyJdbcObject.class);
+            }
+
+            hints.reflection().registerType(RateSamplingTurboFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.commute.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+// 읽기 전용 트랜잭션은 replica 로, 나머지는 primary 로 보내는 DataSource
+// replica 연결에 실패하면 retryIntervalMillis 동안 primary 로 우회한다.
+// 트랜잭션의 readOnly 플래그가 결정된 뒤 커넥션을 얻도록 LazyConnectionDataSourceProxy 로 감싸서 사용해야 한다.
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalMillis;
+
+    private volatile long replicaDownUntil = 0L;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica, long retryIntervalMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalMillis = retryIntervalMillis;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && isReplicaAvailable()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!REPLICA.equals(determineCurrentLookupKey())) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!REPLICA.equals(determineCurrentLookupKey())) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return System.currentTimeMillis() >= replicaDownUntil;
+    }
+
+    private void markReplicaDown(SQLException e) {
+        replicaDownUntil = System.currentTimeMillis() + retryIntervalMillis;
+        logger.warn("Replica connection failed, routing reads to primary for {} ms: {}", retryIntervalMillis, e.getMessage());
+    }
+}
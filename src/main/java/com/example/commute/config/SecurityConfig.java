@@ -1,6 +1,9 @@
 package com.example.commute.config;
 
 import com.example.commute.config.JwtAuthenticationFilter;
+import com.example.commute.idempotency.IdempotencyFilter;
+import com.example.commute.profiling.JfrPasswordEncoder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,10 +20,16 @@ public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ObjectProvider<AdaptiveConcurrencyLimitFilter> concurrencyLimitFilter; // app.concurrency.enabled=true 일 때만 존재
+    private final ObjectProvider<IdempotencyFilter> idempotencyFilter; // app.idempotency.enabled=false 이면 없음
 
-    public SecurityConfig(UserDetailsService userDetailsService, JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(UserDetailsService userDetailsService, JwtAuthenticationFilter jwtAuthenticationFilter,
+                          ObjectProvider<AdaptiveConcurrencyLimitFilter> concurrencyLimitFilter,
+                          ObjectProvider<IdempotencyFilter> idempotencyFilter) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     @Bean
@@ -39,11 +48,16 @@ public class SecurityConfig {
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .httpBasic(httpBasic -> httpBasic.disable());
 
+        // 포화 시에는 토큰 검증(사용자 조회)도 하기 전에 거절한다
+        concurrencyLimitFilter.ifAvailable(filter -> http.addFilterBefore(filter, JwtAuthenticationFilter.class));
+        // 키는 회원별이므로 토큰 검증 다음에 둔다
+        idempotencyFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtAuthenticationFilter.class));
+
         return http.build();
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // 비밀번호 인코더 설정
+        return new JfrPasswordEncoder(new BCryptPasswordEncoder()); // 비밀번호 인코더 설정 (BCrypt 호출을 JFR 이벤트로 기록)
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.commute.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 메서드(또는 클래스의 모든 public 메서드)를 지정한 풀에서 실행한다 (app.datasource.bulkhead.enabled=true 일 때)
+// 이미 트랜잭션 안에서 호출되면 바깥 트랜잭션의 풀을 그대로 쓴다
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UseDataSource {
+
+    DataSourceWorkload value();
+}
@@ -0,0 +1,26 @@
+package com.example.commute.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// DataSourceWorkloadContext 의 작업 종류별로 다른 풀에서 커넥션을 꺼낸다
+// 풀 선택이 트랜잭션 시작이 아니라 첫 쿼리 시점에 일어나도록 LazyConnectionDataSourceProxy 로 감싸서 사용한다
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public WorkloadRoutingDataSource(DataSource oltp, DataSource reporting, DataSource background) {
+        setTargetDataSources(Map.of(
+                DataSourceWorkload.OLTP, oltp,
+                DataSourceWorkload.REPORTING, reporting,
+                DataSourceWorkload.BACKGROUND, background));
+        setDefaultTargetDataSource(oltp);
+        // 등록되지 않은 키로 조용히 OLTP 풀을 쓰지 않도록
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceWorkloadContext.current();
+    }
+}
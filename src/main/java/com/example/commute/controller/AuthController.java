@@ -1,5 +1,7 @@
 package com.example.commute.controller;
 
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.cache.CacheNames;
 import com.example.commute.dto.LoginRequestDto;
 
 import com.example.commute.dto.MemberResponse;
@@ -42,6 +44,8 @@ public class AuthController {
 
     private final MemberService memberService;
 
+    private final CacheInvalidationBus cacheInvalidationBus;
+
     @Autowired
     private JwtService jwtService;
 
@@ -75,6 +79,7 @@ public class AuthController {
 
         member.setRole(RoleType.USER);
         memberRepository.save(member);
+        cacheInvalidationBus.evict(CacheNames.MEMBERS, member.getUsername());  // 같은 이름으로 캐시된 이전 정보 제거
         return ResponseEntity.ok("User registered successfully!");
     }
 }
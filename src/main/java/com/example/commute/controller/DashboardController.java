@@ -0,0 +1,33 @@
+package com.example.commute.controller;
+
+import com.example.commute.dto.DashboardDto;
+import com.example.commute.entity.Member;
+import com.example.commute.service.DashboardService;
+import com.example.commute.service.MemberService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/me")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final MemberService memberService;
+
+    // 경비 목록 화면 초기 데이터 (프로필, 첫 페이지, 이번 달 합계, 최근 사진) 한 번에 조회
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardDto> getDashboard() {
+        Optional<Member> member = memberService.findCurrentMember();
+        if (member.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();  // 인증되지 않은 요청
+        }
+        return ResponseEntity.ok(dashboardService.getDashboard(member.get()));
+    }
+}
@@ -1,50 +1,102 @@
 package com.example.commute.controller;
 
+import com.example.commute.dto.ExpenseBatchRequest;
+import com.example.commute.dto.ExpenseBatchResponse;
 import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.ExpenseFields;
+import com.example.commute.dto.ExpenseSyncDto;
+import com.example.commute.dto.UploadedFileDto;
 import com.example.commute.entity.Expense;
 import com.example.commute.entity.Member;
-import com.example.commute.entity.Photo;
+import com.example.commute.entity.UploadSession;
+import com.example.commute.profiling.PhotoWriteEvent;
 import com.example.commute.repository.MemberRepository;
-import com.example.commute.repository.PhotoRepository;
+import com.example.commute.service.ExpenseBatchService;
+import com.example.commute.service.ExpenseFeedService;
 import com.example.commute.service.ExpenseService;
+import com.example.commute.service.ExpenseWriteBehindQueue;
+import com.example.commute.service.MemberService;
+import com.example.commute.service.ResumableUploadService;
+import com.example.commute.storage.PackedBlobStore;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/expenses")
 @RequiredArgsConstructor
 public class ExpenseController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseController.class);
+
     private final ExpenseService expenseService;
+    private final ExpenseFeedService expenseFeedService;
+    private final ExpenseBatchService expenseBatchService;
+    private final ResumableUploadService resumableUploadService;
     private final MemberRepository memberRepository;
-    private final PhotoRepository photoRepository;
+    private final MemberService memberService;
+    private final ObjectProvider<ExpenseWriteBehindQueue> writeBehindQueue; // app.expense.write-behind.enabled=true 일 때만 존재
+    private final ObjectProvider<PackedBlobStore> blobStore; // app.blob.enabled=true 일 때만 존재
 
     // 게시글 목록 조회 (관리자는 전체 목록, 일반 사용자는 자신만 조회)
+    // fields=title,totalAmount,createdAt 처럼 필요한 필드만 요청하면 해당 컬럼만 조회한다
     @GetMapping
-    public ResponseEntity<Page<ExpenseDto>> getAllExpenses(
-            @AuthenticationPrincipal Member member,
+    public ResponseEntity<Page<?>> getAllExpenses(
+            @RequestParam(value = "fields", required = false) String fields,
             @PageableDefault(size = 10) Pageable pageable) {
-        System.out.println("Fetching all expenses...");
+        logger.debug("Fetching all expenses: {}", pageable);
+
+        Optional<Member> currentMember = memberService.findCurrentMember();
+        if (currentMember.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();  // 인증되지 않은 요청
+        }
+        Member member = currentMember.get();
+
+        Set<String> selectedFields;
+        try {
+            selectedFields = ExpenseFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 지원하지 않는 필드
+        }
 
         // 관리자는 전체 목록 조회, 일반 사용자는 자신의 목록만 조회
+        if (fields != null) {
+            return ResponseEntity.ok(expenseService.getExpensesWithFields(
+                    member.isAdmin() ? null : member, null, selectedFields, pageable)
+                    .map(dto -> ExpenseFields.select(dto, selectedFields)));
+        }
         if (member.isAdmin()) {
             return ResponseEntity.ok(expenseService.getAllExpenses(pageable));
         } else {
@@ -52,11 +104,40 @@ public class ExpenseController {
         }
     }
 
+    // 델타 동기화: since(watermark) 이후 변경/삭제된 게시글만 조회, since 가 없으면 전체
+    @GetMapping("/sync")
+    public ResponseEntity<ExpenseSyncDto> syncExpenses(
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        Optional<Member> member = memberService.findCurrentMember();
+        if (member.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();  // 인증되지 않은 요청
+        }
+        return ResponseEntity.ok(expenseService.getChangesSince(member.get(), since));
+    }
+
+    // 관리자용 실시간 변경 알림 (SSE). category, memberId 로 필터링 가능
+    // 구독은 몇 시간씩 열려 있으므로 회원을 DB 에서 다시 읽지 않고 인증 정보의 권한으로만 확인한다
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExpenses(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "memberId", required = false) Long memberId) {
+        Optional<Authentication> authentication = memberService.findCurrentAuthentication();
+        if (authentication.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();  // 인증되지 않은 요청
+        }
+        if (!MemberService.isAdmin(authentication.get())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();  // 관리자만 구독 가능
+        }
+        return ResponseEntity.ok(expenseFeedService.subscribe(category, memberId));
+    }
+
     // 게시글 작성
     @PostMapping(consumes = { "multipart/form-data" })
     public ResponseEntity<ExpenseDto> createExpense(
             @RequestPart("expenseDto") ExpenseDto expenseDto,
-            @RequestPart("files") List<MultipartFile> files) {
+            @RequestPart(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "uploadIds", required = false) List<String> uploadIds) {
 
         try {
             // 현재 인증된 사용자 정보 가져오기
@@ -69,32 +150,101 @@ public class ExpenseController {
             Optional<Member> optionalMember = memberRepository.findByUsername(username);
             Member member = optionalMember.orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
 
-            // 파일 업로드 처리 (파일이 있을 경우에만 처리)
+            // 파일 업로드 처리 (파일이 있을 경우에만 처리). 원래 파일 이름/타입/크기는 Photo 에 그대로 남긴다
+            List<UploadedFileDto> uploadedFiles = new ArrayList<>();
             if (files != null && !files.isEmpty()) {
-                List<String> photoUrls = new ArrayList<>();
                 for (MultipartFile file : files) {
                     // 파일 업로드 처리
                     String photoUrl = uploadFile(file, member);
-                    photoUrls.add(photoUrl);
+                    uploadedFiles.add(UploadedFileDto.builder()
+                            .filePath(photoUrl)
+                            .fileName(file.getOriginalFilename())
+                            .fileType(file.getContentType())
+                            .fileSize(file.getSize())
+                            .build());
+                }
+            }
+            // 이어 올리기(/api/uploads)로 완료한 파일 추가 (업로드 하나는 게시글 하나에만 붙는다)
+            // 여기서는 확인만 하고, 사용 처리는 게시글 저장 트랜잭션에서 한다 (저장이 실패하면 같은 uploadIds 로 다시 시도 가능)
+            if (uploadIds != null && !uploadIds.isEmpty()) {
+                try {
+                    for (UploadSession session : resumableUploadService.findCompleted(uploadIds, member)) {
+                        uploadedFiles.add(UploadedFileDto.builder()
+                                .uploadId(session.getId())
+                                .filePath(session.getFilePath())
+                                .fileName(session.getFileName())
+                                .fileType(session.getFileType())
+                                .fileSize(session.getUploadLength())
+                                .build());
+                    }
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Rejected uploadIds {}: {}", uploadIds, e.getMessage());
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+                }
+            }
+            expenseDto.setPhotoUrls(uploadedFiles.stream().map(UploadedFileDto::getFilePath).collect(Collectors.toList()));
+            expenseDto.setUploadedFiles(uploadedFiles);
+
+            // write-behind 모드: 큐에 넣고 일괄 커밋 결과를 기다린다
+            ExpenseWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+            if (queue != null) {
+                CompletableFuture<ExpenseDto> pending = queue.submit(expenseDto, username);
+                if (queue.getDurability() == ExpenseWriteBehindQueue.Durability.ENQUEUE) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(expenseDto);  // 접수만 완료 (id 없음)
+                }
+                try {
+                    return ResponseEntity.ok(pending.get(queue.getFlushTimeoutMillis(), TimeUnit.MILLISECONDS));
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IllegalArgumentException) {
+                        logger.warn("Invalid expense create request: {}", e.getCause().getMessage());
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 잘못된 카테고리, 이미 사용한 업로드 등
+                    }
+                    throw e;
+                } catch (TimeoutException e) {
+                    if (queue.cancel(pending)) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(null);  // 큐에서 뺐으므로 재시도해도 중복되지 않는다
+                    }
+                    // 이미 배치에 들어가 곧 커밋된다: 503 을 주면 재시도가 중복을 만들므로 접수 응답 (ENQUEUE 와 같다)
+                    logger.warn("Write-behind commit exceeded {} ms, answering 202 for an already drained expense", queue.getFlushTimeoutMillis());
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(expenseDto);
                 }
-                expenseDto.setPhotoUrls(photoUrls);  // 파일 URL 리스트 설정
-            } else {
-                expenseDto.setPhotoUrls(new ArrayList<>());  // 파일이 없을 경우 빈 리스트로 설정
             }
 
             // ExpenseService를 통해 게시글 생성
             ExpenseDto createdExpense = expenseService.createExpense(expenseDto);
 
             return ResponseEntity.ok(createdExpense);  // 생성된 게시글 반환
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(null);  // 대기열 포화
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid expense create request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 잘못된 카테고리, 이미 사용한 업로드 등
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.warn("Invalid expense create request: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 잘못된 JSON 형식일 경우 처리
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Failed to create expense", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);  // 예기치 못한 예외 처리
         }
     }
 
+    // 여러 작업(CREATE/UPDATE/DELETE/GET)을 한 요청으로 처리 (오프라인 클라이언트의 일괄 동기화)
+    // mode=ATOMIC 이면 전체를 한 트랜잭션으로, INDEPENDENT(기본)이면 작업마다 결과가 따로 정해진다
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ExpenseBatchResponse> executeBatch(@RequestBody ExpenseBatchRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);  // 인증되지 않으면 FORBIDDEN 상태 반환
+        }
+
+        try {
+            return ResponseEntity.ok(expenseBatchService.execute(authentication.getName(), request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid expense batch request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 작업 수 초과, op 누락 등
+        }
+    }
+
     // 특정 게시글 조회
     @GetMapping("/{id}")
     public ResponseEntity<ExpenseDto> getExpenseById(@PathVariable Long id) {
@@ -128,10 +278,10 @@ public class ExpenseController {
             ExpenseDto updatedExpense = expenseService.updateExpense(id, expenseDto, member);
             return ResponseEntity.ok(updatedExpense);  // 수정된 게시글 반환
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.warn("Invalid expense update request for ID {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 잘못된 JSON 형식일 경우 처리
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Failed to update expense with ID: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);  // 예기치 못한 예외 처리
         }
     }
@@ -147,7 +297,7 @@ public class ExpenseController {
             expenseService.deleteExpense(id, member);  // ExpenseService로 삭제 요청
             return ResponseEntity.noContent().build();  // 성공적으로 삭제되었을 때
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Failed to delete expense with ID: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();  // 예기치 못한 예외 처리
         }
     }
@@ -159,22 +309,29 @@ public class ExpenseController {
             Double totalAmount = expenseService.calculateTotalAmountForDtos(expenses);  // ExpenseDto에 대한 합산 계산
             return ResponseEntity.ok(totalAmount);
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Failed to calculate total amount", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);  // 예기치 못한 예외 처리
         }
     }
 
-    // 카테고리로 검색하는 API
+    // 카테고리로 검색하는 API (fields= 지원)
     @GetMapping("/category/{category}")
-    public ResponseEntity<Page<ExpenseDto>> getExpensesByCategory(
+    public ResponseEntity<Page<?>> getExpensesByCategory(
             @PathVariable String category,
+            @RequestParam(value = "fields", required = false) String fields,
             @PageableDefault(size = 10) Pageable pageable) {
 
         try {
-            Page<ExpenseDto> expenses = expenseService.getExpensesByCategory(Expense.Category.valueOf(category), pageable);
+            Expense.Category expenseCategory = Expense.Category.valueOf(category);
+            if (fields != null) {
+                Set<String> selectedFields = ExpenseFields.parse(fields);
+                return ResponseEntity.ok(expenseService.getExpensesWithFields(null, expenseCategory, selectedFields, pageable)
+                        .map(dto -> ExpenseFields.select(dto, selectedFields)));
+            }
+            Page<ExpenseDto> expenses = expenseService.getExpensesByCategory(expenseCategory, pageable);
             return ResponseEntity.ok(expenses);  // 카테고리별로 조회된 목록 반환
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 잘못된 카테고리 입력 처리
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);  // 잘못된 카테고리/필드 입력 처리
         }
     }
 
@@ -185,27 +342,31 @@ public class ExpenseController {
     public String uploadFile(MultipartFile file, Member member) throws IOException {
         // 파일 이름, 경로, 타입, 크기 등을 설정
         String fileName = file.getOriginalFilename();
-        String filePath = uploadDir + "/" + UUID.randomUUID() + "_" + fileName;
         String fileType = file.getContentType();
         Long fileSize = file.getSize();
-        LocalDateTime uploadedAt = LocalDateTime.now();
-
-        // 파일을 실제로 저장하는 코드 (파일 시스템에 저장)
-        File destinationFile = new File(filePath);
-        file.transferTo(destinationFile);
-
-        // Member의 Expense 리스트에서 적합한 Expense를 가져와서 연결할 수 있는지 확인
-        // 이 예시에서는 첫 번째 Expense를 연결한다고 가정 (여러 개의 Expense가 있을 수 있으므로 적절한 로직으로 수정 필요)
-        Expense expense = member.getExpenses().get(0); // 실제로는 Expense를 선택하는 로직이 필요
 
-        // Photo 객체 생성 후 저장
-        Photo photo = new Photo(fileName, filePath, expense);  // Expense 객체를 연결
-        photo.setFileType(fileType);
-        photo.setFileSize(fileSize);
-        photo.setUploadedAt(uploadedAt);
-
-        photoRepository.save(photo);  // PhotoRepository를 통해 DB에 저장
+        PhotoWriteEvent event = new PhotoWriteEvent();
+        event.begin();
+        String filePath;
+        PackedBlobStore store = blobStore.getIfAvailable();
+        if (store != null) {
+            // pack 파일에 이어 붙이고 위치(blob:<segment>/<offset>/<length>)를 경로로 사용
+            try (InputStream in = file.getInputStream()) {
+                filePath = store.append(in, fileSize).toPath();
+            }
+        } else {
+            // 파일을 실제로 저장하는 코드 (파일 시스템에 저장)
+            filePath = uploadDir + "/" + UUID.randomUUID() + "_" + fileName;
+            File destinationFile = new File(filePath);
+            file.transferTo(destinationFile);
+        }
+        event.memberId = member.getId() != null ? member.getId() : 0;
+        event.storage = store != null ? "blob" : "file";
+        event.fileType = fileType;
+        event.bytes = fileSize;
+        event.commit();
 
+        // Photo 행은 createExpense 가 photoUrls 로 게시글과 함께 만든다
         return filePath;  // 업로드된 파일의 경로 반환
     }
 
@@ -0,0 +1,63 @@
+package com.example.commute.controller;
+
+import com.example.commute.entity.Member;
+import com.example.commute.jdbc.NPlusOneFinding;
+import com.example.commute.jdbc.StatementShapeStats;
+import com.example.commute.jdbc.StatementStats;
+import com.example.commute.service.MemberService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+// SQL 모양별 지연 통계와 N+1 의심 요청 조회 (관리자만)
+@RestController
+@RequestMapping("/api/admin/jdbc")
+@RequiredArgsConstructor
+public class JdbcDiagnosticsController {
+
+    private final StatementStats statementStats;
+    private final MemberService memberService;
+
+    @GetMapping("/statements")
+    public ResponseEntity<List<StatementShapeStats>> statements(
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        HttpStatus rejected = rejectNonAdmin();
+        if (rejected != null) {
+            return ResponseEntity.status(rejected).build();
+        }
+        List<StatementShapeStats> shapes = statementStats.getShapes();
+        return ResponseEntity.ok(shapes.subList(0, Math.min(limit, shapes.size())));
+    }
+
+    @GetMapping("/n-plus-one")
+    public ResponseEntity<List<NPlusOneFinding>> nPlusOne() {
+        HttpStatus rejected = rejectNonAdmin();
+        if (rejected != null) {
+            return ResponseEntity.status(rejected).build();
+        }
+        return ResponseEntity.ok(statementStats.getFindings());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        HttpStatus rejected = rejectNonAdmin();
+        if (rejected != null) {
+            return ResponseEntity.status(rejected).build();
+        }
+        statementStats.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    // 관리자가 아니면 거절할 상태 (인증 안 됨 401, 관리자 아님 403), 관리자면 null
+    private HttpStatus rejectNonAdmin() {
+        Optional<Member> member = memberService.findCurrentMember();
+        if (member.isEmpty()) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return member.get().isAdmin() ? null : HttpStatus.FORBIDDEN;
+    }
+}
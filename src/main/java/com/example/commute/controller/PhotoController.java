@@ -0,0 +1,123 @@
+package com.example.commute.controller;
+
+import com.example.commute.entity.Member;
+import com.example.commute.entity.Photo;
+import com.example.commute.exception.ResourceNotFoundException;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.service.MemberService;
+import com.example.commute.storage.BlobLocation;
+import com.example.commute.storage.OrphanReconciler;
+import com.example.commute.storage.OrphanReport;
+import com.example.commute.storage.PackedBlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@RestController
+@RequestMapping("/api/photos")
+@RequiredArgsConstructor
+public class PhotoController {
+
+    private final PhotoRepository photoRepository;
+    private final MemberService memberService;
+    private final ObjectProvider<PackedBlobStore> blobStore; // app.blob.enabled=true 일 때만 존재
+    private final ObjectProvider<OrphanReconciler> orphanReconciler; // app.gc.enabled=true 일 때만 존재
+
+    // 영수증 파일 내용 조회 (작성자 또는 관리자만). pack 파일과 기존 개별 파일 모두 지원
+    @GetMapping("/{id}/content")
+    public ResponseEntity<StreamingResponseBody> getPhotoContent(@PathVariable Long id) throws IOException {
+        Member member = memberService.findCurrentMember().orElse(null);
+        if (member == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Photo photo = photoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("사진을 찾을 수 없습니다. ID: " + id));
+        if (!member.isAdmin() && (photo.getExpense() == null || photo.getExpense().getMember() == null
+                || !photo.getExpense().getMember().getId().equals(member.getId()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        MediaType mediaType = photo.getFileType() != null
+                ? MediaType.parseMediaType(photo.getFileType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+
+        if (BlobLocation.isBlob(photo.getFilePath())) {
+            PackedBlobStore store = blobStore.getIfAvailable();
+            if (store == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();  // blob 저장소가 꺼져 있음
+            }
+            BlobLocation location = BlobLocation.parse(photo.getFilePath());
+            ByteBuffer content = store.read(location);
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .contentLength(location.length())
+                    .body(out -> {
+                        WritableByteChannel channel = Channels.newChannel(out);
+                        while (content.hasRemaining()) {
+                            channel.write(content);
+                        }
+                    });
+        }
+
+        Path path = Paths.get(photo.getFilePath());
+        if (!Files.exists(path)) {
+            throw new ResourceNotFoundException("파일을 찾을 수 없습니다. ID: " + id);
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .contentLength(Files.size(path))
+                .body(out -> Files.copy(path, out));
+    }
+
+    // 고아 파일/행 정리 실행 (관리자만). 기본은 dryRun 으로 대상만 보고
+    @PostMapping("/reconcile")
+    public ResponseEntity<OrphanReport> reconcile(
+            @RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun) throws IOException {
+        Member member = memberService.findCurrentMember().orElse(null);
+        if (member == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!member.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        OrphanReconciler reconciler = orphanReconciler.getIfAvailable();
+        if (reconciler == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();  // app.gc.enabled=false
+        }
+        return ResponseEntity.ok(reconciler.reconcile(dryRun));
+    }
+
+    // 마지막 정리 결과 (예약 실행 포함)
+    @GetMapping("/reconcile")
+    public ResponseEntity<OrphanReport> lastReconcileReport() {
+        Member member = memberService.findCurrentMember().orElse(null);
+        if (member == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!member.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        OrphanReconciler reconciler = orphanReconciler.getIfAvailable();
+        if (reconciler == null || reconciler.getLastReport() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reconciler.getLastReport());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.commute.controller;
+
+import com.example.commute.entity.Member;
+import com.example.commute.profiling.FlightRecorderService;
+import com.example.commute.service.MemberService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.Optional;
+
+// 운영 중 JFR 녹화 시작/중지/다운로드 (관리자만). 다운로드한 파일은 JDK Mission Control 이나 jfr print 로 본다
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+public class ProfilingController {
+
+    private final FlightRecorderService flightRecorderService;
+    private final MemberService memberService;
+
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, String>> start(
+            @RequestParam(value = "settings", defaultValue = "default") String settings) throws IOException {
+        HttpStatus rejected = rejectNonAdmin();
+        if (rejected != null) {
+            return ResponseEntity.status(rejected).build();
+        }
+        try {
+            return ResponseEntity.ok(Map.of("state", flightRecorderService.start(settings)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("state", flightRecorderService.status()));
+        } catch (ParseException | IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();  // 알 수 없는 설정 이름
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, String>> stop() {
+        HttpStatus rejected = rejectNonAdmin();
+        if (rejected != null) {
+            return ResponseEntity.status(rejected).build();
+        }
+        try {
+            return ResponseEntity.ok(Map.of("state", flightRecorderService.stop()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("state", flightRecorderService.status()));
+        }
+    }
+
+    @GetMapping("/recording")
+    public ResponseEntity<StreamingResponseBody> download() throws IOException {
+        HttpStatus rejected = rejectNonAdmin();
+        if (rejected != null) {
+            return ResponseEntity.status(rejected).build();
+        }
+        Path file;
+        try {
+            file = flightRecorderService.dump();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"commute.jfr\"")
+                .body(out -> {
+                    try {
+                        Files.copy(file, out);
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                });
+    }
+
+    // 관리자가 아니면 거절할 상태 (인증 안 됨 401, 관리자 아님 403), 관리자면 null
+    private HttpStatus rejectNonAdmin() {
+        Optional<Member> member = memberService.findCurrentMember();
+        if (member.isEmpty()) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return member.get().isAdmin() ? null : HttpStatus.FORBIDDEN;
+    }
+}
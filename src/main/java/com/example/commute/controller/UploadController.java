@@ -0,0 +1,130 @@
+package com.example.commute.controller;
+
+import com.example.commute.entity.Member;
+import com.example.commute.entity.UploadSession;
+import com.example.commute.exception.ChecksumMismatchException;
+import com.example.commute.exception.ResourceNotFoundException;
+import com.example.commute.service.MemberService;
+import com.example.commute.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+// 큰 영수증 파일을 위한 이어 올리기 업로드 (tus 1.0 core + creation + checksum 확장의 부분 구현)
+// 1) POST /api/uploads (Upload-Length, Upload-Metadata: filename <base64>,filetype <base64>) -> Location
+// 2) PATCH /api/uploads/{id} (Content-Type: application/offset+octet-stream, Upload-Offset, Upload-Checksum)
+// 3) 끊기면 HEAD /api/uploads/{id} 로 Upload-Offset 을 확인하고 그 위치부터 다시 PATCH
+// 완료 후 업로드 id 를 게시글 작성 시 uploadIds 로 넘긴다 (업로드 하나는 한 번만 붙일 수 있다)
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private static final String TUS_RESUMABLE = "Tus-Resumable";
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String UPLOAD_FILE_PATH = "Upload-File-Path";
+    private static final int CHECKSUM_MISMATCH = 460; // tus checksum 확장의 상태 코드
+
+    private final ResumableUploadService resumableUploadService;
+    private final MemberService memberService;
+
+    // 업로드 세션 생성
+    @PostMapping
+    public ResponseEntity<Void> createUpload(
+            @RequestHeader(UPLOAD_LENGTH) long uploadLength,
+            @RequestHeader(value = "Upload-Metadata", required = false) String metadata) throws IOException {
+        Member member = memberService.findCurrentMember().orElse(null);
+        if (member == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Map<String, String> meta = parseMetadata(metadata);
+        try {
+            UploadSession session = resumableUploadService.create(
+                    member, uploadLength, meta.getOrDefault("filename", "upload"), meta.get("filetype"));
+            return ResponseEntity.created(URI.create("/api/uploads/" + session.getId()))
+                    .header(TUS_RESUMABLE, TUS_VERSION)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+    }
+
+    // 현재까지 받은 위치 조회 (이어 올리기 전에 호출)
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getOffset(@PathVariable String id) {
+        Member member = memberService.findCurrentMember().orElse(null);
+        if (member == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            UploadSession session = resumableUploadService.get(id, member);
+            return uploadResponse(ResponseEntity.ok(), session);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+    }
+
+    // Upload-Offset 위치부터 조각 이어 붙이기 (본문을 multipart 없이 바로 스트리밍)
+    @PatchMapping(value = "/{id}", consumes = "application/offset+octet-stream")
+    public ResponseEntity<Void> appendChunk(
+            @PathVariable String id,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            @RequestHeader(value = "Upload-Checksum", required = false) String checksum,
+            HttpServletRequest request) throws IOException {
+        Member member = memberService.findCurrentMember().orElse(null);
+        if (member == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            UploadSession session = resumableUploadService.appendChunk(id, member, offset, request.getInputStream(), checksum);
+            return uploadResponse(ResponseEntity.noContent(), session);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(TUS_RESUMABLE, TUS_VERSION).build();  // offset 불일치, 동시 요청
+        } catch (ChecksumMismatchException e) {
+            return ResponseEntity.status(CHECKSUM_MISMATCH).header(TUS_RESUMABLE, TUS_VERSION).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+    }
+
+    private static ResponseEntity<Void> uploadResponse(ResponseEntity.HeadersBuilder<?> builder, UploadSession session) {
+        builder.header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(session.getUploadOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getUploadLength()))
+                .header(HttpHeaders.CACHE_CONTROL, "no-store");
+        if (session.isComplete()) {
+            builder.header(UPLOAD_FILE_PATH, session.getFilePath());
+        }
+        return builder.build();
+    }
+
+    // "key base64,key base64" 형식의 Upload-Metadata 파싱
+    private static Map<String, String> parseMetadata(String metadata) {
+        Map<String, String> result = new HashMap<>();
+        if (metadata == null || metadata.isBlank()) {
+            return result;
+        }
+        for (String pair : metadata.split(",")) {
+            String[] parts = pair.trim().split(" ", 2);
+            String value = parts.length == 2
+                    ? new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8)
+                    : "";
+            result.put(parts[0], value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// 경비 목록 화면 초기 로딩에 필요한 데이터를 한 번에 내려주는 응답
+@Data
+@Builder
+@AllArgsConstructor
+public class DashboardDto {
+    private String username;
+    private String role;
+    private List<ExpenseDto> expenses;       // 첫 페이지
+    private long totalExpenses;
+    private Map<String, Double> monthlyCategoryTotals; // 이번 달 카테고리별 합계
+    private List<PhotoMetaDto> recentPhotos;
+}
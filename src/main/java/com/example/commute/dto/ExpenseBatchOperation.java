@@ -0,0 +1,25 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 일괄 요청의 작업 하나. CREATE 는 expense, UPDATE 는 id + expense, DELETE / GET 은 id 만 사용
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchOperation {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE,
+        GET
+    }
+
+    private Type op;
+    private Long id;
+    private ExpenseDto expense;
+}
@@ -0,0 +1,26 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// POST /api/expenses/batch
+// ATOMIC: 전체를 한 트랜잭션으로 (하나라도 실패하면 모두 롤백), INDEPENDENT: 작업마다 따로 성공/실패
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchRequest {
+
+    public enum Mode {
+        ATOMIC,
+        INDEPENDENT
+    }
+
+    @Builder.Default
+    private Mode mode = Mode.INDEPENDENT;
+    private List<ExpenseBatchOperation> operations;
+}
@@ -0,0 +1,17 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+// committed: ATOMIC 에서 전체가 반영되었는지 (INDEPENDENT 는 결과별 status 를 본다)
+@Data
+@Builder
+@AllArgsConstructor
+public class ExpenseBatchResponse {
+    private ExpenseBatchRequest.Mode mode;
+    private boolean committed;
+    private List<ExpenseBatchResult> results;
+}
@@ -0,0 +1,19 @@
+package com.example.commute.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+// 작업별 결과 (index 는 요청의 operations 순서). status 는 단건 API 였다면 받았을 HTTP 상태
+@Data
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseBatchResult {
+    private int index;
+    private ExpenseBatchOperation.Type op;
+    private int status;
+    private ExpenseDto expense;
+    private String error;
+}
@@ -1,6 +1,7 @@
 package com.example.commute.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
@@ -10,7 +11,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ExpenseDto {
 
@@ -21,10 +21,16 @@ public class ExpenseDto {
     private List<String> photoUrls;
     private Double totalAmount;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
     private String username;
     private String date;
     private List<AmountDto> amounts; // amounts 필드 추가
 
+    // 서버가 받은 업로드 파일 정보 (photoUrls 의 경로별 이름/타입/크기). 요청/응답 JSON 에는 없다
+    @JsonIgnore
+    private List<UploadedFileDto> uploadedFiles;
+
+    @Builder
     @JsonCreator
     public ExpenseDto(
             @JsonProperty("id") Long id,
@@ -34,6 +40,7 @@ public class ExpenseDto {
             @JsonProperty("photoUrls") List<String> photoUrls,
             @JsonProperty("totalAmount") Double totalAmount,
             @JsonProperty("createdAt") LocalDateTime createdAt,
+            @JsonProperty("updatedAt") LocalDateTime updatedAt,
             @JsonProperty("username") String username,
             @JsonProperty("date") String date,
             @JsonProperty("amounts") List<AmountDto> amounts
@@ -45,6 +52,7 @@ public class ExpenseDto {
         this.photoUrls = photoUrls;
         this.totalAmount = totalAmount;
         this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
         this.username = username; // 필드명 변경에 맞춰 수정
         this.date = date;
         this.amounts = amounts; // amounts 필드 초기화
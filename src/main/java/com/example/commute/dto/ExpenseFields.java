@@ -0,0 +1,77 @@
+package com.example.commute.dto;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ExpenseDto 의 sparse fieldset(fields=title,totalAmount,createdAt) 파싱
+// 선택된 필드만 DB 에서 조회하고, 응답에는 select() 로 선택된 필드만 담는다 (다른 응답의 ExpenseDto 형태는 그대로)
+public final class ExpenseFields {
+
+    public static final String ID = "id";
+    public static final String TITLE = "title";
+    public static final String CATEGORY = "category";
+    public static final String CONTENT = "content";
+    public static final String PHOTO_URLS = "photoUrls";
+    public static final String TOTAL_AMOUNT = "totalAmount";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String USERNAME = "username";
+
+    // 응답의 필드 순서 (ExpenseDto 선언 순서)
+    private static final List<String> ORDER = List.of(
+            ID, TITLE, CATEGORY, CONTENT, PHOTO_URLS, TOTAL_AMOUNT, CREATED_AT, UPDATED_AT, USERNAME);
+
+    public static final Set<String> ALL = Set.copyOf(ORDER);
+
+    private ExpenseFields() {
+    }
+
+    // 콤마로 구분된 필드 목록을 검증해서 반환 (id 는 항상 포함)
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .forEach(field -> {
+                    if (!ALL.contains(field)) {
+                        throw new IllegalArgumentException("지원하지 않는 필드입니다: " + field);
+                    }
+                    selected.add(field);
+                });
+        return selected;
+    }
+
+    // 선택된 필드만 담은 응답 행 (선택되지 않은 필드는 키가 없고, 선택된 필드는 값이 null 이어도 남는다)
+    public static Map<String, Object> select(ExpenseDto dto, Set<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : ORDER) {
+            if (fields.contains(field)) {
+                row.put(field, value(dto, field));
+            }
+        }
+        return row;
+    }
+
+    private static Object value(ExpenseDto dto, String field) {
+        return switch (field) {
+            case ID -> dto.getId();
+            case TITLE -> dto.getTitle();
+            case CATEGORY -> dto.getCategory();
+            case CONTENT -> dto.getContent();
+            case PHOTO_URLS -> dto.getPhotoUrls();
+            case TOTAL_AMOUNT -> dto.getTotalAmount();
+            case CREATED_AT -> dto.getCreatedAt();
+            case UPDATED_AT -> dto.getUpdatedAt();
+            case USERNAME -> dto.getUsername();
+            default -> throw new IllegalArgumentException("지원하지 않는 필드입니다: " + field);
+        };
+    }
+}
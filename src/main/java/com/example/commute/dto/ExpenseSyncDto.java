@@ -0,0 +1,18 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 델타 동기화 응답: since 이후 생성/수정된 게시글, 삭제된 게시글 ID, 다음 요청에 쓸 watermark
+@Data
+@Builder
+@AllArgsConstructor
+public class ExpenseSyncDto {
+    private List<ExpenseDto> changed;
+    private List<Long> deletedIds;
+    private LocalDateTime watermark;
+}
@@ -0,0 +1,21 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// 썸네일 표시용 사진 메타데이터 (파일 내용 제외)
+@Data
+@Builder
+@AllArgsConstructor
+public class PhotoMetaDto {
+    private Long id;
+    private Long expenseId;
+    private String fileName;
+    private String filePath;
+    private String fileType;
+    private Long fileSize;
+    private LocalDateTime uploadedAt;
+}
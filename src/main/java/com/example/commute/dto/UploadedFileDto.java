@@ -0,0 +1,18 @@
+package com.example.commute.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+// 게시글 작성 요청에 붙은 업로드 파일의 실제 정보 (multipart 파일 또는 이어 올리기로 완료한 파일)
+// uploadId 는 이어 올리기 업로드일 때만 있고, 게시글을 저장하는 트랜잭션에서 사용 처리된다
+@Data
+@Builder
+@AllArgsConstructor
+public class UploadedFileDto {
+    private String uploadId;
+    private String filePath;
+    private String fileName;
+    private String fileType;
+    private Long fileSize;
+}
@@ -0,0 +1,37 @@
+package com.example.commute.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 캐시 무효화 알림. 변경과 같은 트랜잭션에 기록되고, 각 인스턴스가 ID 순으로 폴링해 자기 캐시에서 지운다
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "CACHE_INVALIDATION", indexes = {
+        @Index(name = "IDX_CACHE_INVALIDATION_CREATED_AT", columnList = "CREATED_AT")
+})
+public class CacheInvalidationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "CACHE_NAME", nullable = false, length = 50)
+    private String cacheName;
+
+    // null 이면 캐시 전체 비우기
+    @Column(name = "CACHE_KEY", length = 200)
+    private String cacheKey;
+
+    // 보낸 인스턴스 (자기가 보낸 알림은 이미 로컬에서 지웠으므로 건너뛴다)
+    @Column(name = "ORIGIN", nullable = false, length = 36)
+    private String origin;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -14,7 +14,10 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "EXPENSE")
+@Table(name = "EXPENSE", indexes = {
+        @Index(name = "IDX_EXPENSE_MEMBER_UPDATED_AT", columnList = "MEMBER_ID, UPDATED_AT"),
+        @Index(name = "IDX_EXPENSE_CREATED_AT", columnList = "CREATED_AT")
+})
 public class Expense {
 
     @Id
@@ -38,19 +41,31 @@ public class Expense {
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Photo> photos;
 
+    // EXPENSE 는 CREATED_AT 으로 파티셔닝될 수 있고, MySQL 파티션 테이블은 외래 키를 지원하지 않으므로 FK 를 만들지 않는다
     @ManyToOne(cascade = CascadeType.PERSIST)
-    @JoinColumn(name = "MEMBER_ID")
+    @JoinColumn(name = "MEMBER_ID", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Member member;
 
     @Column(name = "CREATED_AT", nullable = false)
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
 
+    // 마지막 변경 시각 (델타 동기화 기준)
+    @Column(name = "UPDATED_AT")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 
     public enum Category {
@@ -0,0 +1,33 @@
+package com.example.commute.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 삭제된 Expense 기록 (클라이언트 델타 동기화에서 삭제를 전달하기 위함)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "EXPENSE_TOMBSTONE", indexes = {
+        @Index(name = "IDX_TOMBSTONE_MEMBER_DELETED_AT", columnList = "MEMBER_ID, DELETED_AT"),
+        @Index(name = "IDX_TOMBSTONE_DELETED_AT", columnList = "DELETED_AT")
+})
+public class ExpenseTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "EXPENSE_ID", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "MEMBER_ID")
+    private Long memberId;
+
+    @Column(name = "DELETED_AT", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,45 @@
+package com.example.commute.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 인스턴스 간에 공유하는 Idempotency-Key 상태 (회원, 경로, 키의 해시당 한 행)
+// STATUS 가 null 이면 OWNER 인스턴스가 실행 중이고, LOCKED_UNTIL 이 지나면 다른 인스턴스가 이어받을 수 있다
+// 실행이 끝나면 응답(상태, 헤더 JSON, 본문)을 저장해 EXPIRES_AT 까지 재시도에 돌려준다
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "IDEMPOTENCY_KEY", indexes = {
+        @Index(name = "IDX_IDEMPOTENCY_KEY_EXPIRES_AT", columnList = "EXPIRES_AT")
+})
+public class IdempotencyKey {
+
+    // SHA-256 hex (키 원문은 회원 이름 + 경로 + 헤더 값이라 길이가 정해져 있지 않다)
+    @Id
+    @Column(name = "KEY_HASH", length = 64)
+    private String keyHash;
+
+    @Column(name = "OWNER", nullable = false, length = 36)
+    private String owner;
+
+    @Column(name = "STATUS")
+    private Integer status;
+
+    @Column(name = "HEADERS", length = 4000)
+    private String headers;
+
+    @Lob
+    @Column(name = "BODY", length = 1048576)
+    private byte[] body;
+
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,28 @@
+package com.example.commute.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 여러 인스턴스 중 한 곳에서만 돌아야 하는 예약 작업의 실행권 (작업 이름당 한 행)
+// LOCKED_UNTIL 이 지나면 다른 인스턴스가 가져갈 수 있으므로, 오래 걸리는 작업은 중간에 연장한다
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "JOB_LEASE")
+public class JobLease {
+
+    @Id
+    @Column(name = "NAME", length = 50)
+    private String name;
+
+    @Column(name = "OWNER", nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private LocalDateTime lockedUntil;
+}
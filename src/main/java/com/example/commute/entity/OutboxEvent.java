@@ -0,0 +1,57 @@
+package com.example.commute.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 게시글 변경과 같은 트랜잭션에 기록되는 후처리 이벤트 (transactional outbox)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "OUTBOX_EVENT", indexes = {
+        @Index(name = "IDX_OUTBOX_STATUS_NEXT_ATTEMPT", columnList = "STATUS, NEXT_ATTEMPT_AT")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "EVENT_TYPE", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "AGGREGATE_ID")
+    private Long aggregateId;
+
+    @Column(name = "PAYLOAD", nullable = false, length = 2000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 10)
+    private Status status;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "PROCESSED_AT")
+    private LocalDateTime processedAt;
+
+    @Column(name = "LAST_ERROR", length = 500)
+    private String lastError;
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+}
@@ -30,8 +30,9 @@ public class Photo {
     private String description; // 파일 설명 (선택적)
 
     // Expense와의 관계 (다수의 사진이 하나의 비용에 속할 수 있음)
+    // 파티션된 EXPENSE 는 외래 키로 참조할 수 없으므로 FK 를 만들지 않는다
     @ManyToOne
-    @JoinColumn(name = "expense_id")
+    @JoinColumn(name = "expense_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Expense expense;
 
     public Photo(String fileName, String filePath, Expense expense) {
@@ -0,0 +1,57 @@
+package com.example.commute.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 이어 올리기(resumable) 업로드 진행 상태. 재시작 후에도 offset 부터 이어서 받을 수 있도록 DB 에 둔다
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "UPLOAD_SESSION", indexes = {
+        @Index(name = "IDX_UPLOAD_SESSION_EXPIRES_AT", columnList = "EXPIRES_AT")
+})
+public class UploadSession {
+
+    @Id
+    @Column(name = "ID", length = 36)
+    private String id;
+
+    @Column(name = "MEMBER_ID", nullable = false)
+    private Long memberId;
+
+    @Column(name = "FILE_NAME")
+    private String fileName;
+
+    @Column(name = "FILE_TYPE")
+    private String fileType;
+
+    @Column(name = "UPLOAD_LENGTH", nullable = false)
+    private long uploadLength; // 전체 크기 (Upload-Length)
+
+    @Column(name = "UPLOAD_OFFSET", nullable = false)
+    private long uploadOffset; // 지금까지 받은 크기 (Upload-Offset)
+
+    @Column(name = "TEMP_PATH", nullable = false)
+    private String tempPath;
+
+    @Column(name = "FILE_PATH")
+    private String filePath; // 완료 후 저장 경로 (게시글 작성 시 Photo 경로가 된다)
+
+    @Column(name = "CONSUMED_AT")
+    private LocalDateTime consumedAt; // 게시글에 붙인 시각 (한 번만 붙일 수 있다)
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isComplete() {
+        return filePath != null;
+    }
+}
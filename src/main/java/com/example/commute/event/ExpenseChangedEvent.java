@@ -0,0 +1,30 @@
+package com.example.commute.event;
+
+import com.example.commute.entity.Expense;
+
+// ExpenseService 가 게시글을 생성/수정/삭제할 때 발행하는 이벤트
+public record ExpenseChangedEvent(
+        Type type,
+        Long expenseId,
+        Long memberId,
+        String title,
+        String category,
+        Double amount
+) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ExpenseChangedEvent of(Type type, Expense expense) {
+        return new ExpenseChangedEvent(
+                type,
+                expense.getId(),
+                expense.getMember() != null ? expense.getMember().getId() : null,
+                expense.getTitle(),
+                expense.getCategory() != null ? expense.getCategory().name() : null,
+                expense.getAmount());
+    }
+}
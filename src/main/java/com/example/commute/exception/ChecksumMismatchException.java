@@ -0,0 +1,8 @@
+package com.example.commute.exception;
+
+
+public class ChecksumMismatchException extends RuntimeException {
+    public ChecksumMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.commute.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Idempotency-Key 헤더가 있는 POST /api/expenses, /api/expenses/batch, /api/uploads 의 재시도를 한 번만 실행한다
+// - 회원별로 키를 구분하고, 첫 실행의 응답(상태, 헤더, 본문)을 저장해 재시도에 그대로 돌려준다 (Idempotent-Replayed: true)
+// - 첫 실행이 끝나기 전에 온 중복 요청은 다시 실행하지 않고 결과를 기다린다 (wait-timeout-ms 를 넘기면 409)
+// - 5xx 나 예외는 저장하지 않으므로 다음 재시도는 다시 실행된다
+// - 본문이 max-body-bytes 보다 크면 상태와 헤더만 저장하고, 재시도에는 본문 없이 돌려준다 (다시 실행하지 않는다)
+// 저장된 응답을 돌려줄 때는 요청 본문(첨부 파일)을 읽지 않으므로 uploadFile 의 디스크 쓰기가 없고,
+// 클라이언트가 Expect: 100-continue 를 보내면 파일 전송 자체도 생략된다
+// 본문이 첫 요청과 같은지는 확인하지 않는다 (같은 키는 같은 요청이라는 클라이언트 약속)
+// 여러 인스턴스에서는 SharedIdempotencyKeys(IDEMPOTENCY_KEY 테이블)로 키를 공유하므로, 재시도가 다른 인스턴스로 가도 다시 실행되지 않는다
+// (다른 인스턴스가 실행 중이면 poll-interval-ms 마다 테이블을 다시 보며 기다린다. app.idempotency.shared=false 이면 인스턴스 단위)
+// JwtAuthenticationFilter 다음에 실행되어야 회원을 알 수 있다 (SecurityConfig)
+@Component
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> PATHS = Set.of("/api/expenses", "/api/expenses/batch", "/api/uploads");
+    // 재시도마다 달라야 하는 헤더는 저장하지 않는다
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "transfer-encoding", "date", "set-cookie", "x-request-id");
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private final IdempotencyStore store;
+    private final SharedIdempotencyKeys sharedKeys; // app.idempotency.shared=false 이면 null
+    private final long waitTimeoutMillis;
+    private final long pollIntervalMillis;
+    private final int maxBodyBytes;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public IdempotencyFilter(
+            MeterRegistry meterRegistry,
+            ObjectProvider<SharedIdempotencyKeys> sharedKeys,
+            @Value("${app.idempotency.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${app.idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis,
+            @Value("${app.idempotency.poll-interval-ms:200}") long pollIntervalMillis,
+            @Value("${app.idempotency.max-body-bytes:262144}") int maxBodyBytes) {
+        this(meterRegistry, sharedKeys.getIfAvailable(), maxWeightBytes, ttlMinutes, waitTimeoutMillis, pollIntervalMillis, maxBodyBytes);
+    }
+
+    IdempotencyFilter(MeterRegistry meterRegistry, SharedIdempotencyKeys sharedKeys, long maxWeightBytes, long ttlMinutes,
+                      long waitTimeoutMillis, long pollIntervalMillis, int maxBodyBytes) {
+        this.store = new IdempotencyStore(maxWeightBytes, Duration.ofMinutes(ttlMinutes));
+        this.sharedKeys = sharedKeys;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxBodyBytes = maxBodyBytes;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("idempotency.entries", store, IdempotencyStore::size);
+        meterRegistry.gauge("idempotency.weight.bytes", store, IdempotencyStore::weightedSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !PATHS.contains(request.getRequestURI())
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key must be 1-255 characters");
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);  // 회원을 모르면 키를 구분할 수 없다 (컨트롤러가 거절)
+            return;
+        }
+
+        String key = authentication.getName() + '\n' + request.getRequestURI() + '\n' + idempotencyKey;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(key);
+            if (claim.owner()) {
+                if (sharedKeys == null || claimShared(key, claim, deadline, response)) {
+                    execute(key, claim, request, response, filterChain);
+                }
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                stored = claim.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                conflict(response);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (stored != null) {
+                count("replayed");
+                replay(stored, response);
+                return;
+            }
+            // 먼저 온 요청이 저장하지 않고 끝났다 -> 이번 요청이 다시 실행한다
+        }
+    }
+
+    // 다른 인스턴스가 먼저 받은 키인지 확인한다. 이 요청이 실행해야 하면 true,
+    // 저장된 응답을 돌려줬거나 기다리다 시간이 지났으면 false (같은 인스턴스의 중복 요청은 로컬 future 로 결과를 받는다)
+    private boolean claimShared(String key, IdempotencyStore.Claim claim, long deadline, HttpServletResponse response)
+            throws ServletException, IOException {
+        while (true) {
+            SharedIdempotencyKeys.Claim shared;
+            try {
+                shared = sharedKeys.claim(key);
+            } catch (RuntimeException e) {
+                store.abandon(key, claim);
+                throw e;
+            }
+            if (shared.owner()) {
+                return true;
+            }
+            if (shared.stored() != null) {
+                store.complete(key, claim, shared.stored());
+                count("replayed");
+                replay(shared.stored(), response);
+                return false;
+            }
+            if (System.nanoTime() >= deadline) {
+                store.abandon(key, claim);
+                conflict(response);
+                return false;
+            }
+            try {
+                Thread.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                store.abandon(key, claim);
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+        }
+    }
+
+    private void execute(String key, IdempotencyStore.Claim claim, HttpServletRequest request,
+                         HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            byte[] body = wrapper.getContentAsByteArray();
+            if (wrapper.getStatus() < 500) {
+                StoredResponse result = body.length <= maxBodyBytes
+                        ? new StoredResponse(wrapper.getStatus(), headers(wrapper), body)
+                        : StoredResponse.statusOnly(wrapper.getStatus(), headers(wrapper));
+                if (sharedKeys != null) {
+                    sharedKeys.complete(key, result);
+                }
+                store.complete(key, claim, result);
+                stored = true;
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            if (!stored) {
+                store.abandon(key, claim);
+                releaseShared(key);
+            }
+            count("executed");
+        }
+    }
+
+    private void releaseShared(String key) {
+        if (sharedKeys == null) {
+            return;
+        }
+        try {
+            sharedKeys.release(key);
+        } catch (RuntimeException e) {
+            // 행이 남아도 lease 가 지나면 다른 요청이 이어받는다
+            logger.warn("Failed to release idempotency key: {}", e.getMessage());
+        }
+    }
+
+    private void conflict(HttpServletResponse response) throws IOException {
+        count("conflict");
+        response.setHeader("Retry-After", "1");
+        response.sendError(HttpServletResponse.SC_CONFLICT, "A request with this Idempotency-Key is still in progress");
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        if (response.getContentType() != null) {
+            headers.put("Content-Type", List.of(response.getContentType()));
+        }
+        return headers;
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+}
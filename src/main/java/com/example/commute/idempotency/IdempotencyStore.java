@@ -0,0 +1,68 @@
+package com.example.commute.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+
+// (회원, 경로, Idempotency-Key) -> 응답. 저장된 응답 크기 합(max-weight-bytes)과 보관 시간(ttl)으로 제한되는 인스턴스 내 저장소
+// 값은 CompletableFuture 라서 실행 중인 키의 중복 요청은 같은 future 를 기다린다
+// 무게는 값을 넣을 때 계산되므로, 실행이 끝나면 완료된 future 로 바꿔 넣어 본문 크기가 반영되게 한다
+public class IdempotencyStore {
+
+    // 키, 헤더, 맵 항목 등 본문 외의 대략적인 크기
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final Cache<String, CompletableFuture<StoredResponse>> cache;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> entries;
+
+    public IdempotencyStore(long maxWeightBytes, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(IdempotencyStore::weigh)
+                .expireAfterWrite(ttl)
+                .build();
+        this.entries = cache.asMap();
+    }
+
+    // 처음 온 요청이면 owner=true 와 새 future, 아니면 먼저 온 요청의 future
+    public Claim claim(String key) {
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = entries.putIfAbsent(key, mine);
+        return existing == null ? new Claim(true, mine) : new Claim(false, existing);
+    }
+
+    public void complete(String key, Claim claim, StoredResponse response) {
+        claim.future().complete(response);
+        entries.replace(key, claim.future(), CompletableFuture.completedFuture(response));
+    }
+
+    // 저장하지 않을 결과(5xx, 예외): 키를 비우고 기다리던 요청은 null 을 받아 다시 시도한다
+    public void abandon(String key, Claim claim) {
+        entries.remove(key, claim.future());
+        claim.future().complete(null);
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long weightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    // 밀린 제거 작업을 바로 실행 (테스트에서 제한 확인용)
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static int weigh(String key, CompletableFuture<StoredResponse> future) {
+        StoredResponse response = future.isDone() ? future.getNow(null) : null;
+        return key.length() + ENTRY_OVERHEAD_BYTES + (response != null ? response.body().length : 0);
+    }
+
+    public record Claim(boolean owner, CompletableFuture<StoredResponse> future) {
+    }
+}
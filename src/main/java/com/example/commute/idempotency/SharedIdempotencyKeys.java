@@ -0,0 +1,152 @@
+package com.example.commute.idempotency;
+
+import com.example.commute.entity.IdempotencyKey;
+import com.example.commute.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// IDEMPOTENCY_KEY 테이블로 인스턴스 간에 Idempotency-Key 를 공유한다 (별도 인프라 없이 DB 만 사용)
+// IdempotencyStore 는 같은 인스턴스 안의 중복 요청을 future 로 묶고, 여기서는 다른 인스턴스로 간 재시도를 막는다
+// - 처음 본 키는 행을 만든 인스턴스가 실행하고, 끝나면 응답을 저장한다
+// - 실행 중인 키는 lease-seconds 동안 다른 인스턴스가 건드리지 않는다 (실행하던 인스턴스가 죽으면 그 뒤에 이어받는다)
+@Component
+@ConditionalOnExpression("${app.idempotency.enabled:true} and ${app.idempotency.shared:true}")
+public class SharedIdempotencyKeys {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedIdempotencyKeys.class);
+    private static final TypeReference<Map<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final String owner;
+
+    @Autowired
+    public SharedIdempotencyKeys(
+            IdempotencyKeyRepository repository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${app.idempotency.lease-seconds:120}") long leaseSeconds) {
+        this(repository, transactionManager, objectMapper, Duration.ofMinutes(ttlMinutes), Duration.ofSeconds(leaseSeconds),
+                UUID.randomUUID().toString());
+    }
+
+    SharedIdempotencyKeys(IdempotencyKeyRepository repository, PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper, Duration ttl, Duration lease, String owner) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.owner = owner;
+    }
+
+    // 실행권을 얻으면 owner=true, 다른 인스턴스가 이미 저장한 응답이 있으면 stored, 아직 실행 중이면 둘 다 비어 있다
+    public Claim claim(String key) {
+        String keyHash = hash(key);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<IdempotencyKey> existing = repository.findById(keyHash);
+                if (existing.isEmpty()) {
+                    repository.saveAndFlush(IdempotencyKey.builder()
+                            .keyHash(keyHash)
+                            .owner(owner)
+                            .lockedUntil(now.plus(lease))
+                            .expiresAt(now.plus(ttl))
+                            .build());
+                    return Claim.OWNER;
+                }
+                IdempotencyKey row = existing.get();
+                if (row.getStatus() != null && row.getExpiresAt().isAfter(now)) {
+                    return new Claim(false, toResponse(row));
+                }
+                return repository.takeOver(keyHash, owner, now, now.plus(lease), now.plus(ttl)) == 1 ? Claim.OWNER : Claim.BUSY;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 처음 행을 만드는 경쟁에서 다른 인스턴스가 이겼다
+            logger.debug("Idempotency key was claimed by another instance");
+            return Claim.BUSY;
+        }
+    }
+
+    public void complete(String key, StoredResponse response) {
+        String headers = writeHeaders(response.headers());
+        Integer updated = transactionTemplate.execute(status ->
+                repository.complete(hash(key), owner, response.status(), headers, response.body()));
+        if (updated == null || updated == 0) {
+            // lease 가 지나 다른 인스턴스가 이어받았다. 그쪽 결과가 저장된다
+            logger.warn("Idempotency key lease expired before the response was stored");
+        }
+    }
+
+    public void release(String key) {
+        transactionTemplate.executeWithoutResult(status -> repository.release(hash(key), owner));
+    }
+
+    // 보관 기간이 지난 키 정리 (모든 인스턴스가 실행해도 결과는 같다)
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            logger.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private StoredResponse toResponse(IdempotencyKey row) {
+        try {
+            Map<String, List<String>> headers = row.getHeaders() != null ? objectMapper.readValue(row.getHeaders(), HEADERS_TYPE) : Map.of();
+            return new StoredResponse(row.getStatus(), headers, row.getBody() != null ? row.getBody() : new byte[0]);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 응답 헤더를 읽을 수 없습니다.", e);
+        }
+    }
+
+    private String writeHeaders(Map<String, List<String>> headers) {
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Claim(boolean owner, StoredResponse stored) {
+
+        static final Claim OWNER = new Claim(true, null);
+        static final Claim BUSY = new Claim(false, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.commute.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 첫 실행의 응답 (같은 Idempotency-Key 재시도에 그대로 돌려준다)
+public record StoredResponse(int status, Map<String, List<String>> headers, byte[] body) {
+
+    // 본문이 너무 커서 저장하지 않는 응답: 상태와 헤더만 남긴다 (본문이 없으므로 Content-Type 도 뺀다)
+    public static StoredResponse statusOnly(int status, Map<String, List<String>> headers) {
+        Map<String, List<String>> kept = new LinkedHashMap<>(headers);
+        kept.keySet().removeIf("content-type"::equalsIgnoreCase);
+        return new StoredResponse(status, kept, new byte[0]);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.commute.jdbc;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// 애플리케이션이 쓰는 DataSource("dataSource" 빈)를 datasource-proxy 로 감싼다
+// replica 라우팅을 켠 경우에도 최상위 DataSource 만 감싸므로 SQL 하나가 한 번만 기록된다
+@Configuration
+@ConditionalOnProperty(name = "app.jdbc.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor statementProxyPostProcessor(ObjectProvider<StatementStats> statementStats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("commute")
+                        .listener(new StatementListener(statementStats.getObject()))
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.commute.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// 요청마다 SQL 모양별 실행 횟수를 세고, 같은 모양이 n-plus-one-threshold 번 이상이면 StatementStats 에 기록
+@Component
+@ConditionalOnProperty(name = "app.jdbc.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class NPlusOneDetectionFilter extends OncePerRequestFilter {
+
+    private final StatementStats statementStats;
+
+    public NPlusOneDetectionFilter(StatementStats statementStats) {
+        this.statementStats = statementStats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // /api/expenses/{id} 처럼 매핑 패턴으로 묶는다
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String path = pattern != null ? pattern.toString() : request.getRequestURI();
+            statementStats.inspect(request.getMethod() + " " + path, RequestStatements.end());
+        }
+    }
+}
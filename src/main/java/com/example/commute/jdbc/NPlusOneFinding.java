@@ -0,0 +1,7 @@
+package com.example.commute.jdbc;
+
+import java.time.LocalDateTime;
+
+// 한 요청에서 같은 모양의 SQL 이 threshold 번 이상 실행된 기록
+public record NPlusOneFinding(LocalDateTime detectedAt, String request, String shapeId, String shape, int count) {
+}
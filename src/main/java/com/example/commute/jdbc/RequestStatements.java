@@ -0,0 +1,40 @@
+package com.example.commute.jdbc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// 현재 스레드에서 실행된 SQL 수 (JDBC 호출은 요청 스레드에서 동기적으로 실행된다)
+// begin() ~ end() 사이에는 모양별 횟수도 센다 (N+1 감지, 테스트 검증용)
+public final class RequestStatements {
+
+    private static final ThreadLocal<long[]> TOTAL = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<Map<String, Integer>> SHAPES = new ThreadLocal<>();
+
+    private RequestStatements() {
+    }
+
+    public static void begin() {
+        SHAPES.set(new HashMap<>());
+    }
+
+    // 모양별 실행 횟수를 반환하고 집계를 끝낸다
+    public static Map<String, Integer> end() {
+        Map<String, Integer> shapes = SHAPES.get();
+        SHAPES.remove();
+        return shapes != null ? shapes : Collections.emptyMap();
+    }
+
+    // 이 스레드에서 지금까지 실행된 SQL 수 (구간 차이로 사용)
+    public static long count() {
+        return TOTAL.get()[0];
+    }
+
+    static void record(String shape) {
+        TOTAL.get()[0]++;
+        Map<String, Integer> shapes = SHAPES.get();
+        if (shapes != null) {
+            shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+}
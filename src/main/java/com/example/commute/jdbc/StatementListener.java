@@ -0,0 +1,49 @@
+package com.example.commute.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// datasource-proxy 리스너: 실행 시간을 나노초로 재고 StatementStats 에 넘긴다
+// 바인드 값은 기록하지 않고 타입만 남긴다 (비밀번호 해시, 개인정보가 로그로 새지 않도록)
+class StatementListener implements QueryExecutionListener {
+
+    private static final String START = "commute.startNanos";
+
+    private final StatementStats statementStats;
+
+    StatementListener(StatementStats statementStats) {
+        this.statementStats = statementStats;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        long elapsedNanos = start != null ? System.nanoTime() - start : execInfo.getElapsedTime() * 1_000_000L;
+        for (QueryInfo queryInfo : queryInfoList) {
+            statementStats.record(queryInfo.getQuery(), elapsedNanos, redact(queryInfo));
+        }
+    }
+
+    private static List<String> redact(QueryInfo queryInfo) {
+        List<String> types = new ArrayList<>();
+        if (queryInfo.getParametersList().isEmpty()) {
+            return types;
+        }
+        for (ParameterSetOperation operation : queryInfo.getParametersList().get(0)) {
+            Object[] args = operation.getArgs();
+            Object value = args.length > 1 ? args[1] : null;
+            types.add(value == null ? "null" : value.getClass().getSimpleName());
+        }
+        return types;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.commute.jdbc;
+
+import java.util.regex.Pattern;
+
+// SQL 을 "모양"으로 정규화: 리터럴은 ?, IN 목록은 (?...) 로 묶고 공백을 하나로 줄인다
+// 같은 쿼리가 파라미터만 바꿔 반복되면 같은 모양이 된다
+public final class StatementShape {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private StatementShape() {
+    }
+
+    public static String of(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    // 메트릭 태그/로그용 짧은 id
+    public static String id(String shape) {
+        return String.format("%08x", shape.hashCode());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.commute.jdbc;
+
+import java.util.Map;
+
+// SQL 모양별 지연 통계. percentile 은 히스토그램 버킷 상한으로 근사한다
+public record StatementShapeStats(
+        String shapeId,
+        String shape,
+        long count,
+        double totalMillis,
+        double maxMillis,
+        double p50Millis,
+        double p95Millis,
+        double p99Millis,
+        Map<String, Long> histogram) {
+}
@@ -0,0 +1,198 @@
+package com.example.commute.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// SQL 모양별 지연 히스토그램, 느린 쿼리 로그, N+1 감지 결과 보관
+@Component
+public class StatementStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementStats.class);
+
+    // 버킷 상한 (마이크로초). 마지막 버킷은 그 이상 전부
+    private static final long[] BUCKET_MICROS = {100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, Long.MAX_VALUE};
+
+    private final Map<String, ShapeHistogram> shapes = new ConcurrentHashMap<>();
+    private final Deque<NPlusOneFinding> findings = new ArrayDeque<>();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final int maxShapes;
+    private final int maxFindings;
+
+    public StatementStats(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.jdbc.slow-query-ms:200}") long slowQueryMillis,
+            @Value("${app.jdbc.n-plus-one-threshold:5}") int nPlusOneThreshold,
+            @Value("${app.jdbc.max-shapes:500}") int maxShapes,
+            @Value("${app.jdbc.max-findings:100}") int maxFindings) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxShapes = maxShapes;
+        this.maxFindings = maxFindings;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    // 실행 한 번 기록. 느리면 바인드 값 대신 타입만 남겨서 로그
+    void record(String sql, long elapsedNanos, List<String> redactedParameters) {
+        String shape = StatementShape.of(sql);
+        RequestStatements.record(shape);
+
+        ShapeHistogram histogram = shapes.get(shape);
+        if (histogram == null && shapes.size() < maxShapes) {
+            histogram = shapes.computeIfAbsent(shape, this::newHistogram);
+        }
+        if (histogram != null) {
+            histogram.record(elapsedNanos);
+        }
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            logger.warn("Slow query ({} ms) [{}]: {} params={}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), StatementShape.id(shape), shape, redactedParameters);
+        }
+    }
+
+    // 요청 하나가 끝났을 때 모양별 횟수를 검사
+    public List<NPlusOneFinding> inspect(String request, Map<String, Integer> counts) {
+        List<NPlusOneFinding> detected = new ArrayList<>();
+        counts.forEach((shape, count) -> {
+            if (count >= nPlusOneThreshold) {
+                detected.add(new NPlusOneFinding(LocalDateTime.now(), request, StatementShape.id(shape), shape, count));
+            }
+        });
+        if (!detected.isEmpty()) {
+            synchronized (findings) {
+                for (NPlusOneFinding finding : detected) {
+                    logger.warn("Possible N+1 in {}: {} executions of [{}] {}",
+                            request, finding.count(), finding.shapeId(), finding.shape());
+                    if (findings.size() == maxFindings) {
+                        findings.removeFirst();
+                    }
+                    findings.addLast(finding);
+                }
+            }
+        }
+        return detected;
+    }
+
+    public List<NPlusOneFinding> getFindings() {
+        synchronized (findings) {
+            return new ArrayList<>(findings);
+        }
+    }
+
+    // 총 소요 시간이 큰 순서
+    public List<StatementShapeStats> getShapes() {
+        return shapes.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingDouble(StatementShapeStats::totalMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        shapes.clear();
+        synchronized (findings) {
+            findings.clear();
+        }
+    }
+
+    private ShapeHistogram newHistogram(String shape) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        Timer timer = registry == null ? null : Timer.builder("jdbc.statement")
+                .tag("shape", StatementShape.id(shape))
+                .publishPercentileHistogram()
+                .register(registry);
+        return new ShapeHistogram(timer);
+    }
+
+    private static final class ShapeHistogram {
+
+        private final Timer timer;
+        private final LongAdder[] buckets = new LongAdder[BUCKET_MICROS.length];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        ShapeHistogram(Timer timer) {
+            this.timer = timer;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long elapsedNanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+            int bucket = 0;
+            while (micros > BUCKET_MICROS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (timer != null) {
+                timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        StatementShapeStats snapshot(String shape) {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+                histogram.put(i == buckets.length - 1 ? "+Inf" : "le_" + BUCKET_MICROS[i] + "us", counts[i]);
+            }
+            return new StatementShapeStats(
+                    StatementShape.id(shape),
+                    shape,
+                    count.sum(),
+                    totalNanos.sum() / 1_000_000.0,
+                    maxNanos.get() / 1_000_000.0,
+                    percentileMillis(counts, total, 0.50),
+                    percentileMillis(counts, total, 0.95),
+                    percentileMillis(counts, total, 0.99),
+                    histogram);
+        }
+
+        private double percentileMillis(long[] counts, long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(total * quantile);
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target) {
+                    return i == counts.length - 1 ? maxNanos.get() / 1_000_000.0 : BUCKET_MICROS[i] / 1000.0;
+                }
+            }
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+}
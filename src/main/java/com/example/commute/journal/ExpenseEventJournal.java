@@ -0,0 +1,353 @@
+package com.example.commute.journal;
+
+import com.example.commute.event.ExpenseChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// 게시글 변경 이벤트를 기록하는 append-only 메모리 매핑 저널
+//
+// 세그먼트 파일: <첫 sequence 20자리>.journal, 크기 고정 (app.journal.segment-size)
+// 레코드: [int 길이][int CRC32C][payload] - 길이가 0 이면 기록 끝
+// payload: [long sequence][long timestamp][byte type][long expenseId][long memberId][double amount][category][title]
+//
+// 커밋된 변경만 기록하며, replay() 로 캐시/검색 인덱스/집계 등을 MySQL 조회 없이 재구성할 수 있다.
+@Component
+@ConditionalOnProperty(name = "app.journal.enabled", havingValue = "true")
+public class ExpenseEventJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseEventJournal.class);
+
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 8;
+    private static final long NONE = -1L;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final Object writeLock = new Object();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+
+    // 리더가 읽어도 되는 범위 (현재 세그먼트와 그 안의 기록 끝 위치)
+    private volatile long currentSegmentBase;
+    private volatile int writePosition;
+
+    public ExpenseEventJournal(
+            @Value("${app.journal.dir:./journal}") String directory,
+            @Value("${app.journal.segment-size:67108864}") int segmentSize,
+            @Value("${app.journal.fsync:false}") boolean fsync) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> segments = segmentBases();
+        if (segments.isEmpty()) {
+            openSegment(1L);
+            nextSequence = 1L;
+        } else {
+            recover(segments.get(segments.size() - 1));
+        }
+        logger.info("Expense event journal opened at {} (next sequence: {})", directory, nextSequence);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    // 트랜잭션이 커밋된 변경만 기록
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        append(event);
+    }
+
+    public long append(ExpenseChangedEvent event) {
+        synchronized (writeLock) {
+            long sequence = nextSequence;
+            byte[] payload = encode(sequence, System.currentTimeMillis(), event);
+            int recordSize = HEADER_SIZE + payload.length;
+            if (recordSize + HEADER_SIZE > segmentSize) {
+                throw new IllegalArgumentException("저널 레코드가 세그먼트보다 큽니다: " + recordSize);
+            }
+            // 다음 레코드의 길이(0) 자리까지 남겨두고 넘치면 새 세그먼트로 교체
+            if (writePosition + recordSize + HEADER_SIZE > segmentSize) {
+                rotate(sequence);
+            }
+
+            int position = writePosition;
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            buffer.put(position + HEADER_SIZE, payload);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            // 길이를 마지막에 써서 리더가 덜 쓰인 레코드를 보지 않게 한다
+            buffer.putInt(position, payload.length);
+            if (fsync) {
+                buffer.force(position, recordSize);
+            }
+
+            nextSequence = sequence + 1;
+            writePosition = position + recordSize;
+            return sequence;
+        }
+    }
+
+    public long lastSequence() {
+        synchronized (writeLock) {
+            return nextSequence - 1;
+        }
+    }
+
+    // fromSequence 부터 현재까지 기록된 이벤트를 순서대로 전달
+    public void replay(long fromSequence, Consumer<JournalEntry> consumer) {
+        try (Reader reader = tail(fromSequence)) {
+            List<JournalEntry> entries;
+            while (!(entries = reader.poll(1024)).isEmpty()) {
+                entries.forEach(consumer);
+            }
+        }
+    }
+
+    // 프로세스 내 소비자를 위한 tailing 리더. poll() 을 반복 호출하면 새로 기록된 이벤트를 이어서 읽는다
+    public Reader tail(long fromSequence) {
+        return new Reader(Math.max(1L, fromSequence));
+    }
+
+    public final class Reader implements AutoCloseable {
+
+        private long nextSequence;
+        private long segmentBase = NONE;
+        private MappedByteBuffer segment;
+        private int position;
+
+        private Reader(long fromSequence) {
+            this.nextSequence = fromSequence;
+        }
+
+        public List<JournalEntry> poll(int maxEntries) {
+            List<JournalEntry> entries = new ArrayList<>();
+            try {
+                while (entries.size() < maxEntries) {
+                    if (segment == null && !openSegmentFor(nextSequence)) {
+                        break;
+                    }
+                    boolean isCurrent = segmentBase == currentSegmentBase;
+                    int limit = isCurrent ? writePosition : segment.capacity();
+                    JournalEntry entry = position + HEADER_SIZE <= limit ? read(segment, position) : null;
+                    if (entry == null) {
+                        if (isCurrent) {
+                            break;
+                        }
+                        // 닫힌 세그먼트를 다 읽었으면 다음 세그먼트로
+                        segment = null;
+                        continue;
+                    }
+                    position += HEADER_SIZE + segment.getInt(position);
+                    if (entry.sequence() >= nextSequence) {
+                        entries.add(entry);
+                        nextSequence = entry.sequence() + 1;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return entries;
+        }
+
+        public long nextSequence() {
+            return nextSequence;
+        }
+
+        @Override
+        public void close() {
+            segment = null;
+        }
+
+        // 아직 읽지 않은 세그먼트 중 sequence 를 포함하는 것 (없으면 그 다음 세그먼트)
+        private boolean openSegmentFor(long sequence) throws IOException {
+            long base = NONE;
+            for (long candidate : segmentBases()) {
+                if (candidate <= segmentBase) {
+                    continue;
+                }
+                if (candidate <= sequence || base == NONE) {
+                    base = candidate;
+                } else {
+                    break;
+                }
+            }
+            if (base == NONE) {
+                return false;
+            }
+            try (FileChannel readChannel = FileChannel.open(segmentPath(base), StandardOpenOption.READ)) {
+                segment = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            }
+            segmentBase = base;
+            position = 0;
+            return true;
+        }
+    }
+
+    private void recover(long base) throws IOException {
+        openSegment(base);
+        int position = 0;
+        long lastSequence = base - 1;
+        JournalEntry entry;
+        while (position + HEADER_SIZE <= segmentSize && (entry = read(buffer, position)) != null) {
+            lastSequence = entry.sequence();
+            position += HEADER_SIZE + buffer.getInt(position);
+        }
+        writePosition = position;
+        nextSequence = lastSequence + 1;
+
+        // 비정상 종료로 덜 쓰인 레코드가 남아 있으면 세그먼트의 나머지를 0 으로 지우고 그 자리부터 이어 쓴다
+        // (새 세그먼트로 넘기면 position 0 에서 찢어진 경우 nextSequence == base 라 같은 파일을 다시 열게 된다)
+        if (position + HEADER_SIZE <= segmentSize && buffer.getInt(position) != 0) {
+            logger.warn("Torn record at {} in journal segment {}, discarding the rest of the segment", position, base);
+            byte[] zeros = new byte[8192];
+            for (int offset = position; offset < segmentSize; offset += zeros.length) {
+                buffer.put(offset, zeros, 0, Math.min(zeros.length, segmentSize - offset));
+            }
+            buffer.force();
+        }
+    }
+
+    private void rotate(long nextBase) {
+        try {
+            buffer.force();
+            channel.close();
+            openSegment(nextBase);
+            logger.info("Expense event journal rotated to segment {}", nextBase);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        channel = FileChannel.open(segmentPath(base),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        writePosition = 0;
+        currentSegmentBase = base;
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    // 길이가 0 이거나 체크섬이 맞지 않으면 null
+    private static JournalEntry read(ByteBuffer segment, int position) {
+        int length = segment.getInt(position);
+        if (length <= 0 || position + HEADER_SIZE + length > segment.capacity()) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        segment.get(position + HEADER_SIZE, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if ((int) crc.getValue() != segment.getInt(position + 4)) {
+            return null;
+        }
+        return decode(ByteBuffer.wrap(payload));
+    }
+
+    private static byte[] encode(long sequence, long timestamp, ExpenseChangedEvent event) {
+        byte[] category = bytes(event.category());
+        byte[] title = bytes(event.title());
+        ByteBuffer payload = ByteBuffer.allocate(8 + 8 + 1 + 8 + 8 + 8 + 2 + length(category) + 2 + length(title));
+        payload.putLong(sequence)
+                .putLong(timestamp)
+                .put((byte) event.type().ordinal())
+                .putLong(event.expenseId() != null ? event.expenseId() : NONE)
+                .putLong(event.memberId() != null ? event.memberId() : NONE)
+                .putDouble(event.amount() != null ? event.amount() : Double.NaN);
+        putString(payload, category);
+        putString(payload, title);
+        return payload.array();
+    }
+
+    private static JournalEntry decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long timestamp = payload.getLong();
+        ExpenseChangedEvent.Type type = ExpenseChangedEvent.Type.values()[payload.get()];
+        long expenseId = payload.getLong();
+        long memberId = payload.getLong();
+        double amount = payload.getDouble();
+        String category = getString(payload);
+        String title = getString(payload);
+        return new JournalEntry(sequence, timestamp, new ExpenseChangedEvent(
+                type,
+                expenseId != NONE ? expenseId : null,
+                memberId != NONE ? memberId : null,
+                title,
+                category,
+                Double.isNaN(amount) ? null : amount));
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) (value != null ? value.length : -1));
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
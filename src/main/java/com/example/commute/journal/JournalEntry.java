@@ -0,0 +1,7 @@
+package com.example.commute.journal;
+
+import com.example.commute.event.ExpenseChangedEvent;
+
+// 저널에 기록된 이벤트 한 건 (sequence 는 1 부터 증가)
+public record JournalEntry(long sequence, long timestampMillis, ExpenseChangedEvent event) {
+}
@@ -0,0 +1,91 @@
+package com.example.commute.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 지정한 로거(접두사)의 INFO 이하 로그를 로거별 초당 permitsPerSecond 건으로 제한한다 (logback-spring.xml 의 prod 프로파일)
+// WARN/ERROR 는 항상 통과하고, 버린 건수는 다음에 통과하는 로그와 함께 한 번 알린다
+public class RateSamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggers = new ArrayList<>();
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong totalSuppressed = new AtomicLong();
+    private int permitsPerSecond = 10;
+
+    public void addLoggerPrefix(String prefix) {
+        loggers.add(prefix);
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public long getTotalSuppressed() {
+        return totalSuppressed.get();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isInfoEnabled() 같은 레벨 확인(format 없음)이나 어차피 꺼진 레벨은 허용량을 쓰지 않는다
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        long suppressed = window.acquire(System.nanoTime(), permitsPerSecond);
+        if (suppressed < 0) {
+            totalSuppressed.incrementAndGet();
+            return FilterReply.DENY;
+        }
+        if (suppressed > 0) {
+            // WARN 은 샘플링 대상이 아니므로 이 필터를 다시 타도 허용량을 쓰지 않는다
+            logger.warn("{} log events suppressed by sampling in the last window", suppressed);
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean sampled(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 1초 고정 창. acquire 는 허용 시 직전 창에서 버린 건수(없으면 0), 거절 시 -1
+    private static final class Window {
+
+        private long windowStart = System.nanoTime() - 1_000_000_000L;
+        private int used;
+        private long suppressed;
+        private long reportable;
+
+        synchronized long acquire(long now, int limit) {
+            if (now - windowStart >= 1_000_000_000L) {
+                windowStart = now;
+                used = 0;
+                reportable += suppressed;
+                suppressed = 0;
+            }
+            if (used >= limit) {
+                suppressed++;
+                return -1;
+            }
+            used++;
+            long report = reportable;
+            reportable = 0;
+            return report;
+        }
+    }
+}
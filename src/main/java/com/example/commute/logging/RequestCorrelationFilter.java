@@ -0,0 +1,43 @@
+package com.example.commute.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// 요청마다 상관관계 id 를 MDC(requestId)에 넣어 JSON 로그의 필드로 남기고, X-Request-Id 응답 헤더로 돌려준다
+// 프록시가 보낸 X-Request-Id 가 있으면 그대로 이어 쓴다 (형식이 이상하면 새로 발급)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.commute.outbox;
+
+import com.example.commute.event.ExpenseChangedEvent;
+
+// 커밋 이후 실행할 후처리 (썸네일, 캐시 무효화, 인덱스 갱신, 알림 등)
+// 빈으로 등록하면 OutboxRelay 가 자동으로 호출한다. 실패 시 재시도되므로 멱등하게 구현해야 한다.
+public interface OutboxHandler {
+
+    String name();
+
+    void handle(ExpenseChangedEvent event) throws Exception;
+}
@@ -0,0 +1,193 @@
+package com.example.commute.outbox;
+
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
+import com.example.commute.entity.OutboxEvent;
+import com.example.commute.event.ExpenseChangedEvent;
+import com.example.commute.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// OUTBOX_EVENT 를 배치로 읽어 등록된 OutboxHandler 에 전달하는 백그라운드 relay
+// 요청 트랜잭션은 outbox 행 하나만 추가로 쓰므로, 후처리 소비자가 늘어나도 응답 시간은 그대로다
+//
+// 배치마다 (1) 짧은 트랜잭션으로 이벤트를 잠그고 claim-timeout 만큼 nextAttemptAt 을 미뤄 점유한 뒤 커밋하고
+// (2) 트랜잭션 없이 핸들러를 실행한 다음 (3) 짧은 트랜잭션으로 결과를 기록한다.
+// 핸들러가 도는 동안 relay 는 커넥션을 잡고 있지 않으므로 BACKGROUND 풀(최대 2)을 두 개씩 쓰지 않고,
+// 결과를 기록하기 전에 인스턴스가 죽으면 점유 시간이 지난 뒤 다시 처리된다 (at-least-once)
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+@UseDataSource(DataSourceWorkload.BACKGROUND)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final List<OutboxHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Duration retention;
+    private final Duration claimTimeout;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter dispatched;
+    private final Counter retried;
+    private final Counter failed;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper,
+            List<OutboxHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size:100}") int batchSize,
+            @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${app.outbox.initial-backoff-ms:1000}") long initialBackoffMillis,
+            @Value("${app.outbox.max-backoff-ms:300000}") long maxBackoffMillis,
+            @Value("${app.outbox.retention-hours:24}") long retentionHours,
+            @Value("${app.outbox.claim-timeout-ms:300000}") long claimTimeoutMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retention = Duration.ofHours(retentionHours);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be dispatched")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest pending outbox event")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("outbox.dispatched").register(meterRegistry);
+        this.retried = Counter.builder("outbox.retried").register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed").register(meterRegistry);
+
+        logger.info("Outbox relay started with handlers: {}", handlers.stream().map(OutboxHandler::name).toList());
+    }
+
+    // 가득 찬 배치가 나오면 밀린 이벤트가 더 있다는 뜻이므로 바로 다음 배치를 처리
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        List<OutboxEvent> claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> claim());
+            if (claimed.isEmpty()) {
+                break;
+            }
+            Map<Long, Exception> failures = new HashMap<>();
+            for (OutboxEvent outboxEvent : claimed) {
+                Exception failure = dispatch(outboxEvent);
+                if (failure != null) {
+                    failures.put(outboxEvent.getId(), failure);
+                }
+            }
+            List<Long> ids = claimed.stream().map(OutboxEvent::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> record(ids, failures));
+        } while (claimed.size() == batchSize);
+        updateLag();
+    }
+
+    // 처리 완료 후 보존 기간이 지난 이벤트 삭제
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteProcessedBefore(
+                OutboxEvent.Status.DONE, LocalDateTime.now().minus(retention)));
+        logger.debug("Deleted {} processed outbox events", deleted);
+    }
+
+    // 처리할 이벤트를 잠그고 점유 시간만큼 미뤄 둔다 (커밋 후에는 다른 relay 가 가져가지 않는다)
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findDue(
+                OutboxEvent.Status.PENDING, now, PageRequest.of(0, batchSize));
+        events.forEach(event -> event.setNextAttemptAt(now.plus(claimTimeout)));
+        return events;
+    }
+
+    // 트랜잭션 밖에서 핸들러 실행. 실패하면 그 예외를 반환한다
+    private Exception dispatch(OutboxEvent outboxEvent) {
+        try {
+            ExpenseChangedEvent event = objectMapper.readValue(outboxEvent.getPayload(), ExpenseChangedEvent.class);
+            for (OutboxHandler handler : handlers) {
+                handler.handle(event);
+            }
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private void record(List<Long> ids, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent outboxEvent : outboxEventRepository.findAllById(ids)) {
+            Exception e = failures.get(outboxEvent.getId());
+            if (e == null) {
+                outboxEvent.setStatus(OutboxEvent.Status.DONE);
+                outboxEvent.setProcessedAt(now);
+                dispatched.increment();
+                continue;
+            }
+            int attempts = outboxEvent.getAttempts() + 1;
+            outboxEvent.setAttempts(attempts);
+            outboxEvent.setLastError(abbreviate(e.toString()));
+            if (attempts >= maxAttempts) {
+                outboxEvent.setStatus(OutboxEvent.Status.FAILED);
+                outboxEvent.setProcessedAt(now);
+                failed.increment();
+                logger.error("Outbox event {} failed after {} attempts", outboxEvent.getId(), attempts, e);
+            } else {
+                outboxEvent.setNextAttemptAt(now.plus(Duration.ofMillis(backoff(attempts))));
+                retried.increment();
+                logger.warn("Outbox event {} failed (attempt {}), retrying later: {}", outboxEvent.getId(), attempts, e.getMessage());
+            }
+        }
+    }
+
+    // 지수 backoff (initial * 2^(attempts-1), 최대 maxBackoffMillis)
+    private long backoff(int attempts) {
+        long delay = initialBackoffMillis << Math.min(attempts - 1, 30);
+        return Math.min(delay, maxBackoffMillis);
+    }
+
+    private void updateLag() {
+        pending.set(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+        lagMillis.set(outboxEventRepository.findFirstByStatusOrderByIdAsc(OutboxEvent.Status.PENDING)
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
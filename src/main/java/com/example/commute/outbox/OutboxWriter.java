@@ -0,0 +1,38 @@
+package com.example.commute.outbox;
+
+import com.example.commute.entity.OutboxEvent;
+import com.example.commute.event.ExpenseChangedEvent;
+import com.example.commute.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// 게시글 변경 이벤트를 같은 트랜잭션 안에서 OUTBOX_EVENT 에 기록한다
+// (동기 리스너이므로 ExpenseService 의 트랜잭션에 참여하고, 롤백되면 함께 사라진다)
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) throws JsonProcessingException {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType("EXPENSE_" + event.type().name())
+                .aggregateId(event.expenseId())
+                .payload(objectMapper.writeValueAsString(event))
+                .status(OutboxEvent.Status.PENDING)
+                .attempts(0)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.commute.outbox;
+
+import com.example.commute.event.ExpenseChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+// 게시글 변경 이벤트를 외부 시스템(정산, 알림 등)의 webhook 으로 POST 한다 (app.outbox.webhook.url 설정 시)
+// 2xx 가 아니거나 연결이 실패하면 예외가 나서 relay 가 backoff 후 재시도한다.
+// 같은 이벤트가 두 번 전달될 수 있으므로 수신 측은 X-Outbox-Event-Key 로 중복을 걸러야 한다
+@Component
+@ConditionalOnProperty(name = {"app.outbox.enabled", "app.outbox.webhook.enabled"}, havingValue = "true")
+public class WebhookOutboxHandler implements OutboxHandler {
+
+    static final String EVENT_KEY_HEADER = "X-Outbox-Event-Key";
+
+    private final RestClient restClient;
+    private final String url;
+
+    @Autowired
+    public WebhookOutboxHandler(
+            RestClient.Builder builder,
+            @Value("${app.outbox.webhook.url}") String url,
+            @Value("${app.outbox.webhook.connect-timeout-ms:2000}") int connectTimeoutMillis,
+            @Value("${app.outbox.webhook.read-timeout-ms:5000}") int readTimeoutMillis) {
+        this(builder.clone().requestFactory(requestFactory(connectTimeoutMillis, readTimeoutMillis)).build(), url);
+    }
+
+    WebhookOutboxHandler(RestClient restClient, String url) {
+        this.restClient = restClient;
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void handle(ExpenseChangedEvent event) {
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(EVENT_KEY_HEADER, event.type() + ":" + event.expenseId())
+                .body(event)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private static SimpleClientHttpRequestFactory requestFactory(int connectTimeoutMillis, int readTimeoutMillis) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMillis);
+        factory.setReadTimeout(readTimeoutMillis);
+        return factory;
+    }
+}
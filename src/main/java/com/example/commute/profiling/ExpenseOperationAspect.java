@@ -0,0 +1,75 @@
+package com.example.commute.profiling;
+
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.ExpenseSyncDto;
+import com.example.commute.entity.Member;
+import com.example.commute.jdbc.RequestStatements;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+// ExpenseService 의 public 메서드마다 ExpenseOperationEvent 기록
+// 속성은 인자/반환 타입으로 채운다: Member -> memberId, 첫 Long 인자 -> expenseId, Pageable -> pageSize, 결과 크기 -> resultCount
+// queryCount 는 이 스레드에서 실행된 SQL 수의 차이 (JdbcProxyConfig 가 켜져 있을 때)
+// JFR 녹화가 꺼져 있으면 isEnabled() 검사만 하고 바로 실행한다
+@Aspect
+@Component
+public class ExpenseOperationAspect {
+
+    @Around("execution(public * com.example.commute.service.ExpenseService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        ExpenseOperationEvent event = new ExpenseOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+        event.operation = joinPoint.getSignature().getName();
+        for (Object arg : joinPoint.getArgs()) {
+            if (arg instanceof Member member && member.getId() != null) {
+                event.memberId = member.getId();
+            } else if (arg instanceof Long id && event.expenseId == 0) {
+                event.expenseId = id;
+            } else if (arg instanceof Pageable pageable && pageable.isPaged()) {
+                event.pageSize = pageable.getPageSize();
+            }
+        }
+        long queriesBefore = RequestStatements.count();
+        try {
+            Object result = joinPoint.proceed();
+            event.resultCount = resultCount(result);
+            if (result instanceof ExpenseDto dto && dto.getId() != null) {
+                event.expenseId = dto.getId();
+            }
+            return result;
+        } catch (Throwable e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.queryCount = RequestStatements.count() - queriesBefore;
+            event.commit();
+        }
+    }
+
+    private static int resultCount(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof ExpenseSyncDto sync) {
+            return sync.getChanged().size() + sync.getDeletedIds().size();
+        }
+        return result != null ? 1 : 0;
+    }
+}
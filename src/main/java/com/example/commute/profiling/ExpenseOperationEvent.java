@@ -0,0 +1,37 @@
+package com.example.commute.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// ExpenseService 메서드 한 번의 실행 (ExpenseOperationAspect 가 기록). 0 은 해당 없음
+@Name("com.example.commute.ExpenseOperation")
+@Label("Expense Operation")
+@Category({"Commute", "Expense"})
+@Description("ExpenseService method execution")
+@StackTrace(false)
+public class ExpenseOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Member Id")
+    public long memberId;
+
+    @Label("Expense Id")
+    public long expenseId;
+
+    @Label("Page Size")
+    public int pageSize;
+
+    @Label("Result Count")
+    public int resultCount;
+
+    @Label("Query Count")
+    public long queryCount;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,93 @@
+package com.example.commute.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+// 관리자가 요청할 때만 켜는 JFR 녹화. 한 번에 하나만, 크기/보관 시간/최대 길이를 제한한다
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private final long maxSizeBytes;
+    private final Duration maxAge;
+    private final Duration maxDuration;
+
+    private Recording recording;
+
+    public FlightRecorderService(
+            @Value("${app.jfr.max-size-mb:100}") long maxSizeMb,
+            @Value("${app.jfr.max-age-minutes:30}") long maxAgeMinutes,
+            @Value("${app.jfr.max-duration-minutes:60}") long maxDurationMinutes) {
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxDuration = Duration.ofMinutes(maxDurationMinutes);
+    }
+
+    // settings: JDK 기본 설정 이름 (default: 오버헤드 ~1%, profile: 메서드 샘플링 더 자주)
+    public synchronized String start(String settings) throws IOException, ParseException {
+        if (isRunning()) {
+            throw new IllegalStateException("이미 녹화 중입니다.");
+        }
+        closeRecording();
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        newRecording.setName("commute-on-demand");
+        newRecording.setToDisk(true);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setDuration(maxDuration); // 잊고 끄지 않아도 자동 종료
+        newRecording.enable(ExpenseOperationEvent.class);
+        newRecording.enable(JwtVerificationEvent.class);
+        newRecording.enable(PasswordCheckEvent.class);
+        newRecording.enable(PhotoWriteEvent.class);
+        newRecording.start();
+        recording = newRecording;
+        logger.info("JFR recording started with '{}' settings", settings);
+        return status();
+    }
+
+    public synchronized String stop() {
+        if (!isRunning()) {
+            throw new IllegalStateException("진행 중인 녹화가 없습니다.");
+        }
+        recording.stop();
+        logger.info("JFR recording stopped");
+        return status();
+    }
+
+    // 녹화 내용을 임시 파일로 덤프 (녹화 중이면 현재까지의 스냅샷). 호출자가 파일을 지운다
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            throw new IllegalStateException("녹화가 없습니다.");
+        }
+        Path file = Files.createTempFile("commute-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    public synchronized String status() {
+        return recording == null ? "NONE" : recording.getState().name();
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.commute.profiling;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// BCrypt 호출마다 PasswordCheckEvent 를 남기는 PasswordEncoder 래퍼
+public class JfrPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public JfrPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        String encoded = delegate.encode(rawPassword);
+        event.operation = "encode";
+        event.cost = cost(encoded);
+        event.commit();
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.operation = "matches";
+        event.matched = matched;
+        event.cost = cost(encodedPassword);
+        event.commit();
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // "$2a$10$..." 형식에서 cost(로그 라운드) 추출
+    private static int cost(String encoded) {
+        if (encoded == null || encoded.length() < 7 || encoded.charAt(0) != '$') {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(encoded.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
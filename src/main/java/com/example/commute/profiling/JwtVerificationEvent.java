@@ -0,0 +1,24 @@
+package com.example.commute.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JwtService.validateToken 의 서명/만료 검증
+@Name("com.example.commute.JwtVerification")
+@Label("JWT Verification")
+@Category({"Commute", "Security"})
+@Description("JWT signature and expiry verification")
+@StackTrace(false)
+public class JwtVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Token Length")
+    @DataAmount
+    public int tokenLength;
+}
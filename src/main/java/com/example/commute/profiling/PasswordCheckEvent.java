@@ -0,0 +1,25 @@
+package com.example.commute.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// BCrypt 해시 계산/비교 (로그인 시 matches, 가입 시 encode)
+@Name("com.example.commute.PasswordCheck")
+@Label("Password Check")
+@Category({"Commute", "Security"})
+@Description("BCrypt password hashing or verification")
+@StackTrace(false)
+public class PasswordCheckEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    public boolean matched;
+
+    @Label("Cost")
+    public int cost;
+}
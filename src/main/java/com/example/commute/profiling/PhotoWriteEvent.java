@@ -0,0 +1,30 @@
+package com.example.commute.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// 영수증 파일 저장 (업로드 디렉터리 또는 pack 파일)
+@Name("com.example.commute.PhotoWrite")
+@Label("Photo Write")
+@Category({"Commute", "Storage"})
+@Description("Receipt file write")
+@StackTrace(false)
+public class PhotoWriteEvent extends jdk.jfr.Event {
+
+    @Label("Member Id")
+    public long memberId;
+
+    @Label("Storage")
+    public String storage;
+
+    @Label("File Type")
+    public String fileType;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
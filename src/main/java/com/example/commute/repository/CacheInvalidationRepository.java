@@ -0,0 +1,26 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.CacheInvalidationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationEvent, Long> {
+
+    // 기준 ID 이후 알림 (ID 순, 배치 단위)
+    List<CacheInvalidationEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // 기준 시각 이전에 기록된 알림 중 가장 큰 ID (처음 폴링을 시작할 위치)
+    @Query("select coalesce(max(e.id), 0) from CacheInvalidationEvent e where e.createdAt < :before")
+    long findMaxIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    // 보관 기간이 지난 알림 정리
+    @Modifying
+    @Query("delete from CacheInvalidationEvent e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
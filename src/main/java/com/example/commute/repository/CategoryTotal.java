@@ -0,0 +1,10 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.Expense;
+
+// 카테고리별 합계 조회용 프로젝션
+public interface CategoryTotal {
+    Expense.Category getCategory();
+
+    Double getTotal();
+}
@@ -0,0 +1,18 @@
+package com.example.commute.repository;
+
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// 선택된 필드만 SELECT 하는 목록 조회 (ExpenseRepository 프래그먼트)
+public interface ExpenseFieldsRepository {
+
+    // member, category, createdFrom 이 null 이면 해당 조건 없이 조회
+    Page<ExpenseDto> findWithFields(Member member, Expense.Category category, LocalDateTime createdFrom,
+                                    Set<String> fields, Pageable pageable);
+}
@@ -0,0 +1,145 @@
+package com.example.commute.repository;
+
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.ExpenseFields;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class ExpenseFieldsRepositoryImpl implements ExpenseFieldsRepository {
+
+    // DTO 필드명 -> Expense 속성명 (username, photoUrls 는 별도 처리)
+    private static final Map<String, String> COLUMN_FIELDS = Map.of(
+            ExpenseFields.TITLE, "title",
+            ExpenseFields.CATEGORY, "category",
+            ExpenseFields.CONTENT, "content",
+            ExpenseFields.TOTAL_AMOUNT, "amount",
+            ExpenseFields.CREATED_AT, "createdAt",
+            ExpenseFields.UPDATED_AT, "updatedAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ExpenseDto> findWithFields(Member member, Expense.Category category, LocalDateTime createdFrom,
+                                           Set<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Expense> root = query.from(Expense.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias(ExpenseFields.ID));
+        COLUMN_FIELDS.forEach((field, attribute) -> {
+            if (fields.contains(field)) {
+                selections.add(root.get(attribute).alias(field));
+            }
+        });
+        if (fields.contains(ExpenseFields.USERNAME)) {
+            selections.add(root.join("member", JoinType.LEFT).get("username").alias(ExpenseFields.USERNAME));
+        }
+
+        query.multiselect(selections)
+                .where(predicates(cb, root, member, category, createdFrom))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> rows = typedQuery.getResultList();
+
+        // photoUrls 가 선택된 경우에만 페이지의 id 들로 한 번에 조회 (게시글마다 조회하지 않음)
+        Map<Long, List<String>> photoUrls = fields.contains(ExpenseFields.PHOTO_URLS)
+                ? findPhotoUrls(rows.stream().map(row -> row.get(ExpenseFields.ID, Long.class)).collect(Collectors.toList()))
+                : Collections.emptyMap();
+
+        List<ExpenseDto> content = rows.stream()
+                .map(row -> toDto(row, fields, photoUrls))
+                .collect(Collectors.toList());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(member, category, createdFrom));
+    }
+
+    private long count(Member member, Expense.Category category, LocalDateTime createdFrom) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Expense> root = query.from(Expense.class);
+        query.select(cb.count(root)).where(predicates(cb, root, member, category, createdFrom));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Expense> root, Member member, Expense.Category category,
+                                   LocalDateTime createdFrom) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (member != null) {
+            predicates.add(cb.equal(root.get("member"), member));
+        }
+        if (category != null) {
+            predicates.add(cb.equal(root.get("category"), category));
+        }
+        if (createdFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), createdFrom));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private Map<Long, List<String>> findPhotoUrls(List<Long> expenseIds) {
+        if (expenseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "select p.expense.id, p.filePath from Photo p where p.expense.id in :ids order by p.id", Object[].class)
+                .setParameter("ids", expenseIds)
+                .getResultList();
+
+        Map<Long, List<String>> photoUrls = new HashMap<>();
+        for (Object[] row : rows) {
+            photoUrls.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return photoUrls;
+    }
+
+    private ExpenseDto toDto(Tuple row, Set<String> fields, Map<Long, List<String>> photoUrls) {
+        Long id = row.get(ExpenseFields.ID, Long.class);
+        ExpenseDto.ExpenseDtoBuilder builder = ExpenseDto.builder().id(id);
+
+        if (fields.contains(ExpenseFields.TITLE)) {
+            builder.title(row.get(ExpenseFields.TITLE, String.class));
+        }
+        if (fields.contains(ExpenseFields.CATEGORY)) {
+            builder.category(String.valueOf(row.get(ExpenseFields.CATEGORY, Expense.Category.class)));
+        }
+        if (fields.contains(ExpenseFields.CONTENT)) {
+            builder.content(row.get(ExpenseFields.CONTENT, String.class));
+        }
+        if (fields.contains(ExpenseFields.TOTAL_AMOUNT)) {
+            builder.totalAmount(row.get(ExpenseFields.TOTAL_AMOUNT, Double.class));
+        }
+        if (fields.contains(ExpenseFields.CREATED_AT)) {
+            builder.createdAt(row.get(ExpenseFields.CREATED_AT, LocalDateTime.class));
+        }
+        if (fields.contains(ExpenseFields.UPDATED_AT)) {
+            builder.updatedAt(row.get(ExpenseFields.UPDATED_AT, LocalDateTime.class));
+        }
+        if (fields.contains(ExpenseFields.USERNAME)) {
+            builder.username(row.get(ExpenseFields.USERNAME, String.class));
+        }
+        if (fields.contains(ExpenseFields.PHOTO_URLS)) {
+            builder.photoUrls(photoUrls.getOrDefault(id, Collections.emptyList()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.commute.repository;
+
+// 일괄 작업 권한 확인용 프로젝션 (게시글 id 와 작성자 id 만)
+public interface ExpenseOwner {
+    Long getId();
+
+    Long getMemberId();
+}
@@ -2,19 +2,101 @@ package com.example.commute.repository;
 
 import com.example.commute.entity.Expense;
 import com.example.commute.entity.Member;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// 목록 조회는 수정하지 않으므로 읽기 전용 엔티티(스냅샷 없음) + 수동 flush 힌트를 준다
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseFieldsRepository {
+
+    // 전체 비용 목록 조회 (관리자용, 페이지네이션)
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<Expense> findAll(Pageable pageable);
 
     // 전체 비용 목록 최신순으로 조회 (페이지네이션 추가)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
     Page<Expense> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     // 특정 사용자의 비용 목록 조회 (페이지네이션 추가)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
     Page<Expense> findByMember(Member member, Pageable pageable);
 
     // 카테고리로 필터링하는 메서드 (페이지네이션 추가)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
     public Page<Expense> findByCategory(Expense.Category category, Pageable pageable);
 
+    // 생성일 하한이 있는 목록 조회 - 파티션된 테이블에서 오래된 파티션을 건너뛸 수 있다 (partition pruning)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<Expense> findByCreatedAtGreaterThanEqualOrderByCreatedAtDesc(LocalDateTime from, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<Expense> findByMemberAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(Member member, LocalDateTime from, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<Expense> findByCategoryAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(Expense.Category category, LocalDateTime from, Pageable pageable);
+
+    // 기준 시각 이후 변경된 특정 사용자의 비용 (델타 동기화, MEMBER_ID + UPDATED_AT 인덱스 사용)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<Expense> findByMemberAndUpdatedAtAfterOrderByUpdatedAtAsc(Member member, LocalDateTime since);
+
+    // 기준 시각 이후 변경된 전체 비용 (관리자용 델타 동기화)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<Expense> findByUpdatedAtAfterOrderByUpdatedAtAsc(LocalDateTime since);
+
+    // 아카이브 대상 (기준 시각 이전 생성, id 순)
+    List<Expense> findByCreatedAtBeforeOrderByIdAsc(LocalDateTime before, Pageable pageable);
+
+    // 기간 내 특정 사용자의 카테고리별 합계
+    @Query("select e.category as category, sum(e.amount) as total from Expense e " +
+            "where e.member = :member and e.createdAt >= :from and e.createdAt < :to " +
+            "group by e.category")
+    List<CategoryTotal> sumAmountByCategory(@Param("member") Member member,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // 주어진 id 중 실제로 존재하는 게시글 id
+    @Query("select e.id from Expense e where e.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // 주어진 id 의 작성자 id (엔티티를 읽지 않으므로 영속성 컨텍스트에 남지 않는다)
+    @Query("select e.id as id, m.id as memberId from Expense e left join e.member m where e.id in :ids")
+    List<ExpenseOwner> findOwners(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,16 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.ExpenseTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ExpenseTombstoneRepository extends JpaRepository<ExpenseTombstone, Long> {
+
+    // 특정 사용자의 기준 시각 이후 삭제 기록
+    List<ExpenseTombstone> findByMemberIdAndDeletedAtAfter(Long memberId, LocalDateTime since);
+
+    // 기준 시각 이후 전체 삭제 기록 (관리자용)
+    List<ExpenseTombstone> findByDeletedAtAfter(LocalDateTime since);
+}
@@ -0,0 +1,37 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // 실행하던 인스턴스가 죽어 lease 가 지났거나 보관 기간이 지난 키를 이어받는다 (동시에 시도하면 한쪽만 1 을 받는다)
+    @Modifying
+    @Query("update IdempotencyKey k set k.owner = :owner, k.status = null, k.headers = null, k.body = null, " +
+            "k.lockedUntil = :until, k.expiresAt = :expiresAt " +
+            "where k.keyHash = :keyHash and ((k.status is null and k.lockedUntil <= :now) or k.expiresAt <= :now)")
+    int takeOver(@Param("keyHash") String keyHash, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                 @Param("until") LocalDateTime until, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // 내가 실행한 키에 응답 저장
+    @Modifying
+    @Query("update IdempotencyKey k set k.status = :status, k.headers = :headers, k.body = :body " +
+            "where k.keyHash = :keyHash and k.owner = :owner and k.status is null")
+    int complete(@Param("keyHash") String keyHash, @Param("owner") String owner, @Param("status") int status,
+                 @Param("headers") String headers, @Param("body") byte[] body);
+
+    // 저장하지 않을 결과(5xx, 예외): 행을 지워 다음 재시도가 다시 실행되게 한다
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.keyHash = :keyHash and k.owner = :owner and k.status is null")
+    int release(@Param("keyHash") String keyHash, @Param("owner") String owner);
+
+    // 보관 기간이 지난 키 정리
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,24 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // 만료되었거나 이미 내 것인 lease 만 가져온다 (동시에 시도하면 행 잠금 때문에 한쪽만 1 을 받는다)
+    @Modifying
+    @Query("update JobLease l set l.owner = :owner, l.lockedUntil = :until " +
+            "where l.name = :name and (l.lockedUntil <= :now or l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // 내 lease 를 바로 만료시킨다 (다음 실행을 기다리지 않고 다른 인스턴스가 가져갈 수 있게)
+    @Modifying
+    @Query("update JobLease l set l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
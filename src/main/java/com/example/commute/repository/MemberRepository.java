@@ -4,10 +4,13 @@ import com.example.commute.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByUsername(String username); // Optional 반환하도록 변경
     boolean existsByUsername(String username);
+    List<Member> findByUsernameIn(Collection<String> usernames); // 여러 사용자 일괄 조회
 }
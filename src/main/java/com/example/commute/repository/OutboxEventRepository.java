@@ -0,0 +1,37 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 처리할 이벤트를 잠그고 가져온다. 다른 인스턴스가 잠근 행은 건너뛴다 (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxEvent o where o.status = :status and o.nextAttemptAt <= :now order by o.id")
+    List<OutboxEvent> findDue(@Param("status") OutboxEvent.Status status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    // 가장 오래된 미처리 이벤트 (지연 시간 측정용)
+    Optional<OutboxEvent> findFirstByStatusOrderByIdAsc(OutboxEvent.Status status);
+
+    // 처리 완료된 지 오래된 이벤트 정리
+    @Modifying
+    @Query("delete from OutboxEvent o where o.status = :status and o.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") OutboxEvent.Status status, @Param("before") LocalDateTime before);
+}
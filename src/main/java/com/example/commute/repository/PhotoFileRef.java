@@ -0,0 +1,10 @@
+package com.example.commute.repository;
+
+// 고아 정리용 사진 행 프로젝션
+public interface PhotoFileRef {
+    Long getId();
+
+    String getFilePath();
+
+    Long getExpenseId();
+}
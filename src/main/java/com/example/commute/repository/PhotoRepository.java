@@ -1,8 +1,49 @@
 package com.example.commute.repository;
 
+import com.example.commute.entity.Member;
 import com.example.commute.entity.Photo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PhotoRepository extends JpaRepository<Photo, Long> {
     // 필요시, 추가적인 쿼리 메서드들을 정의할 수 있습니다.
+
+    // 특정 사용자의 최근 업로드 사진 (대시보드 썸네일용)
+    List<Photo> findTop20ByExpenseMemberOrderByUploadedAtDesc(Member member);
+
+    // 여러 게시글의 사진을 한 번에 조회
+    List<Photo> findByExpenseIdIn(Collection<Long> expenseIds);
+
+    // 여러 게시글의 사진 행 일괄 삭제
+    @Modifying
+    @Query("delete from Photo p where p.expense.id in :expenseIds")
+    int deleteByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
+
+    // 특정 접두사로 시작하는 파일 경로 (blob segment 별 살아있는 blob 조회)
+    @Query("select distinct p.filePath from Photo p where p.filePath like concat(:prefix, '%')")
+    List<String> findFilePathsStartingWith(@Param("prefix") String prefix);
+
+    // 아직 blob 저장소로 옮기지 않은 개별 파일 경로
+    @Query("select distinct p.filePath from Photo p where p.filePath is not null and p.filePath not like 'blob:%' order by p.filePath")
+    List<String> findLegacyFilePaths(Pageable pageable);
+
+    // 같은 파일을 가리키는 모든 사진 행의 경로 변경 (blob 이동/이관)
+    @Modifying
+    @Query("update Photo p set p.filePath = :newPath where p.filePath = :oldPath")
+    int updateFilePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    // 주어진 경로 중 사진 행이 참조하는 경로 (고아 파일 판별)
+    @Query("select distinct p.filePath from Photo p where p.filePath in :paths")
+    List<String> findReferencedFilePaths(@Param("paths") Collection<String> paths);
+
+    // id 순으로 사진 행의 경로와 게시글 id 만 조회 (게시글이 없어도 엔티티 로딩 없이 읽을 수 있도록)
+    @Query("select p.id as id, p.filePath as filePath, p.expense.id as expenseId from Photo p " +
+            "where p.id > :afterId order by p.id")
+    List<PhotoFileRef> findFileRefsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.example.commute.repository;
+
+import com.example.commute.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // 만료된 업로드 (임시 파일 정리용)
+    List<UploadSession> findByExpiresAtBefore(LocalDateTime now);
+
+    // 게시글 작성 시 참조한 완료된 업로드
+    List<UploadSession> findByIdInAndMemberId(Collection<String> ids, Long memberId);
+
+    // 완료되었고 아직 쓰이지 않은 업로드만 사용 처리 (동시에 같은 업로드를 붙이면 한쪽만 성공)
+    @Modifying
+    @Query("update UploadSession s set s.consumedAt = :now " +
+            "where s.id in :ids and s.memberId = :memberId and s.filePath is not null and s.consumedAt is null")
+    int markConsumed(@Param("ids") Collection<String> ids, @Param("memberId") Long memberId, @Param("now") LocalDateTime now);
+
+    // 아직 만료되지 않은 업로드의 저장 경로 (게시글에 붙기 전이라 PHOTO 행이 없어도 살아있는 파일)
+    // 사용 처리된 업로드도 포함한다: 정리 작업이 PHOTO 를 읽기 직전에 게시글이 커밋돼도 어느 한쪽에서는 보인다
+    @Query("select s.filePath from UploadSession s where s.filePath is not null and s.expiresAt > :now")
+    List<String> findLiveFilePaths(@Param("now") LocalDateTime now);
+}
@@ -1,9 +1,11 @@
 package com.example.commute.service;
 
+import com.example.commute.cache.CacheNames;
 import com.example.commute.entity.Member;
 import com.example.commute.repository.MemberRepository;
 import com.example.commute.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -18,7 +20,9 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private MemberRepository memberRepository;
 
+    // JWT 요청마다 불리므로 캐시한다 (app.cache.enabled). 회원 정보가 바뀌면 CacheInvalidationBus 로 지운다
     @Override
+    @Cacheable(cacheNames = CacheNames.MEMBERS)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // 사용자 정보 조회
         Member member = memberRepository.findByUsername(username)
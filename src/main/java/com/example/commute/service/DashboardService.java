@@ -0,0 +1,52 @@
+package com.example.commute.service;
+
+import com.example.commute.dto.DashboardDto;
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.PhotoMetaDto;
+import com.example.commute.entity.Member;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final int FIRST_PAGE_SIZE = 10;
+
+    private final ExpenseService expenseService;
+
+    public DashboardService(ExpenseService expenseService) {
+        this.expenseService = expenseService;
+    }
+
+    // 목록 첫 페이지, 이번 달 카테고리 합계, 최근 사진을 하나의 읽기 전용 트랜잭션에서 차례로 조회
+    // 요청당 커넥션 하나만 쓰므로 동시 요청이 늘어도 풀을 몇 배로 소모하지 않는다
+    @Transactional(readOnly = true)
+    public DashboardDto getDashboard(Member member) {
+        logger.info("Building dashboard for member: {}", member.getUsername());
+
+        Page<ExpenseDto> firstPage = expenseService.getMemberExpenses(member,
+                PageRequest.of(0, FIRST_PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+        Map<String, Double> totals = expenseService.getMonthlyCategoryTotals(member, YearMonth.now());
+        List<PhotoMetaDto> photos = expenseService.getRecentPhotos(member);
+
+        return DashboardDto.builder()
+                .username(member.getUsername())
+                .role(String.valueOf(member.getRole()))
+                .expenses(firstPage.getContent())
+                .totalExpenses(firstPage.getTotalElements())
+                .monthlyCategoryTotals(totals)
+                .recentPhotos(photos)
+                .build();
+    }
+}
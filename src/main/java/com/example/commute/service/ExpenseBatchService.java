@@ -0,0 +1,339 @@
+package com.example.commute.service;
+
+import com.example.commute.dto.ExpenseBatchOperation;
+import com.example.commute.dto.ExpenseBatchRequest;
+import com.example.commute.dto.ExpenseBatchResponse;
+import com.example.commute.dto.ExpenseBatchResult;
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import com.example.commute.event.ExpenseChangedEvent;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// 여러 게시글 작업(CREATE/UPDATE/DELETE/GET)을 한 요청으로 처리 (오프라인 클라이언트의 일괄 동기화)
+// 작업마다 따로 하던 것을 한 번으로 묶는다:
+// - 작성자 조회: 요청당 1회
+// - 대상 게시글 조회 + 권한 확인: id 를 모아 IN 쿼리 1회
+// - 생성: 한 트랜잭션에서 saveAll (INDEPENDENT 에서 묶음이 실패하면 건별로 다시 시도)
+// 권한 규칙은 단건 API 와 같다: 수정은 작성자, 삭제는 관리자이면서 작성자
+// INDEPENDENT 는 권한 확인용으로 작성자 id 만 읽는다. 읽기 전용 트랜잭션에서 엔티티를 읽으면 open-in-view 처럼
+// 세션이 요청 동안 이어질 때 그 엔티티가 읽기 전용으로 남아, 이후 수정 트랜잭션의 변경이 flush 되지 않는다
+@Service
+public class ExpenseBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseBatchService.class);
+
+    private final ExpenseService expenseService;
+    private final ExpenseRepository expenseRepository;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int maxOperations;
+
+    public ExpenseBatchService(
+            ExpenseService expenseService,
+            ExpenseRepository expenseRepository,
+            MemberRepository memberRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.expense.batch.max-operations:100}") int maxOperations) {
+        this.expenseService = expenseService;
+        this.expenseRepository = expenseRepository;
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.maxOperations = maxOperations;
+    }
+
+    public ExpenseBatchResponse execute(String username, ExpenseBatchRequest request) {
+        List<ExpenseBatchOperation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty() || operations.size() > maxOperations) {
+            throw new IllegalArgumentException("일괄 작업은 1~" + maxOperations + "개까지 가능합니다.");
+        }
+        for (ExpenseBatchOperation operation : operations) {
+            if (operation == null || operation.getOp() == null) {
+                throw new IllegalArgumentException("작업 종류(op)가 없습니다.");
+            }
+        }
+
+        Member member = memberRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
+        ExpenseBatchRequest.Mode mode = request.getMode() != null ? request.getMode() : ExpenseBatchRequest.Mode.INDEPENDENT;
+        logger.info("Executing batch of {} expense operations ({}) for member: {}", operations.size(), mode, username);
+
+        return mode == ExpenseBatchRequest.Mode.ATOMIC
+                ? executeAtomic(member, operations)
+                : executeIndependent(member, operations);
+    }
+
+    // 전체를 한 트랜잭션으로. 첫 실패에서 멈추고 롤백한다
+    private ExpenseBatchResponse executeAtomic(Member member, List<ExpenseBatchOperation> operations) {
+        ExpenseBatchResult[] results = new ExpenseBatchResult[operations.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Expense> targets = loadTargets(operations);
+                List<Integer> createIndexes = new ArrayList<>();
+                List<Expense> creates = new ArrayList<>();
+
+                for (int i = 0; i < operations.size(); i++) {
+                    ExpenseBatchOperation operation = operations.get(i);
+                    try {
+                        switch (operation.getOp()) {
+                            case CREATE -> {
+                                creates.add(expenseService.newExpense(requireExpense(operation), member));
+                                createIndexes.add(i);
+                            }
+                            case GET -> results[i] = ok(i, operation, get(targets, operation.getId()));
+                            case UPDATE -> {
+                                Expense expense = authorize(targets, operation, member);
+                                results[i] = ok(i, operation, expenseService.convertToDto(
+                                        expenseService.applyUpdate(expense, requireExpense(operation))));
+                            }
+                            case DELETE -> {
+                                expenseService.removeExpense(authorize(targets, operation, member));
+                                targets.remove(operation.getId());
+                                results[i] = result(i, operation, HttpStatus.NO_CONTENT, null, null);
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        results[i] = failure(i, operation, e);
+                        throw new BatchAbortedException(e);
+                    }
+                }
+                insert(creates, createIndexes, operations, results);
+            });
+        } catch (RuntimeException e) {
+            if (!(e instanceof BatchAbortedException)) {
+                logger.warn("Atomic expense batch failed at commit: {}", e.getMessage());
+            }
+            // 실패한 작업 외에는 모두 반영되지 않았음을 알린다
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null || results[i].getStatus() < 400) {
+                    results[i] = result(i, operations.get(i), HttpStatus.FAILED_DEPENDENCY, null, "rolled back");
+                }
+            }
+            return new ExpenseBatchResponse(ExpenseBatchRequest.Mode.ATOMIC, false, Arrays.asList(results));
+        }
+        return new ExpenseBatchResponse(ExpenseBatchRequest.Mode.ATOMIC, true, Arrays.asList(results));
+    }
+
+    // 작업마다 따로 반영. 조회/권한 확인과 생성은 묶어서 처리한다
+    private ExpenseBatchResponse executeIndependent(Member member, List<ExpenseBatchOperation> operations) {
+        ExpenseBatchResult[] results = new ExpenseBatchResult[operations.size()];
+
+        // 대상 게시글의 작성자를 한 번에 읽는다
+        Map<Long, Long> owners = new HashMap<>();
+        Set<Long> ids = targetIds(operations);
+        if (!ids.isEmpty()) {
+            readOnlyTemplate.executeWithoutResult(status -> expenseRepository.findOwners(ids)
+                    .forEach(owner -> owners.put(owner.getId(), owner.getMemberId())));
+        }
+
+        List<Integer> createIndexes = new ArrayList<>();
+        List<Expense> creates = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            ExpenseBatchOperation operation = operations.get(i);
+            try {
+                switch (operation.getOp()) {
+                    case CREATE -> {
+                        creates.add(expenseService.newExpense(requireExpense(operation), member));
+                        createIndexes.add(i);
+                    }
+                    case GET -> {
+                        // 같은 배치의 앞선 수정/삭제가 보이도록 작업 시점에 다시 읽는다
+                        Long id = requireId(operation);
+                        ExpenseDto current = transactionTemplate.execute(status ->
+                                expenseRepository.findById(id).map(expenseService::convertToDto).orElse(null));
+                        results[i] = ok(i, operation, current != null ? current : lookup(id));
+                    }
+                    case UPDATE -> {
+                        checkAuthor(owners, operation, member);
+                        ExpenseDto changes = requireExpense(operation);
+                        ExpenseDto updated = transactionTemplate.execute(status -> expenseService.convertToDto(
+                                expenseService.applyUpdate(find(operation.getId()), changes)));
+                        results[i] = ok(i, operation, updated);
+                    }
+                    case DELETE -> {
+                        checkAuthor(owners, operation, member);
+                        transactionTemplate.executeWithoutResult(status -> expenseService.removeExpense(find(operation.getId())));
+                        owners.remove(operation.getId());
+                        results[i] = result(i, operation, HttpStatus.NO_CONTENT, null, null);
+                    }
+                }
+            } catch (RuntimeException e) {
+                results[i] = failure(i, operation, e);
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(creates, createIndexes, operations, results));
+            } catch (RuntimeException e) {
+                // 묶음 중 하나 때문에 전체가 롤백되었으므로 건별로 다시 저장해 실패한 것만 골라낸다
+                logger.warn("Batched insert of {} expenses failed, retrying one by one: {}", creates.size(), e.getMessage());
+                for (int k = 0; k < creates.size(); k++) {
+                    int index = createIndexes.get(k);
+                    ExpenseBatchOperation operation = operations.get(index);
+                    try {
+                        Expense retry = expenseService.newExpense(operation.getExpense(), member);
+                        transactionTemplate.executeWithoutResult(status ->
+                                insert(List.of(retry), List.of(index), operations, results));
+                    } catch (RuntimeException single) {
+                        results[index] = failure(index, operation, single);
+                    }
+                }
+            }
+        }
+
+        return new ExpenseBatchResponse(ExpenseBatchRequest.Mode.INDEPENDENT, true, Arrays.asList(results));
+    }
+
+    private void insert(List<Expense> creates, List<Integer> createIndexes,
+                        List<ExpenseBatchOperation> operations, ExpenseBatchResult[] results) {
+        if (creates.isEmpty()) {
+            return;
+        }
+        List<Expense> saved = expenseRepository.saveAll(creates);
+        for (int k = 0; k < saved.size(); k++) {
+            Expense expense = saved.get(k);
+            expenseService.publish(ExpenseChangedEvent.Type.CREATED, expense);
+            int index = createIndexes.get(k);
+            results[index] = result(index, operations.get(index), HttpStatus.CREATED, expenseService.convertToDto(expense), null);
+        }
+    }
+
+    // UPDATE / DELETE / GET 대상 id 를 모아 한 번에 조회
+    private Map<Long, Expense> loadTargets(List<ExpenseBatchOperation> operations) {
+        Set<Long> ids = targetIds(operations);
+        Map<Long, Expense> targets = new HashMap<>();
+        if (!ids.isEmpty()) {
+            expenseRepository.findAllById(ids).forEach(expense -> targets.put(expense.getId(), expense));
+        }
+        return targets;
+    }
+
+    private static Set<Long> targetIds(List<ExpenseBatchOperation> operations) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (ExpenseBatchOperation operation : operations) {
+            if (operation.getOp() != ExpenseBatchOperation.Type.CREATE && operation.getId() != null) {
+                ids.add(operation.getId());
+            }
+        }
+        return ids;
+    }
+
+    private ExpenseDto get(Map<Long, Expense> targets, Long id) {
+        Expense expense = targets.get(requireId(id));
+        return expense != null ? expenseService.convertToDto(expense) : lookup(id);
+    }
+
+    // 테이블에 없으면 단건 조회와 같이 아카이브까지 확인한다
+    private ExpenseDto lookup(Long id) {
+        try {
+            return expenseService.getExpenseById(id);
+        } catch (IllegalArgumentException e) {
+            throw new OperationException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private Expense authorize(Map<Long, Expense> targets, ExpenseBatchOperation operation, Member member) {
+        Expense expense = targets.get(requireId(operation));
+        if (expense == null) {
+            throw new OperationException(HttpStatus.NOT_FOUND, "해당 게시글이 존재하지 않습니다.");
+        }
+        checkAuthor(expense.getMember() != null ? expense.getMember().getId() : null, operation, member);
+        return expense;
+    }
+
+    private void checkAuthor(Map<Long, Long> owners, ExpenseBatchOperation operation, Member member) {
+        if (!owners.containsKey(requireId(operation))) {
+            throw new OperationException(HttpStatus.NOT_FOUND, "해당 게시글이 존재하지 않습니다.");
+        }
+        checkAuthor(owners.get(operation.getId()), operation, member);
+    }
+
+    private static void checkAuthor(Long ownerId, ExpenseBatchOperation operation, Member member) {
+        if (operation.getOp() == ExpenseBatchOperation.Type.DELETE && !member.isAdmin()) {
+            throw new OperationException(HttpStatus.UNAUTHORIZED, "관리자만 게시글을 삭제할 수 있습니다.");
+        }
+        if (!Objects.equals(ownerId, member.getId())) {
+            throw new OperationException(HttpStatus.FORBIDDEN, "작성자만 게시글을 수정/삭제할 수 있습니다.");
+        }
+    }
+
+    private Expense find(Long id) {
+        return expenseRepository.findById(id)
+                .orElseThrow(() -> new OperationException(HttpStatus.NOT_FOUND, "해당 게시글이 존재하지 않습니다."));
+    }
+
+    private static ExpenseDto requireExpense(ExpenseBatchOperation operation) {
+        if (operation.getExpense() == null) {
+            throw new IllegalArgumentException("expense 가 필요합니다.");
+        }
+        return operation.getExpense();
+    }
+
+    private static Long requireId(ExpenseBatchOperation operation) {
+        return requireId(operation.getId());
+    }
+
+    private static Long requireId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id 가 필요합니다.");
+        }
+        return id;
+    }
+
+    private static ExpenseBatchResult ok(int index, ExpenseBatchOperation operation, ExpenseDto expense) {
+        return result(index, operation, HttpStatus.OK, expense, null);
+    }
+
+    private static ExpenseBatchResult failure(int index, ExpenseBatchOperation operation, RuntimeException e) {
+        HttpStatus status = e instanceof OperationException failure ? failure.status : HttpStatus.BAD_REQUEST;
+        if (!(e instanceof OperationException) && !(e instanceof IllegalArgumentException)) {
+            logger.error("Batch operation {} ({}) failed", index, operation.getOp(), e);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        return result(index, operation, status, null, e.getMessage());
+    }
+
+    private static ExpenseBatchResult result(int index, ExpenseBatchOperation operation, HttpStatus status, ExpenseDto expense, String error) {
+        return new ExpenseBatchResult(index, operation.getOp(), status.value(), expense, error);
+    }
+
+    // 작업 하나의 실패 (단건 API 의 응답 상태를 함께 전달)
+    private static class OperationException extends RuntimeException {
+
+        private final HttpStatus status;
+
+        OperationException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // ATOMIC 에서 트랜잭션을 롤백시키기 위한 예외 (실패 결과는 이미 기록됨)
+    private static class BatchAbortedException extends RuntimeException {
+
+        BatchAbortedException(RuntimeException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
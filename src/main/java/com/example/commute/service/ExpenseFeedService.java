@@ -0,0 +1,190 @@
+package com.example.commute.service;
+
+import com.example.commute.event.ExpenseChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 관리자 화면용 실시간 게시글 변경 알림 (Server-Sent Events)
+// 연결은 서블릿 비동기 요청으로 유지되고, 소수의 전송 스레드가 구독자별 버퍼를 비우므로 클라이언트마다 스레드를 쓰지 않는다
+@Service
+public class ExpenseFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseFeedService.class);
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ExpenseFeedService(
+            @Value("${app.feed.sender-threads:2}") int senderThreads,
+            @Value("${app.feed.buffer-size:100}") int bufferSize,
+            @Value("${app.feed.timeout-ms:1800000}") long timeoutMillis) {
+        this(newSender(senderThreads), bufferSize, timeoutMillis);
+    }
+
+    ExpenseFeedService(ExecutorService sender, int bufferSize, long timeoutMillis) {
+        this.sender = sender;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    private static ExecutorService newSender(int senderThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "expense-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // category, memberId 가 null 이면 해당 조건으로 거르지 않는다
+    public SseEmitter subscribe(String category, Long memberId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter, category, memberId,
+                new ArrayBlockingQueue<>(bufferSize));
+        subscribers.put(subscriber.id, subscriber);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        logger.info("Expense feed subscriber {} connected (category: {}, member: {}, total: {})",
+                subscriber.id, category, memberId, subscribers.size());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // 커밋된 변경만 알린다
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.accepts(event)) {
+                subscriber.offer(event);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // 주기적으로 heartbeat 를 보내 끊어진 연결을 정리한다
+    @Scheduled(fixedRateString = "${app.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.heartbeatPending = true;
+            schedule(subscriber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    // 구독자마다 한 번에 하나의 전송 작업만 돌도록 한다
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.heartbeatPending) {
+                subscriber.heartbeatPending = false;
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            long dropped = subscriber.dropped.getAndSet(0);
+            if (dropped > 0) {
+                // 버퍼가 넘쳐 버린 알림이 있으면 클라이언트가 목록을 다시 조회하도록 알린다
+                subscriber.emitter.send(SseEmitter.event().name("overflow").data(dropped));
+            }
+            ExpenseChangedEvent event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("expense")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // 전송 중에 들어온 알림이 있으면 다시 예약
+        if (!subscriber.buffer.isEmpty() || subscriber.heartbeatPending) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id) != null) {
+            subscriber.emitter.complete();
+            logger.info("Expense feed subscriber {} disconnected (total: {})", subscriber.id, subscribers.size());
+        }
+    }
+
+    private static final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final String category;
+        private final Long memberId;
+        private final BlockingQueue<ExpenseChangedEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean heartbeatPending;
+
+        private Subscriber(long id, SseEmitter emitter, String category, Long memberId,
+                           BlockingQueue<ExpenseChangedEvent> buffer) {
+            this.id = id;
+            this.emitter = emitter;
+            this.category = category;
+            this.memberId = memberId;
+            this.buffer = buffer;
+        }
+
+        private boolean accepts(ExpenseChangedEvent event) {
+            return (category == null || category.equals(event.category()))
+                    && (memberId == null || memberId.equals(event.memberId()));
+        }
+
+        // 버퍼가 가득 차면 가장 오래된 알림을 버린다
+        private void offer(ExpenseChangedEvent event) {
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.commute.service;
+
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// EXPENSE 월별 파티션 관리 (db/partition/expense-partitioning.sql 로 파티셔닝한 뒤 사용)
+// 앞으로 쓸 파티션을 미리 만들고, 보존 기간이 지난 파티션은 설정에 따라 보관(ARCHIVE)하거나 삭제(DROP)한다
+@Service
+@ConditionalOnProperty(name = "app.partition.enabled", havingValue = "true")
+@UseDataSource(DataSourceWorkload.BACKGROUND)
+public class ExpensePartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpensePartitionManager.class);
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String MAX_PARTITION = "pmax";
+
+    public enum RetentionAction {
+        NONE,
+        ARCHIVE,
+        DROP
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionAction retentionAction;
+
+    public ExpensePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.partition.months-ahead:3}") int monthsAhead,
+            @Value("${app.partition.retention-months:0}") int retentionMonths,
+            @Value("${app.partition.retention-action:NONE}") RetentionAction retentionAction) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionAction = retentionAction;
+    }
+
+    @Scheduled(cron = "${app.partition.cron:0 0 3 * * *}")
+    public void managePartitions() {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'EXPENSE' AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class);
+        if (!partitions.contains(MAX_PARTITION)) {
+            logger.warn("EXPENSE is not partitioned by month, run db/partition/expense-partitioning.sql first");
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!partitions.contains(month.format(PARTITION_NAME))) {
+                createPartition(month);
+            }
+        }
+
+        if (retentionAction == RetentionAction.NONE || retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (String partition : partitions) {
+            if (partition.matches("p\\d{6}")
+                    && YearMonth.parse(partition.substring(1), DateTimeFormatter.ofPattern("yyyyMM")).isBefore(oldestKept)) {
+                expirePartition(partition);
+            }
+        }
+    }
+
+    // pmax 를 나눠서 새 달의 파티션을 만든다 (pmax 는 비어 있으므로 데이터 이동이 없다)
+    private void createPartition(YearMonth month) {
+        String name = month.format(PARTITION_NAME);
+        jdbcTemplate.execute("ALTER TABLE EXPENSE REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                "PARTITION " + name + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), " +
+                "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+        logger.info("Created EXPENSE partition {}", name);
+    }
+
+    // ARCHIVE: 파티션을 비어 있는 EXPENSE_ARCHIVE_pYYYYMM 테이블로 교체(EXCHANGE)한 뒤 빈 파티션을 삭제
+    // 단계마다 현재 상태를 확인하므로 이전 실행이 중간에 실패했어도 다음 실행이 이어서 끝낸다
+    private void expirePartition(String name) {
+        if (retentionAction == RetentionAction.ARCHIVE) {
+            if (hasRows("EXPENSE PARTITION (" + name + ")")) {
+                String archive = emptyArchiveTable(name);
+                jdbcTemplate.execute("ALTER TABLE EXPENSE EXCHANGE PARTITION " + name + " WITH TABLE " + archive);
+                logger.info("Archived EXPENSE partition {} to {}", name, archive);
+            }
+            // 교체와 삭제 사이에 같은 달의 행이 들어왔으면 지우지 않고 다음 실행에서 다시 보관한다
+            if (hasRows("EXPENSE PARTITION (" + name + ")")) {
+                logger.warn("EXPENSE partition {} received rows after it was archived, keeping it until the next run", name);
+                return;
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE EXPENSE DROP PARTITION " + name);
+        logger.info("Dropped EXPENSE partition {}", name);
+    }
+
+    // 교체 대상이 될 비어 있는 보관 테이블. 없으면 만들고, 만들다 실패해 파티션이 남은 테이블은 마저 정리한다
+    // 이미 데이터가 들어 있는 테이블(이전에 보관한 행)은 덮어쓰지 않고 EXPENSE_ARCHIVE_pYYYYMM_2, _3 ... 을 쓴다
+    private String emptyArchiveTable(String partition) {
+        String base = "EXPENSE_ARCHIVE_" + partition;
+        for (int suffix = 1; ; suffix++) {
+            String table = suffix == 1 ? base : base + "_" + suffix;
+            if (!tableExists(table)) {
+                jdbcTemplate.execute("CREATE TABLE " + table + " LIKE EXPENSE");
+            }
+            if (isPartitioned(table)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " REMOVE PARTITIONING");
+            }
+            if (!hasRows(table)) {
+                return table;
+            }
+        }
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    // source 는 테이블 이름 또는 "EXPENSE PARTITION (pYYYYMM)"
+    private boolean hasRows(String source) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM " + source + " LIMIT 1", Integer.class).isEmpty();
+    }
+}
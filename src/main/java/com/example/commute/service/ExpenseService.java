@@ -1,13 +1,31 @@
 package com.example.commute.service;
 
+import com.example.commute.archive.ArchivedExpense;
+import com.example.commute.archive.ExpenseArchive;
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.cache.CacheNames;
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
 import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.ExpenseSyncDto;
+import com.example.commute.dto.PhotoMetaDto;
+import com.example.commute.dto.UploadedFileDto;
 import com.example.commute.entity.Expense;
+import com.example.commute.entity.ExpenseTombstone;
 import com.example.commute.entity.Member;
 import com.example.commute.entity.Photo;
+import com.example.commute.event.ExpenseChangedEvent;
+import com.example.commute.repository.CategoryTotal;
 import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.ExpenseTombstoneRepository;
 import com.example.commute.repository.MemberRepository;
 import com.example.commute.repository.PhotoRepository;
+import com.example.commute.repository.UploadSessionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -17,10 +35,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +57,18 @@ public class ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final MemberRepository memberRepository;
     private final PhotoRepository photoRepository;
+    private final ExpenseTombstoneRepository expenseTombstoneRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ObjectProvider<ExpenseArchive> expenseArchive; // app.archive.enabled=true 일 때만 존재
+
+    // 동기화 도중 커밋된 변경을 놓치지 않도록 watermark 를 조금 앞당긴다 (클라이언트는 id 로 중복 제거)
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    // 목록 조회를 최근 N 개월로 제한 (EXPENSE 파티셔닝 시 오래된 파티션을 읽지 않도록)
+    @Value("${app.expense.list-window-months:0}")
+    private int listWindowMonths;
 
     // 게시글 작성
     @Transactional
@@ -63,30 +100,109 @@ public class ExpenseService {
 
         // 사진 URL을 Photo 엔티티로 변환하여 저장
         if (expenseDto.getPhotoUrls() != null && !expenseDto.getPhotoUrls().isEmpty()) {
-            logger.info("Adding photos to expense: {}", expenseDto.getPhotoUrls());
-            List<Photo> photos = expenseDto.getPhotoUrls().stream()
-                    .map(url -> Photo.builder()
-                            .fileName(url)
-                            .filePath(url)
-                            .fileType("image/jpeg")  // 예시로 설정
-                            .fileSize(102400L)  // 예시로 설정
-                            .uploadedAt(LocalDateTime.now())
-                            .description("Expense photo")
-                            .expense(expense)
-                            .build())
-                    .collect(Collectors.toList());
+            logger.info("Adding {} photos to expense", expenseDto.getPhotoUrls().size());
+            logger.debug("Photo URLs: {}", expenseDto.getPhotoUrls());
+            List<Photo> photos = newPhotos(expenseDto, expense);
             // Photo 객체를 저장한 후, Expense에 설정
             photoRepository.saveAll(photos);
             expense.setPhotos(photos);
         }
+        consumeUploads(expenseDto, member);
 
         // Expense 저장
         Expense savedExpense = expenseRepository.save(expense);
+        publish(ExpenseChangedEvent.Type.CREATED, savedExpense);
         logger.info("Expense created with ID: {}", savedExpense.getId());
 
         return convertToDto(savedExpense);
     }
 
+    // 여러 게시글을 한 트랜잭션에서 일괄 생성 (write-behind 큐에서 사용)
+    // 작성자는 호출 스레드의 인증 정보 대신 usernames 로 전달받는다 (expenseDtos 와 같은 순서)
+    @Transactional
+    public List<ExpenseDto> createExpenses(List<ExpenseDto> expenseDtos, List<String> usernames) {
+        logger.info("Creating {} expenses in one batch", expenseDtos.size());
+
+        Map<String, Member> members = memberRepository.findByUsernameIn(new HashSet<>(usernames)).stream()
+                .collect(Collectors.toMap(Member::getUsername, member -> member, (a, b) -> a));
+
+        List<Expense> expenses = new ArrayList<>(expenseDtos.size());
+        for (int i = 0; i < expenseDtos.size(); i++) {
+            ExpenseDto expenseDto = expenseDtos.get(i);
+            Member member = members.get(usernames.get(i));
+            if (member == null) {
+                logger.error("User not found: {}", usernames.get(i));
+                throw new IllegalArgumentException("존재하지 않는 사용자입니다.");
+            }
+
+            expenses.add(newExpense(expenseDto, member));
+            consumeUploads(expenseDto, member);
+        }
+
+        List<Expense> savedExpenses = expenseRepository.saveAll(expenses);
+        savedExpenses.forEach(savedExpense -> publish(ExpenseChangedEvent.Type.CREATED, savedExpense));
+        logger.info("Batch of {} expenses created", savedExpenses.size());
+
+        return savedExpenses.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // 저장 전 새 게시글 (사진은 Expense 의 cascade 로 함께 저장)
+    Expense newExpense(ExpenseDto expenseDto, Member member) {
+        Expense expense = new Expense();
+        expense.setTitle(expenseDto.getTitle());
+        expense.setContent(expenseDto.getContent());
+        expense.setAmount(expenseDto.getTotalAmount());
+        expense.setCategory(Expense.Category.valueOf(expenseDto.getCategory()));
+        expense.setMember(member);
+
+        if (expenseDto.getPhotoUrls() != null && !expenseDto.getPhotoUrls().isEmpty()) {
+            expense.setPhotos(newPhotos(expenseDto, expense));
+        }
+        return expense;
+    }
+
+    // photoUrls 를 Photo 로 변환. 서버가 받은 업로드 파일이면 원래 이름/타입/크기를 쓰고,
+    // 경로만 받은 사진(일괄 동기화 등)은 경로의 마지막 부분을 이름으로 쓴다 (타입/크기는 알 수 없으므로 비워 둔다)
+    private List<Photo> newPhotos(ExpenseDto expenseDto, Expense expense) {
+        Map<String, UploadedFileDto> uploaded = expenseDto.getUploadedFiles() == null ? Map.of()
+                : expenseDto.getUploadedFiles().stream()
+                        .collect(Collectors.toMap(UploadedFileDto::getFilePath, file -> file, (a, b) -> a));
+        LocalDateTime uploadedAt = LocalDateTime.now();
+        return expenseDto.getPhotoUrls().stream()
+                .map(url -> {
+                    UploadedFileDto file = uploaded.get(url);
+                    return Photo.builder()
+                            .fileName(file != null ? file.getFileName() : url.substring(url.lastIndexOf('/') + 1))
+                            .filePath(url)
+                            .fileType(file != null ? file.getFileType() : null)
+                            .fileSize(file != null ? file.getFileSize() : null)
+                            .uploadedAt(uploadedAt)
+                            .description("Expense photo")
+                            .expense(expense)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // 이어 올리기 업로드를 게시글 저장과 같은 트랜잭션에서 사용 처리한다
+    // 이후 저장이 실패하면(잘못된 카테고리, 롤백 등) 사용 처리도 함께 롤백되어 같은 uploadIds 로 다시 시도할 수 있다
+    private void consumeUploads(ExpenseDto expenseDto, Member member) {
+        if (expenseDto.getUploadedFiles() == null) {
+            return;
+        }
+        List<String> uploadIds = expenseDto.getUploadedFiles().stream()
+                .map(UploadedFileDto::getUploadId)
+                .filter(id -> id != null)
+                .distinct()
+                .collect(Collectors.toList());
+        if (!uploadIds.isEmpty()
+                && uploadSessionRepository.markConsumed(uploadIds, member.getId(), LocalDateTime.now()) != uploadIds.size()) {
+            throw new IllegalArgumentException("완료되지 않았거나 존재하지 않거나 이미 사용한 업로드가 포함되어 있습니다.");
+        }
+    }
+
     // 게시글 수정
     @Transactional
     public ExpenseDto updateExpense(Long id, ExpenseDto expenseDto, Member member) {
@@ -103,6 +219,11 @@ public class ExpenseService {
             throw new IllegalArgumentException("작성자만 게시글을 수정할 수 있습니다.");
         }
 
+        return convertToDto(applyUpdate(expense, expenseDto));
+    }
+
+    // 수정 내용 반영 후 저장 (작성자 확인은 호출하는 쪽에서)
+    Expense applyUpdate(Expense expense, ExpenseDto expenseDto) {
         expense.setTitle(expenseDto.getTitle());
         expense.setContent(expenseDto.getContent());
         expense.setAmount(expenseDto.getTotalAmount());
@@ -110,7 +231,7 @@ public class ExpenseService {
 
         // 사진 URL을 처리
         if (expenseDto.getPhotoUrls() != null && !expenseDto.getPhotoUrls().isEmpty()) {
-            logger.info("Updating photos for expense with ID: {}", id);
+            logger.info("Updating photos for expense with ID: {}", expense.getId());
             List<Photo> photos = expenseDto.getPhotoUrls().stream()
                     .map(url -> Photo.builder()
                             .fileName(url)
@@ -125,9 +246,9 @@ public class ExpenseService {
         }
 
         Expense updatedExpense = expenseRepository.save(expense);
+        publish(ExpenseChangedEvent.Type.UPDATED, updatedExpense);
         logger.info("Expense updated with ID: {}", updatedExpense.getId());
-
-        return convertToDto(updatedExpense);
+        return updatedExpense;
     }
 
     // 게시글 삭제
@@ -146,41 +267,148 @@ public class ExpenseService {
             throw new IllegalArgumentException("작성자만 게시글을 삭제할 수 있습니다.");
         }
 
+        removeExpense(expense);
+    }
+
+    // 사진, 게시글 삭제 + 삭제 기록 (작성자 확인은 호출하는 쪽에서)
+    void removeExpense(Expense expense) {
         // 연관된 사진 삭제
         photoRepository.deleteAll(expense.getPhotos());
 
         expenseRepository.delete(expense);
-        logger.info("Expense deleted with ID: {}", id);
+        publish(ExpenseChangedEvent.Type.DELETED, expense);
+
+        // 델타 동기화를 위한 삭제 기록
+        expenseTombstoneRepository.save(ExpenseTombstone.builder()
+                .expenseId(expense.getId())
+                .memberId(expense.getMember() != null ? expense.getMember().getId() : null)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        logger.info("Expense deleted with ID: {}", expense.getId());
     }
 
-    // 게시글 조회 (단일)
+    // 게시글 조회 (단일) - 수정/삭제 시 publish() 에서 무효화
+    @Cacheable(cacheNames = CacheNames.EXPENSES, key = "#id.toString()")
+    @Transactional(readOnly = true)
     public ExpenseDto getExpenseById(Long id) {
-        logger.info("Fetching expense with ID: {}", id);
+        logger.debug("Fetching expense with ID: {}", id);
 
-        Expense expense = expenseRepository.findById(id)
+        Optional<Expense> expense = expenseRepository.findById(id);
+        if (expense.isPresent()) {
+            return convertToDto(expense.get());
+        }
+
+        // MySQL 에 없으면 아카이브로 옮겨진 게시글인지 확인
+        return Optional.ofNullable(expenseArchive.getIfAvailable())
+                .flatMap(archive -> archive.findById(id))
+                .map(this::convertToDto)
                 .orElseThrow(() -> {
                     logger.error("Expense not found with ID: {}", id);
                     return new IllegalArgumentException("해당 게시글이 존재하지 않습니다.");
                 });
-        return convertToDto(expense);
     }
 
-    // 모든 게시글 조회 (관리자용)
+    // 모든 게시글 조회 (관리자용) - 전체 테이블을 훑으므로 reporting 풀에서 실행
+    @UseDataSource(DataSourceWorkload.REPORTING)
+    @Transactional(readOnly = true)
     public Page<ExpenseDto> getAllExpenses(Pageable pageable) {
-        logger.info("Fetching all expenses with pagination: {}", pageable);
+        logger.debug("Fetching all expenses with pagination: {}", pageable);
 
-        return expenseRepository.findAll(pageable)
+        LocalDateTime from = listWindowStart();
+        return (from != null
+                ? expenseRepository.findByCreatedAtGreaterThanEqualOrderByCreatedAtDesc(from, pageable)
+                : expenseRepository.findAll(pageable))
                 .map(this::convertToDto);
     }
 
     // 특정 사용자의 게시글 조회
+    @Transactional(readOnly = true)
     public Page<ExpenseDto> getMemberExpenses(Member member, Pageable pageable) {
-        logger.info("Fetching expenses for member: {} with pagination: {}", member.getUsername(), pageable);
+        logger.debug("Fetching expenses for member: {} with pagination: {}", member.getUsername(), pageable);
 
-        return expenseRepository.findByMember(member, pageable)
+        LocalDateTime from = listWindowStart();
+        return (from != null
+                ? expenseRepository.findByMemberAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(member, from, pageable)
+                : expenseRepository.findByMember(member, pageable))
                 .map(this::convertToDto);
     }
 
+    // 델타 동기화: since 이후 생성/수정/삭제된 게시글 조회 (since 가 없으면 전체 목록)
+    @Transactional(readOnly = true)
+    public ExpenseSyncDto getChangesSince(Member member, LocalDateTime since) {
+        logger.debug("Fetching expense changes for member: {} since: {}", member.getUsername(), since);
+
+        LocalDateTime watermark = LocalDateTime.now().minus(SYNC_OVERLAP);
+        List<Expense> changed;
+        List<ExpenseTombstone> tombstones;
+
+        if (since == null) {
+            changed = member.isAdmin()
+                    ? expenseRepository.findAll()
+                    : expenseRepository.findByMember(member, Pageable.unpaged()).getContent();
+            tombstones = Collections.emptyList();
+        } else if (member.isAdmin()) {
+            changed = expenseRepository.findByUpdatedAtAfterOrderByUpdatedAtAsc(since);
+            tombstones = expenseTombstoneRepository.findByDeletedAtAfter(since);
+        } else {
+            changed = expenseRepository.findByMemberAndUpdatedAtAfterOrderByUpdatedAtAsc(member, since);
+            tombstones = expenseTombstoneRepository.findByMemberIdAndDeletedAtAfter(member.getId(), since);
+        }
+
+        return ExpenseSyncDto.builder()
+                .changed(changed.stream().map(this::convertToDto).collect(Collectors.toList()))
+                .deletedIds(tombstones.stream().map(ExpenseTombstone::getExpenseId).collect(Collectors.toList()))
+                .watermark(watermark)
+                .build();
+    }
+
+    // 특정 사용자의 월별 카테고리 합계
+    @Transactional(readOnly = true)
+    public Map<String, Double> getMonthlyCategoryTotals(Member member, YearMonth month) {
+        logger.debug("Calculating category totals for member: {} in {}", member.getUsername(), month);
+
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (CategoryTotal total : expenseRepository.sumAmountByCategory(member, from, to)) {
+            totals.put(String.valueOf(total.getCategory()), total.getTotal());
+        }
+
+        // 아카이브로 옮겨진 게시글의 합계도 더한다
+        ExpenseArchive archive = expenseArchive.getIfAvailable();
+        if (archive != null) {
+            archive.sumByCategory(member.getId(), from, to).forEach((category, amount) ->
+                    totals.merge(category, amount, Double::sum));
+        }
+        return totals;
+    }
+
+    // 특정 사용자의 최근 사진 메타데이터
+    @Transactional(readOnly = true)
+    public List<PhotoMetaDto> getRecentPhotos(Member member) {
+        logger.debug("Fetching recent photos for member: {}", member.getUsername());
+
+        return photoRepository.findTop20ByExpenseMemberOrderByUploadedAtDesc(member).stream()
+                .map(photo -> PhotoMetaDto.builder()
+                        .id(photo.getId())
+                        .expenseId(photo.getExpense() != null ? photo.getExpense().getId() : null)
+                        .fileName(photo.getFileName())
+                        .filePath(photo.getFilePath())
+                        .fileType(photo.getFileType())
+                        .fileSize(photo.getFileSize())
+                        .uploadedAt(photo.getUploadedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // 선택된 필드만 조회하는 목록 (member, category 가 null 이면 조건 없음)
+    @Transactional(readOnly = true)
+    public Page<ExpenseDto> getExpensesWithFields(Member member, Expense.Category category, Set<String> fields, Pageable pageable) {
+        logger.debug("Fetching expenses with fields: {} with pagination: {}", fields, pageable);
+
+        return expenseRepository.findWithFields(member, category, listWindowStart(), fields, pageable);
+    }
+
     // 금액 항목을 서버에 저장하는 함수
     public void saveExpenses(List<ExpenseDto> expenses) {
         logger.info("Saving multiple expense entries.");
@@ -197,32 +425,65 @@ public class ExpenseService {
 
     // 합산된 금액을 계산하는 함수 (ExpenseDto 리스트에서 계산)
     public Double calculateTotalAmountForDtos(List<ExpenseDto> expenses) {
-        logger.info("Calculating total amount for expenses.");
+        logger.debug("Calculating total amount for expenses.");
 
         return expenses.stream()
                 .mapToDouble(ExpenseDto::getTotalAmount)
                 .sum();
     }
 
-    // 카테고리별 비용 조회
+    // 카테고리별 비용 조회 (전체 사용자 대상이라 reporting 풀)
+    @UseDataSource(DataSourceWorkload.REPORTING)
+    @Transactional(readOnly = true)
     public Page<ExpenseDto> getExpensesByCategory(Expense.Category category, Pageable pageable) {
-        logger.info("Fetching expenses by category: {} with pagination: {}", category, pageable);
+        logger.debug("Fetching expenses by category: {} with pagination: {}", category, pageable);
 
-        return expenseRepository.findByCategory(category, pageable)
+        LocalDateTime from = listWindowStart();
+        return (from != null
+                ? expenseRepository.findByCategoryAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(category, from, pageable)
+                : expenseRepository.findByCategory(category, pageable))
                 .map(this::convertToDto);
     }
 
     // List<ExpenseDto>를 List<Expense>로 변환하는 메서드
     public List<Expense> convertDtoListToEntityList(List<ExpenseDto> expenseDtos) {
-        logger.info("Converting ExpenseDto list to Expense entity list.");
+        logger.debug("Converting ExpenseDto list to Expense entity list.");
 
         return expenseDtos.stream()
                 .map(this::convertToEntity)
                 .collect(Collectors.toList());
     }
 
+    // 목록 조회 기간 하한 (app.expense.list-window-months, 0 이면 제한 없음)
+    private LocalDateTime listWindowStart() {
+        return listWindowMonths > 0
+                ? YearMonth.now().minusMonths(listWindowMonths - 1L).atDay(1).atStartOfDay()
+                : null;
+    }
+
+    // 변경 이벤트 발행 (저널, 후처리 등은 리스너에서 처리)
+    void publish(ExpenseChangedEvent.Type type, Expense expense) {
+        eventPublisher.publishEvent(ExpenseChangedEvent.of(type, expense));
+        if (type != ExpenseChangedEvent.Type.CREATED) {
+            cacheInvalidationBus.evict(CacheNames.EXPENSES, expense.getId());
+        }
+    }
+
+    // 아카이브된 게시글을 DTO로 변환하는 메서드
+    private ExpenseDto convertToDto(ArchivedExpense archived) {
+        return ExpenseDto.builder()
+                .id(archived.id())
+                .title(archived.title())
+                .content(archived.content())
+                .totalAmount(archived.amount())
+                .category(archived.category())
+                .photoUrls(archived.photoPaths())
+                .createdAt(archived.createdAt())
+                .build();
+    }
+
     // Expense 엔티티를 DTO로 변환하는 메서드
-    private ExpenseDto convertToDto(Expense expense) {
+    ExpenseDto convertToDto(Expense expense) {
         logger.debug("Converting Expense entity to DTO with ID: {}", expense.getId());
 
         List<String> photoUrls = Optional.ofNullable(expense.getPhotos())
@@ -239,6 +500,7 @@ public class ExpenseService {
                 .category(String.valueOf(expense.getCategory()))
                 .photoUrls(photoUrls)
                 .createdAt(expense.getCreatedAt())
+                .updatedAt(expense.getUpdatedAt())
                 .build();
     }
 
@@ -0,0 +1,163 @@
+package com.example.commute.service;
+
+import com.example.commute.dto.ExpenseDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 게시글 생성 요청을 메모리 큐에 모아 단일 writer 스레드가 한 트랜잭션으로 일괄 커밋한다 (group commit)
+// 요청마다 트랜잭션/커넥션을 잡지 않으므로 월말 제출 피크에도 커넥션 풀을 하나만 사용한다
+@Service
+@ConditionalOnProperty(name = "app.expense.write-behind.enabled", havingValue = "true")
+public class ExpenseWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseWriteBehindQueue.class);
+
+    // COMMIT: 커밋 후 생성된 id 와 함께 응답, ENQUEUE: 큐에 들어가면 바로 응답 (프로세스가 죽으면 유실 가능)
+    public enum Durability {
+        COMMIT,
+        ENQUEUE
+    }
+
+    private final ExpenseService expenseService;
+    private final BlockingQueue<PendingExpense> queue;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final long flushTimeoutMillis;
+    private final Durability durability;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ExpenseWriteBehindQueue(
+            ExpenseService expenseService,
+            @Value("${app.expense.write-behind.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.expense.write-behind.max-batch-size:100}") int maxBatchSize,
+            @Value("${app.expense.write-behind.linger-ms:20}") long lingerMillis,
+            @Value("${app.expense.write-behind.flush-timeout-ms:5000}") long flushTimeoutMillis,
+            @Value("${app.expense.write-behind.durability:COMMIT}") Durability durability) {
+        this.expenseService = expenseService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.flushTimeoutMillis = flushTimeoutMillis;
+        this.durability = durability;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "expense-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Expense write-behind queue started (batch: {}, linger: {} ms, durability: {})",
+                maxBatchSize, lingerMillis, durability);
+    }
+
+    // 종료 시 큐에 남은 요청을 모두 커밋한 뒤 멈춘다
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(flushTimeoutMillis);
+    }
+
+    // 생성 요청을 큐에 넣는다. 큐가 가득 차면 RejectedExecutionException
+    public CompletableFuture<ExpenseDto> submit(ExpenseDto expenseDto, String username) {
+        PendingExpense pending = new PendingExpense(expenseDto, username, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new RejectedExecutionException("게시글 생성 대기열이 가득 찼습니다.");
+        }
+        return pending.future();
+    }
+
+    // 아직 writer 가 꺼내지 않은 요청이면 큐에서 빼고 true (커밋되지 않는 것이 확실하다)
+    // false 면 이미 배치에 들어갔으므로 곧 커밋(또는 실패)된다
+    public boolean cancel(CompletableFuture<ExpenseDto> future) {
+        boolean removed = queue.removeIf(pending -> pending.future() == future);
+        if (removed) {
+            future.cancel(false);
+        }
+        return removed;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public long getFlushTimeoutMillis() {
+        return flushTimeoutMillis;
+    }
+
+    private void drain() {
+        List<PendingExpense> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingExpense first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // linger 동안 추가 요청을 모아 한 번에 커밋
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingExpense next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in expense write-behind writer", e);
+                batch.forEach(pending -> pending.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingExpense> batch) {
+        try {
+            List<ExpenseDto> created = expenseService.createExpenses(
+                    batch.stream().map(PendingExpense::expenseDto).collect(Collectors.toList()),
+                    batch.stream().map(PendingExpense::username).collect(Collectors.toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(created.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            // 한 건의 오류로 전체가 롤백되었으므로 개별 트랜잭션으로 다시 시도
+            logger.warn("Batch of {} expenses failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingExpense pending : batch) {
+                flush(List.of(pending));
+            }
+        }
+    }
+
+    private record PendingExpense(ExpenseDto expenseDto, String username, CompletableFuture<ExpenseDto> future) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.commute.service;
+
+import com.example.commute.entity.JobLease;
+import com.example.commute.repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// JOB_LEASE 테이블로 예약 작업의 실행권을 인스턴스 하나에만 준다 (별도 인프라 없이 DB 만 사용)
+// 모든 인스턴스에서 cron 이 울려도 lease 를 얻은 곳만 실행하고 나머지는 건너뛴다
+@Service
+public class JobLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    @Autowired
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this(jobLeaseRepository, transactionManager, UUID.randomUUID().toString());
+    }
+
+    JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager, String owner) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.owner = owner;
+    }
+
+    // 실행권을 ttl 동안 얻거나 연장한다. 다른 인스턴스가 유효한 lease 를 갖고 있으면 false
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (jobLeaseRepository.existsById(name)) {
+                    return jobLeaseRepository.acquire(name, owner, now, now.plus(ttl)) == 1;
+                }
+                jobLeaseRepository.saveAndFlush(new JobLease(name, owner, now.plus(ttl)));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // 처음 행을 만드는 경쟁에서 다른 인스턴스가 이겼다
+            logger.debug("Job lease {} was created by another instance", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.release(name, owner, LocalDateTime.now()));
+    }
+}
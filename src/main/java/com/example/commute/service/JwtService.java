@@ -1,5 +1,6 @@
 package com.example.commute.service;
 
+import com.example.commute.profiling.JwtVerificationEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -90,16 +91,22 @@ public class JwtService {
 
     // 토큰의 유효성 검사
     public boolean validateToken(String token) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        event.tokenLength = token.length();
         try {
             SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes());
             Jwts.parserBuilder()
                     .setSigningKey(secretKey)
                     .build()
                     .parseClaimsJws(token);
+            event.valid = true;
             return true;
         } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException
                  | SignatureException | IllegalArgumentException e) {
             return false;
+        } finally {
+            event.commit();
         }
     }
 }
@@ -1,10 +1,16 @@
 package com.example.commute.service;
 
 import com.example.commute.entity.Member;
+import com.example.commute.enums.RoleType;
 import com.example.commute.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class MemberService {
@@ -15,4 +21,26 @@ public class MemberService {
         return memberRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
+
+    // 현재 요청의 인증 정보로 회원 조회 (인증되지 않았으면 empty)
+    // JwtAuthenticationFilter 가 넣는 principal 은 CustomUserDetails 라서 @AuthenticationPrincipal Member 로는 받을 수 없다
+    public Optional<Member> findCurrentMember() {
+        return findCurrentAuthentication().flatMap(authentication -> memberRepository.findByUsername(authentication.getName()));
+    }
+
+    // 현재 요청의 인증 정보 (DB 조회 없음). SSE 처럼 오래 열려 있는 요청은 이것으로 권한만 확인한다
+    public Optional<Authentication> findCurrentAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        return Optional.of(authentication);
+    }
+
+    // CustomUserDetailsService 가 부여한 ROLE_ 권한으로 관리자 여부 확인
+    public static boolean isAdmin(Authentication authentication) {
+        String adminAuthority = "ROLE_" + RoleType.ADMIN.name();
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> adminAuthority.equals(authority.getAuthority()));
+    }
 }
@@ -0,0 +1,251 @@
+package com.example.commute.service;
+
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
+import com.example.commute.entity.Member;
+import com.example.commute.entity.UploadSession;
+import com.example.commute.exception.ChecksumMismatchException;
+import com.example.commute.exception.ResourceNotFoundException;
+import com.example.commute.profiling.PhotoWriteEvent;
+import com.example.commute.repository.UploadSessionRepository;
+import com.example.commute.storage.PackedBlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// tus 방식의 이어 올리기 업로드
+// POST 로 세션을 만들고, PATCH 로 Upload-Offset 위치부터 조각을 이어 붙인다. 조각은 multipart 버퍼링 없이
+// 요청 본문에서 임시 파일로 바로 옮기고(FileChannel.transferFrom), Upload-Checksum 이 있으면 조각 단위로 검증한다
+// 마지막 조각을 받으면 업로드 저장소(pack 파일 또는 file.upload-dir)로 옮긴다
+// Photo 는 게시글 작성 시 uploadIds 로 참조할 때 게시글과 같은 트랜잭션에서 만들어지고, 업로드 하나는 한 번만 붙일 수 있다
+// 게시글에 붙기 전인 완료된 업로드 파일은 만료 전까지 OrphanReconciler / BlobCompactor 가 지우거나 옮기지 않는다
+@Service
+public class ResumableUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final Map<String, String> CHECKSUM_ALGORITHMS = Map.of(
+            "md5", "MD5",
+            "sha1", "SHA-1",
+            "sha256", "SHA-256");
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ObjectProvider<PackedBlobStore> blobStore; // app.blob.enabled=true 일 때만 존재
+    private final Path tempDir;
+    private final String uploadDir;
+    private final long maxLength;
+    private final long expiryMinutes;
+
+    // 같은 세션에 대한 PATCH 동시 실행 방지 (인스턴스 단위)
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    public ResumableUploadService(
+            UploadSessionRepository uploadSessionRepository,
+            ObjectProvider<PackedBlobStore> blobStore,
+            @Value("${app.upload.temp-dir:./upload-tmp}") String tempDir,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${app.upload.max-length:104857600}") long maxLength,
+            @Value("${app.upload.expiry-minutes:1440}") long expiryMinutes) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.blobStore = blobStore;
+        this.tempDir = Paths.get(tempDir);
+        this.uploadDir = uploadDir;
+        this.maxLength = maxLength;
+        this.expiryMinutes = expiryMinutes;
+    }
+
+    // 업로드 세션 생성 (빈 임시 파일 준비)
+    public UploadSession create(Member member, long uploadLength, String fileName, String fileType) throws IOException {
+        if (uploadLength <= 0 || uploadLength > maxLength) {
+            throw new IllegalArgumentException("허용되지 않는 업로드 크기입니다: " + uploadLength);
+        }
+        Files.createDirectories(tempDir);
+        String id = UUID.randomUUID().toString();
+        Path tempPath = tempDir.resolve(id + ".part");
+        Files.createFile(tempPath);
+
+        LocalDateTime now = LocalDateTime.now();
+        return uploadSessionRepository.save(UploadSession.builder()
+                .id(id)
+                .memberId(member.getId())
+                .fileName(fileName)
+                .fileType(fileType)
+                .uploadLength(uploadLength)
+                .uploadOffset(0)
+                .tempPath(tempPath.toString())
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(expiryMinutes))
+                .build());
+    }
+
+    // 본인 세션 조회
+    public UploadSession get(String id, Member member) {
+        return uploadSessionRepository.findById(id)
+                .filter(session -> session.getMemberId().equals(member.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("업로드를 찾을 수 없습니다. ID: " + id));
+    }
+
+    // offset 위치부터 조각을 이어 붙이고 갱신된 세션을 반환. 마지막 조각이면 업로드 저장소로 옮긴다
+    // checksum 형식: "<sha1|sha256|md5> <base64>"
+    public UploadSession appendChunk(String id, Member member, long offset, InputStream body, String checksum) throws IOException {
+        ReentrantLock lock = locks.computeIfAbsent(id, key -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("같은 업로드에 대한 다른 요청이 진행 중입니다: " + id);
+        }
+        try {
+            UploadSession session = get(id, member);
+            if (session.isComplete()) {
+                throw new IllegalStateException("이미 완료된 업로드입니다: " + id);
+            }
+            if (session.getUploadOffset() != offset) {
+                throw new IllegalStateException("Upload-Offset 이 일치하지 않습니다: " + offset + " / " + session.getUploadOffset());
+            }
+
+            byte[] expected = checksum != null ? expectedDigest(checksum) : null;
+            MessageDigest digest = checksum != null ? digestFor(checksum) : null;
+            InputStream in = digest != null ? new DigestInputStream(body, digest) : body;
+            long remaining = session.getUploadLength() - offset;
+            Path tempPath = Paths.get(session.getTempPath());
+
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                try {
+                    ReadableByteChannel source = Channels.newChannel(in);
+                    long transferred;
+                    while (written < remaining
+                            && (transferred = channel.transferFrom(source, offset + written, remaining - written)) > 0) {
+                        written += transferred;
+                    }
+                } catch (IOException e) {
+                    // 연결이 끊긴 경우: 체크섬이 없으면 받은 만큼 저장해서 다음 PATCH 가 이어 붙이게 한다
+                    if (digest != null) {
+                        channel.truncate(offset);
+                    } else {
+                        channel.force(false);
+                        session.setUploadOffset(offset + written);
+                        uploadSessionRepository.save(session);
+                    }
+                    throw e;
+                }
+                if (written == remaining && in.read() != -1) {
+                    channel.truncate(offset);
+                    throw new IllegalArgumentException("Upload-Length 를 넘는 데이터입니다: " + id);
+                }
+                if (digest != null && !MessageDigest.isEqual(digest.digest(), expected)) {
+                    channel.truncate(offset);
+                    throw new ChecksumMismatchException("조각 체크섬이 일치하지 않습니다: " + id);
+                }
+                channel.force(false);
+            }
+
+            session.setUploadOffset(offset + written);
+            if (session.getUploadOffset() == session.getUploadLength()) {
+                return complete(session);
+            }
+            return uploadSessionRepository.save(session);
+        } finally {
+            lock.unlock();
+            locks.remove(id, lock);
+        }
+    }
+
+    // 게시글에 붙일 완료된 업로드 조회 (본인 것, 완료됨, 아직 쓰이지 않음). 하나라도 아니면 전체가 실패한다
+    // 실제 사용 처리는 ExpenseService 가 게시글을 저장하는 트랜잭션에서 하므로, 저장이 실패하면 다시 붙일 수 있다
+    public List<UploadSession> findCompleted(Collection<String> ids, Member member) {
+        Set<String> unique = new HashSet<>(ids);
+        List<UploadSession> sessions = uploadSessionRepository.findByIdInAndMemberId(unique, member.getId()).stream()
+                .filter(session -> session.isComplete() && session.getConsumedAt() == null)
+                .collect(Collectors.toList());
+        if (unique.size() != ids.size() || sessions.size() != unique.size()) {
+            throw new IllegalArgumentException("완료되지 않았거나 존재하지 않거나 이미 사용한 업로드가 포함되어 있습니다.");
+        }
+        return sessions;
+    }
+
+    // 만료된 세션과 임시 파일 정리
+    @UseDataSource(DataSourceWorkload.BACKGROUND)
+    @Scheduled(fixedDelayString = "${app.upload.cleanup-interval-ms:600000}")
+    public void cleanupExpired() throws IOException {
+        List<UploadSession> expired = uploadSessionRepository.findByExpiresAtBefore(LocalDateTime.now());
+        for (UploadSession session : expired) {
+            Files.deleteIfExists(Paths.get(session.getTempPath()));
+        }
+        if (!expired.isEmpty()) {
+            uploadSessionRepository.deleteAllInBatch(expired);
+            logger.info("Removed {} expired upload sessions", expired.size());
+        }
+    }
+
+    // 임시 파일을 업로드 저장소로 옮긴다 (경로 규칙은 ExpenseController.uploadFile 과 같다)
+    private UploadSession complete(UploadSession session) throws IOException {
+        Path tempPath = Paths.get(session.getTempPath());
+        PhotoWriteEvent event = new PhotoWriteEvent();
+        event.begin();
+        String filePath;
+        PackedBlobStore store = blobStore.getIfAvailable();
+        if (store != null) {
+            try (InputStream in = Files.newInputStream(tempPath)) {
+                filePath = store.append(in, session.getUploadLength()).toPath();
+            }
+            Files.deleteIfExists(tempPath);
+        } else {
+            filePath = uploadDir + "/" + UUID.randomUUID() + "_" + session.getFileName();
+            Files.move(tempPath, Paths.get(filePath));
+        }
+        event.memberId = session.getMemberId();
+        event.storage = store != null ? "blob" : "file";
+        event.fileType = session.getFileType();
+        event.bytes = session.getUploadLength();
+        event.commit();
+
+        session.setFilePath(filePath);
+        return uploadSessionRepository.save(session);
+    }
+
+    private static MessageDigest digestFor(String checksum) {
+        String algorithm = CHECKSUM_ALGORITHMS.get(checksum.split(" ", 2)[0].toLowerCase());
+        if (algorithm == null) {
+            throw new IllegalArgumentException("지원하지 않는 체크섬 알고리즘입니다: " + checksum);
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] expectedDigest(String checksum) {
+        String[] parts = checksum.split(" ", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("잘못된 Upload-Checksum 형식입니다: " + checksum);
+        }
+        return Base64.getDecoder().decode(parts[1].trim());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.commute.storage;
+
+import com.example.commute.archive.ExpenseArchive;
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.cache.CacheNames;
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 삭제된 사진(어느 Photo 행도 가리키지 않는 blob)이 많은 segment 를 정리하는 작업
+// 살아있는 blob 을 활성 segment 로 복사 -> Photo 경로 변경 -> 옛 segment 삭제 순서라서 중간에 실패해도 데이터는 남는다
+// (복사만 되고 경로 변경 전 실패한 blob 은 다음 압축에서 쓰레기로 회수된다)
+// 아카이브된 게시글의 blob 은 아카이브 파일의 경로를 바꿀 수 없으므로, 그런 blob 이 있는 segment 는 압축하지 않는다
+// 게시글에 붙기 전인 업로드 blob 도 언제든 Photo 로 복사될 수 있어 경로를 바꿀 수 없으므로, 세션이 만료될 때까지 그 segment 를 남긴다
+@Component
+@ConditionalOnProperty(name = "app.blob.enabled", havingValue = "true")
+@UseDataSource(DataSourceWorkload.BACKGROUND)
+public class BlobCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobCompactor.class);
+
+    private final PackedBlobStore blobStore;
+    private final PhotoRepository photoRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ExpenseArchive expenseArchive; // app.archive.enabled=false 이면 null
+    private final TransactionTemplate transactionTemplate;
+    private final double liveRatioThreshold;
+
+    @Autowired
+    public BlobCompactor(
+            PackedBlobStore blobStore,
+            PhotoRepository photoRepository,
+            UploadSessionRepository uploadSessionRepository,
+            CacheInvalidationBus cacheInvalidationBus,
+            ObjectProvider<ExpenseArchive> expenseArchive,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.blob.compaction.live-ratio:0.5}") double liveRatioThreshold) {
+        this(blobStore, photoRepository, uploadSessionRepository, cacheInvalidationBus, expenseArchive.getIfAvailable(),
+                transactionManager, liveRatioThreshold);
+    }
+
+    BlobCompactor(
+            PackedBlobStore blobStore,
+            PhotoRepository photoRepository,
+            UploadSessionRepository uploadSessionRepository,
+            CacheInvalidationBus cacheInvalidationBus,
+            ExpenseArchive expenseArchive,
+            PlatformTransactionManager transactionManager,
+            double liveRatioThreshold) {
+        this.blobStore = blobStore;
+        this.photoRepository = photoRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.expenseArchive = expenseArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.liveRatioThreshold = liveRatioThreshold;
+    }
+
+    @Scheduled(cron = "${app.blob.compaction.cron:0 0 4 * * *}")
+    public void compact() throws IOException {
+        Set<Long> pinned = pinnedSegments();
+        for (long segment : blobStore.sealedSegments()) {
+            if (pinned.contains(segment)) {
+                logger.debug("Skipping blob segment {}: referenced by archived expenses or pending uploads", segment);
+                continue;
+            }
+            List<BlobLocation> live = photoRepository.findFilePathsStartingWith(BlobLocation.segmentPrefix(segment)).stream()
+                    .map(BlobLocation::parse)
+                    .collect(Collectors.toList());
+            long liveBytes = live.stream().mapToLong(BlobLocation::length).sum();
+            long segmentBytes = blobStore.segmentBytes(segment);
+            if (segmentBytes > 0 && (double) liveBytes / segmentBytes >= liveRatioThreshold) {
+                continue;
+            }
+            compactSegment(segment, live);
+            logger.info("Compacted blob segment {}: {} live blobs ({} / {} bytes)", segment, live.size(), liveBytes, segmentBytes);
+        }
+    }
+
+    // 경로를 바꿀 수 없는 blob 이 있는 segment (아카이브된 게시글, 만료 전 업로드)
+    private Set<Long> pinnedSegments() {
+        Set<String> paths = new HashSet<>(uploadSessionRepository.findLiveFilePaths(LocalDateTime.now()));
+        if (expenseArchive != null) {
+            paths.addAll(expenseArchive.photoPaths());
+        }
+        return paths.stream()
+                .filter(BlobLocation::isBlob)
+                .map(path -> BlobLocation.parse(path).segment())
+                .collect(Collectors.toSet());
+    }
+
+    private void compactSegment(long segment, List<BlobLocation> live) throws IOException {
+        for (BlobLocation location : live) {
+            ByteBuffer content = blobStore.read(location);
+            byte[] bytes = new byte[content.remaining()];
+            content.get(bytes);
+            BlobLocation moved = blobStore.append(new ByteArrayInputStream(bytes), bytes.length);
+            transactionTemplate.executeWithoutResult(status ->
+                    photoRepository.updateFilePath(location.toPath(), moved.toPath()));
+        }
+        cacheInvalidationBus.clear(CacheNames.EXPENSES);  // 옛 경로가 캐시에 남아 있으면 세그먼트 삭제 후 읽을 수 없다
+        blobStore.deleteSegment(segment);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.commute.storage;
+
+// pack 파일 안의 blob 위치. Photo.filePath 에 "blob:<segment>/<offset>/<length>" 형태로 저장된다
+public record BlobLocation(long segment, long offset, long length) {
+
+    public static final String SCHEME = "blob:";
+
+    public static boolean isBlob(String filePath) {
+        return filePath != null && filePath.startsWith(SCHEME);
+    }
+
+    public static BlobLocation parse(String filePath) {
+        if (!isBlob(filePath)) {
+            throw new IllegalArgumentException("blob 경로가 아닙니다: " + filePath);
+        }
+        String[] parts = filePath.substring(SCHEME.length()).split("/");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("잘못된 blob 경로입니다: " + filePath);
+        }
+        return new BlobLocation(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+    }
+
+    // 같은 segment 의 경로를 찾기 위한 접두사
+    public static String segmentPrefix(long segment) {
+        return SCHEME + segment + "/";
+    }
+
+    public String toPath() {
+        return SCHEME + segment + "/" + offset + "/" + length;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.commute.storage;
+
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.cache.CacheNames;
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.UseDataSource;
+import com.example.commute.repository.PhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+// 기존 file.upload-dir 의 개별 파일을 pack 파일로 옮기는 일회성 이관 도구
+// 실행: --app.blob.enabled=true --app.blob.migrate=true (옮긴 원본을 지우려면 --app.blob.migrate-delete-originals=true)
+@Component
+@ConditionalOnProperty(name = {"app.blob.enabled", "app.blob.migrate"}, havingValue = "true")
+@UseDataSource(DataSourceWorkload.BACKGROUND)
+public class BlobMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobMigration.class);
+
+    private final PackedBlobStore blobStore;
+    private final PhotoRepository photoRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean deleteOriginals;
+    private final int chunkSize;
+
+    public BlobMigration(
+            PackedBlobStore blobStore,
+            PhotoRepository photoRepository,
+            CacheInvalidationBus cacheInvalidationBus,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.blob.migrate-delete-originals:false}") boolean deleteOriginals,
+            @Value("${app.blob.migrate-chunk-size:500}") int chunkSize) {
+        this.blobStore = blobStore;
+        this.photoRepository = photoRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deleteOriginals = deleteOriginals;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        int migrated = 0;
+        int missing = 0;
+        int page = 0;
+        List<String> paths;
+        // 옮긴 경로는 blob: 로 바뀌어 목록에서 빠지므로, 없는 파일만큼만 다음 페이지로 넘어간다
+        while (!(paths = photoRepository.findLegacyFilePaths(PageRequest.of(page, chunkSize))).isEmpty()) {
+            int skipped = 0;
+            for (String filePath : paths) {
+                Path source = Paths.get(filePath);
+                if (!Files.isRegularFile(source)) {
+                    skipped++;
+                    continue;
+                }
+                BlobLocation location;
+                try (InputStream in = Files.newInputStream(source)) {
+                    location = blobStore.append(in, Files.size(source));
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        photoRepository.updateFilePath(filePath, location.toPath()));
+                if (deleteOriginals) {
+                    Files.deleteIfExists(source);
+                }
+                migrated++;
+            }
+            missing += skipped;
+            if (skipped == paths.size()) {
+                page++;
+            }
+        }
+        if (migrated > 0) {
+            cacheInvalidationBus.clear(CacheNames.EXPENSES);  // 사진 경로가 일괄로 바뀌었다
+        }
+        logger.info("Blob migration finished: {} files migrated, {} paths without a file", migrated, missing);
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.commute.storage;
+
+import com.example.commute.archive.ExpenseArchive;
+import com.example.commute.config.DataSourceWorkload;
+import com.example.commute.config.DataSourceWorkloadContext;
+import com.example.commute.config.UseDataSource;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.PhotoFileRef;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+// 업로드 디렉터리와 PHOTO 테이블을 맞춰보는 정리 작업
+// - 고아 파일: 어떤 사진 행도 가리키지 않는 업로드 파일 (업로드 후 트랜잭션이 롤백된 경우 등)
+// - 고아 행: 파일이 없거나 게시글이 사라진 사진 행 (수정/삭제 시 행만 지운 경우 등)
+// 업로드는 커밋 전에 파일을 쓰므로 grace-minutes 보다 최근 파일은 건드리지 않는다
+// pack 파일 안의 고아 blob 은 BlobCompactor 가 회수한다
+// 아카이브된 게시글의 사진은 PHOTO 행이 없어도 아카이브 파일이 참조하므로 고아가 아니다
+// 이어 올리기로 완료했지만 아직 게시글에 붙지 않은 파일도 업로드 세션이 만료될 때까지는 고아가 아니다
+@Component
+@ConditionalOnProperty(name = "app.gc.enabled", havingValue = "true")
+@UseDataSource(DataSourceWorkload.BACKGROUND)
+public class OrphanReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanReconciler.class);
+    private static final int MAX_SAMPLES = 50;
+
+    private final PhotoRepository photoRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ObjectProvider<PackedBlobStore> blobStore;
+    private final ObjectProvider<ExpenseArchive> expenseArchive; // app.archive.enabled=true 일 때만 존재
+    private final TransactionTemplate transactionTemplate;
+    private final String uploadDir;
+    private final boolean dryRunByDefault;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration grace;
+    private final long nanosPerFileOp;
+
+    private final Object throttleLock = new Object();
+    private long nextFileOpNanos;
+    private volatile OrphanReport lastReport;
+
+    public OrphanReconciler(
+            PhotoRepository photoRepository,
+            ExpenseRepository expenseRepository,
+            UploadSessionRepository uploadSessionRepository,
+            ObjectProvider<PackedBlobStore> blobStore,
+            ObjectProvider<ExpenseArchive> expenseArchive,
+            PlatformTransactionManager transactionManager,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${app.gc.dry-run:true}") boolean dryRunByDefault,
+            @Value("${app.gc.chunk-size:500}") int chunkSize,
+            @Value("${app.gc.parallelism:4}") int parallelism,
+            @Value("${app.gc.grace-minutes:60}") long graceMinutes,
+            @Value("${app.gc.max-file-ops-per-second:200}") int maxFileOpsPerSecond) {
+        this.photoRepository = photoRepository;
+        this.expenseRepository = expenseRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.blobStore = blobStore;
+        this.expenseArchive = expenseArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadDir = uploadDir;
+        this.dryRunByDefault = dryRunByDefault;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.nanosPerFileOp = maxFileOpsPerSecond > 0 ? 1_000_000_000L / maxFileOpsPerSecond : 0;
+    }
+
+    @Scheduled(cron = "${app.gc.cron:0 0 5 * * *}")
+    public void scheduledRun() throws IOException {
+        reconcile(dryRunByDefault);
+    }
+
+    public OrphanReport getLastReport() {
+        return lastReport;
+    }
+
+    // 파일 묶음과 행 묶음을 병렬로 검사한다. dryRun 이면 집계만 하고 지우지 않는다
+    public synchronized OrphanReport reconcile(boolean dryRun) throws IOException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Counters counters = new Counters();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            // 작업 스레드도 background 풀을 쓰도록 (ThreadLocal 은 풀 스레드로 전달되지 않는다)
+            Thread thread = new Thread(DataSourceWorkloadContext.wrap(DataSourceWorkload.BACKGROUND, runnable), "orphan-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            submitFileChunks(pool, tasks, counters, retainedPaths(), dryRun);
+            submitRowChunks(pool, tasks, counters, dryRun);
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        OrphanReport report = new OrphanReport(dryRun, startedAt, LocalDateTime.now(),
+                counters.scannedFiles.get(), counters.orphanFiles.get(), counters.orphanFileBytes.get(),
+                counters.scannedRows.get(), counters.orphanRows.get(), List.copyOf(counters.samples));
+        lastReport = report;
+        logger.info("Orphan reconciliation finished (dryRun={}): {} / {} files orphaned ({} bytes), {} / {} rows orphaned",
+                dryRun, report.orphanFiles(), report.scannedFiles(), report.orphanFileBytes(),
+                report.orphanRows(), report.scannedRows());
+        return report;
+    }
+
+    // PHOTO 행이 없어도 지우면 안 되는 경로: 아카이브된 게시글의 사진과 아직 만료되지 않은 업로드
+    private Set<String> retainedPaths() {
+        Set<String> retained = new HashSet<>(uploadSessionRepository.findLiveFilePaths(LocalDateTime.now()));
+        ExpenseArchive archive = expenseArchive.getIfAvailable();
+        if (archive != null) {
+            retained.addAll(archive.photoPaths());
+        }
+        return retained;
+    }
+
+    private void submitFileChunks(ExecutorService pool, List<CompletableFuture<Void>> tasks, Counters counters,
+                                  Set<String> retained, boolean dryRun) throws IOException {
+        Path directory = Paths.get(uploadDir);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            List<Path> chunk = new ArrayList<>(chunkSize);
+            for (Path file : files) {
+                chunk.add(file);
+                if (chunk.size() == chunkSize) {
+                    List<Path> batch = chunk;
+                    tasks.add(CompletableFuture.runAsync(() -> reconcileFiles(batch, counters, retained, dryRun), pool));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<Path> batch = chunk;
+                tasks.add(CompletableFuture.runAsync(() -> reconcileFiles(batch, counters, retained, dryRun), pool));
+            }
+        }
+    }
+
+    private void submitRowChunks(ExecutorService pool, List<CompletableFuture<Void>> tasks, Counters counters, boolean dryRun) {
+        long afterId = 0L;
+        List<PhotoFileRef> chunk;
+        while (!(chunk = photoRepository.findFileRefsAfter(afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+            List<PhotoFileRef> batch = chunk;
+            tasks.add(CompletableFuture.runAsync(() -> reconcileRows(batch, counters, dryRun), pool));
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    // 업로드 파일 묶음: 사진 행도 아카이브도 업로드 세션도 가리키지 않고 grace 보다 오래된 파일이 고아
+    private void reconcileFiles(List<Path> files, Counters counters, Set<String> retained, boolean dryRun) {
+        // uploadFile 이 저장하는 경로 형식(uploadDir + "/" + 파일명)과 맞춰서 비교
+        Set<String> paths = files.stream()
+                .map(file -> uploadDir + "/" + file.getFileName())
+                .collect(Collectors.toSet());
+        Set<String> referenced = new HashSet<>(photoRepository.findReferencedFilePaths(paths));
+        referenced.addAll(retained);
+        Instant cutoff = Instant.now().minus(grace);
+
+        for (Path file : files) {
+            counters.scannedFiles.incrementAndGet();
+            if (referenced.contains(uploadDir + "/" + file.getFileName())) {
+                continue;
+            }
+            try {
+                throttle();
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                    continue;  // 아직 커밋 전일 수 있는 업로드
+                }
+                counters.orphanFiles.incrementAndGet();
+                counters.orphanFileBytes.addAndGet(Files.size(file));
+                counters.sample("file " + file);
+                if (!dryRun) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // 사진 행 묶음: 게시글이 없거나 파일(또는 blob)이 없는 행이 고아
+    private void reconcileRows(List<PhotoFileRef> rows, Counters counters, boolean dryRun) {
+        Set<Long> expenseIds = rows.stream()
+                .map(PhotoFileRef::getExpenseId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Set<Long> existingExpenses = expenseIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(expenseRepository.findExistingIds(expenseIds));
+
+        List<Long> orphans = new ArrayList<>();
+        for (PhotoFileRef row : rows) {
+            counters.scannedRows.incrementAndGet();
+            boolean expenseMissing = row.getExpenseId() != null && !existingExpenses.contains(row.getExpenseId());
+            if (expenseMissing || !fileExists(row.getFilePath())) {
+                orphans.add(row.getId());
+                counters.sample("row " + row.getId() + " " + row.getFilePath());
+            }
+        }
+        counters.orphanRows.addAndGet(orphans.size());
+        if (!dryRun && !orphans.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> photoRepository.deleteAllByIdInBatch(orphans));
+        }
+    }
+
+    private boolean fileExists(String filePath) {
+        if (filePath == null) {
+            return false;
+        }
+        try {
+            throttle();
+            if (BlobLocation.isBlob(filePath)) {
+                PackedBlobStore store = blobStore.getIfAvailable();
+                return store == null || store.exists(BlobLocation.parse(filePath));  // 저장소가 꺼져 있으면 판단 보류
+            }
+            return Files.exists(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 파일 시스템 호출을 초당 max-file-ops-per-second 회로 제한 (모든 작업 스레드 공유)
+    private void throttle() {
+        if (nanosPerFileOp == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (throttleLock) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFileOpNanos);
+            nextFileOpNanos = slot + nanosPerFileOp;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    private static class Counters {
+        final AtomicLong scannedFiles = new AtomicLong();
+        final AtomicLong orphanFiles = new AtomicLong();
+        final AtomicLong orphanFileBytes = new AtomicLong();
+        final AtomicLong scannedRows = new AtomicLong();
+        final AtomicLong orphanRows = new AtomicLong();
+        final List<String> samples = new ArrayList<>();
+
+        synchronized void sample(String entry) {
+            if (samples.size() < MAX_SAMPLES) {
+                samples.add(entry);
+            }
+        }
+    }
+}
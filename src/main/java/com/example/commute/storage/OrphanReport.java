@@ -0,0 +1,17 @@
+package com.example.commute.storage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 고아 파일/행 정리 결과. dryRun 이면 실제로 지우지 않고 대상만 집계한다
+public record OrphanReport(
+        boolean dryRun,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long scannedFiles,
+        long orphanFiles,
+        long orphanFileBytes,
+        long scannedRows,
+        long orphanRows,
+        List<String> samples) {
+}
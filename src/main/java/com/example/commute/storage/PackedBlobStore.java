@@ -0,0 +1,219 @@
+package com.example.commute.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+// 영수증 파일을 큰 pack 파일(segment)에 이어 붙여 저장하는 append-only blob 저장소
+// 사진마다 파일을 만들지 않으므로 inode 고갈이나 디렉터리 스캔 비용이 없고, 백업은 큰 파일 몇 개만 복사하면 된다
+//
+// 레코드: [int MAGIC][long 길이][int CRC32C][데이터] - BlobLocation.offset 은 데이터 시작 위치
+// 가득 찬(봉인된) segment 는 통째로 메모리 매핑해서 읽고, 쓰는 중인 segment 는 위치 지정 읽기를 한다
+@Component
+@ConditionalOnProperty(name = "app.blob.enabled", havingValue = "true")
+public class PackedBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PackedBlobStore.class);
+
+    private static final int MAGIC = 0x424C4F42; // "BLOB"
+    private static final int HEADER_SIZE = 4 + 8 + 4;
+    private static final String SUFFIX = ".pack";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean fsync;
+
+    private final Object writeLock = new Object();
+    private final Map<Long, MappedByteBuffer> sealedSegments = new ConcurrentHashMap<>();
+    private volatile long activeSegment;
+    private FileChannel activeChannel;
+
+    public PackedBlobStore(
+            @Value("${app.blob.dir:./blobs}") String directory,
+            @Value("${app.blob.segment-size:1073741824}") long segmentSize,
+            @Value("${app.blob.fsync:true}") boolean fsync) {
+        if (segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segment 크기는 2GB 미만이어야 합니다: " + segmentSize);
+        }
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> segments = segments();
+        activeSegment = segments.isEmpty() ? 1L : segments.get(segments.size() - 1);
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        logger.info("Packed blob store opened at {} ({} segments, active: {})", directory, segments.size(), activeSegment);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            activeChannel.close();
+        }
+    }
+
+    // 데이터를 활성 segment 끝에 붙이고 위치를 반환 (NIO transferFrom 으로 복사하면서 체크섬 계산)
+    public BlobLocation append(InputStream in, long length) throws IOException {
+        synchronized (writeLock) {
+            long start = activeChannel.size();
+            if (start > 0 && start + HEADER_SIZE + length > segmentSize) {
+                seal();
+                start = 0;
+            }
+
+            // transferFrom 은 파일 끝을 넘는 위치에는 쓰지 않으므로 빈 헤더를 먼저 써서 자리를 만든다
+            activeChannel.write(ByteBuffer.allocate(HEADER_SIZE), start);
+            CheckedInputStream checked = new CheckedInputStream(in, new CRC32C());
+            long dataOffset = start + HEADER_SIZE;
+            long copied = 0;
+            while (copied < length) {
+                long transferred = activeChannel.transferFrom(Channels.newChannel(checked), dataOffset + copied, length - copied);
+                if (transferred <= 0) {
+                    break;
+                }
+                copied += transferred;
+            }
+            if (copied != length) {
+                activeChannel.truncate(start);
+                throw new IOException("blob 크기가 일치하지 않습니다: " + copied + " / " + length);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putLong(length)
+                    .putInt((int) checked.getChecksum().getValue())
+                    .flip();
+            activeChannel.write(header, start);
+            if (fsync) {
+                activeChannel.force(false);
+            }
+            return new BlobLocation(activeSegment, dataOffset, length);
+        }
+    }
+
+    // blob 내용을 읽기 전용 버퍼로 반환 (체크섬 검증)
+    public ByteBuffer read(BlobLocation location) throws IOException {
+        ByteBuffer data;
+        MappedByteBuffer sealed = location.segment() != activeSegment ? sealedSegment(location.segment()) : null;
+        if (sealed != null) {
+            data = sealed.slice((int) location.offset(), (int) location.length()).asReadOnlyBuffer();
+        } else {
+            data = ByteBuffer.allocate((int) location.length());
+            try (FileChannel channel = FileChannel.open(segmentPath(location.segment()), StandardOpenOption.READ)) {
+                while (data.hasRemaining() && channel.read(data, location.offset() + data.position()) > 0) {
+                    // 끝까지 읽는다
+                }
+            }
+            data.flip();
+        }
+
+        ByteBuffer header = readHeader(location);
+        if (header.getInt() != MAGIC || header.getLong() != location.length()) {
+            throw new IOException("blob 헤더가 올바르지 않습니다: " + location.toPath());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate());
+        if ((int) crc.getValue() != header.getInt()) {
+            throw new IOException("blob 체크섬이 일치하지 않습니다: " + location.toPath());
+        }
+        return data;
+    }
+
+    // 위치가 실제 segment 범위 안에 있는지 (segment 가 지워졌거나 잘렸으면 false)
+    public boolean exists(BlobLocation location) throws IOException {
+        Path path = segmentPath(location.segment());
+        return Files.exists(path) && location.offset() + location.length() <= Files.size(path);
+    }
+
+    public long activeSegment() {
+        return activeSegment;
+    }
+
+    // 봉인된 segment 목록 (압축 대상)
+    public List<Long> sealedSegments() throws IOException {
+        long active = activeSegment;
+        return segments().stream().filter(segment -> segment != active).collect(Collectors.toList());
+    }
+
+    public long segmentBytes(long segment) throws IOException {
+        return Files.size(segmentPath(segment));
+    }
+
+    // 압축으로 살아있는 blob 을 옮긴 뒤 segment 파일 삭제
+    public void deleteSegment(long segment) throws IOException {
+        if (segment == activeSegment) {
+            throw new IllegalArgumentException("쓰는 중인 segment 는 삭제할 수 없습니다: " + segment);
+        }
+        sealedSegments.remove(segment);
+        Files.deleteIfExists(segmentPath(segment));
+        logger.info("Deleted blob segment {}", segment);
+    }
+
+    private ByteBuffer readHeader(BlobLocation location) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(segmentPath(location.segment()), StandardOpenOption.READ)) {
+            channel.read(header, location.offset() - HEADER_SIZE);
+        }
+        return header.flip();
+    }
+
+    private MappedByteBuffer sealedSegment(long segment) {
+        return sealedSegments.computeIfAbsent(segment, key -> {
+            try (FileChannel channel = FileChannel.open(segmentPath(key), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new IllegalStateException("blob segment 를 열 수 없습니다: " + key, e);
+            }
+        });
+    }
+
+    private void seal() throws IOException {
+        activeChannel.force(true);
+        activeChannel.close();
+        activeSegment = activeSegment + 1;
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        logger.info("Blob segment sealed, new active segment {}", activeSegment);
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%010d%s", segment, SUFFIX));
+    }
+}
@@ -0,0 +1,29 @@
+-- EXPENSE 테이블을 CREATED_AT 월 단위 RANGE 파티션으로 전환 (MySQL 8)
+-- 실행 후 app.partition.enabled=true 로 ExpensePartitionManager 가 이후 파티션을 관리한다.
+--
+-- MySQL 파티션 테이블 제약:
+--  * 모든 유니크 키(PK 포함)에 파티션 키가 들어가야 하므로 PK 를 (ID, CREATED_AT) 으로 바꾼다.
+--  * 외래 키를 가질 수도, 참조될 수도 없으므로 EXPENSE -> MEMBER, PHOTO -> EXPENSE FK 를 삭제한다.
+--    (엔티티 매핑은 ConstraintMode.NO_CONSTRAINT 로 FK 를 다시 만들지 않는다)
+-- FK 이름은 환경마다 다르므로 아래 조회 결과로 확인한 뒤 DROP 한다.
+
+SELECT TABLE_NAME, CONSTRAINT_NAME
+FROM information_schema.REFERENTIAL_CONSTRAINTS
+WHERE CONSTRAINT_SCHEMA = DATABASE()
+  AND (TABLE_NAME = 'EXPENSE' OR REFERENCED_TABLE_NAME = 'EXPENSE');
+
+-- ALTER TABLE EXPENSE DROP FOREIGN KEY <EXPENSE -> MEMBER FK>;
+-- ALTER TABLE photo DROP FOREIGN KEY <PHOTO -> EXPENSE FK>;
+
+ALTER TABLE EXPENSE
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (ID, CREATED_AT);
+
+-- 과거 데이터는 p_old 하나에 두고, 이번 달부터 월별 파티션을 만든다 (날짜는 전환 시점에 맞게 수정)
+ALTER TABLE EXPENSE
+    PARTITION BY RANGE COLUMNS (CREATED_AT) (
+        PARTITION p_old VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,143 @@
+package com.example.commute;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 패키징된 애플리케이션의 기동 시간과 첫 요청 지연 비교: 일반 실행 vs faststart (AOT + AppCDS + lazy init)
+// 실행: gradle startupBenchmark (-PstartupRuns=10). DB 접속 정보는 SPRING_DATASOURCE_* 환경 변수로 넘긴다
+@Tag("benchmark")
+@Tag("startup")
+class StartupBenchmarkTest {
+
+    private static final Pattern STARTED = Pattern.compile("Started CommuteApplication in ([0-9.]+) seconds");
+    private static final String FIRST_REQUEST = "/api/expenses/category/%EC%8B%9D%EB%B9%84?size=1"; // 식비
+    private static final long TIMEOUT_SECONDS = 120;
+
+    @Test
+    void compareStartup() throws Exception {
+        Path dir = Paths.get(System.getProperty("startup.dir"));
+        String java = System.getProperty("startup.java", "java");
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        assertThat(dir.resolve("application.jar")).exists();
+
+        List<String> baseline = List.of(java, "-jar", "application.jar");
+        List<String> fastStart = new ArrayList<>(List.of(java, "-Dspring.aot.enabled=true", "-Dspring.profiles.active=faststart"));
+        if (Files.exists(dir.resolve("application.jsa"))) {
+            fastStart.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        fastStart.addAll(List.of("-jar", "application.jar"));
+
+        Result plain = measure("default", baseline, dir, runs);
+        Result fast = measure("faststart", fastStart, dir, runs);
+        for (Result result : List.of(plain, fast)) {
+            System.out.printf("%-10s started in %,6d ms  first response after %,6d ms  first request %,5d ms (median of %d)%n",
+                    result.name(), result.startedMillis(), result.firstResponseMillis(), result.firstRequestMillis(), runs);
+        }
+
+        assertThat(fast.firstResponseMillis()).isLessThan(plain.firstResponseMillis());
+    }
+
+    private static Result measure(String name, List<String> command, Path dir, int runs) throws Exception {
+        List<Long> started = new ArrayList<>();
+        List<Long> firstResponse = new ArrayList<>();
+        List<Long> firstRequest = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            long[] run = runOnce(command, dir);
+            started.add(run[0]);
+            firstResponse.add(run[1]);
+            firstRequest.add(run[2]);
+        }
+        return new Result(name, median(started), median(firstResponse), median(firstRequest));
+    }
+
+    // [로그상 기동 시간, 프로세스 시작부터 첫 응답까지, 첫 요청 자체의 지연] (ms)
+    private static long[] runOnce(List<String> command, Path dir) throws Exception {
+        int port = freePort();
+        List<String> args = new ArrayList<>(command);
+        args.add("--server.port=" + port);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(args).directory(dir.toFile()).redirectErrorStream(true).start();
+        CompletableFuture<Long> startedMillis = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> drainOutput(process, startedMillis));
+        try {
+            waitForPort(port, start);
+            long requestStart = System.nanoTime();
+            HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + port + FIRST_REQUEST).toURL().openConnection();
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            connection.getInputStream().readAllBytes();
+            long end = System.nanoTime();
+            return new long[]{
+                    startedMillis.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                    TimeUnit.NANOSECONDS.toMillis(end - start),
+                    TimeUnit.NANOSECONDS.toMillis(end - requestStart)};
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    // 출력이 파이프를 막지 않도록 끝까지 읽으면서 "Started ... in N seconds" 를 찾는다
+    private static void drainOutput(Process process, CompletableFuture<Long> startedMillis) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!startedMillis.isDone() && matcher.find()) {
+                    startedMillis.complete((long) (Double.parseDouble(matcher.group(1)) * 1000));
+                }
+            }
+        } catch (IOException e) {
+            // 프로세스 종료
+        } finally {
+            startedMillis.complete(-1L);
+        }
+    }
+
+    private static void waitForPort(int port, long start) throws InterruptedException {
+        while (System.nanoTime() - start < TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS)) {
+            try (Socket ignored = new Socket("localhost", port)) {
+                return;
+            } catch (IOException e) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("application did not open port " + port);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private record Result(String name, long startedMillis, long firstResponseMillis, long firstRequestMillis) {
+    }
+}
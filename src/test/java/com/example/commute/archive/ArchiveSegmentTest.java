@@ -0,0 +1,117 @@
+package com.example.commute.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveSegmentTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2022, 3, 1, 9, 30);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryRowWrittenIncludingNulls() throws IOException {
+        List<ArchivedExpense> rows = rows(10, 200);
+        rows.set(5, new ArchivedExpense(15L, null, null, null, null, null, null, List.of()));
+        Path path = directory.resolve("segment.seg");
+        ArchiveSegment.write(path, rows);
+
+        ArchiveSegment segment = ArchiveSegment.open(path);
+        assertThat(segment.rowCount()).isEqualTo(200);
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(segment.indexOf(rows.get(i).id())).isEqualTo(i);
+            assertThat(segment.row(i)).isEqualTo(rows.get(i));
+        }
+        assertThat(segment.indexOf(9L)).isEqualTo(-1);
+        assertThat(segment.indexOf(210L)).isEqualTo(-1);
+        assertThat(segment.strings(ArchiveSegment.CONTENT)).hasSize(200);
+    }
+
+    @Test
+    void footerStatisticsPruneSegmentsOutsideTheRange() throws IOException {
+        Path path = directory.resolve("segment.seg");
+        ArchiveSegment.write(path, rows(100, 50));
+        ArchiveSegment segment = ArchiveSegment.open(path);
+
+        assertThat(segment.mayContain(ArchiveSegment.ID, 100, 100)).isTrue();
+        assertThat(segment.mayContain(ArchiveSegment.ID, 149, 500)).isTrue();
+        assertThat(segment.mayContain(ArchiveSegment.ID, 150, 500)).isFalse();
+        assertThat(segment.mayContain(ArchiveSegment.ID, 0, 99)).isFalse();
+
+        long first = ArchiveSegment.toEpochMillis(BASE.plusDays(100));
+        long last = ArchiveSegment.toEpochMillis(BASE.plusDays(149));
+        assertThat(segment.mayContain(ArchiveSegment.CREATED_AT, first, first)).isTrue();
+        assertThat(segment.mayContain(ArchiveSegment.CREATED_AT, last + 1, Long.MAX_VALUE)).isFalse();
+        assertThat(segment.mayContain(ArchiveSegment.MEMBER_ID, 3, 3)).isFalse();
+    }
+
+    @Test
+    void archiveLooksUpAndAggregatesAcrossSegments() throws IOException {
+        ExpenseArchive archive = new ExpenseArchive(directory.toString());
+        archive.load();
+        archive.append(rows(1, 30));
+        archive.append(rows(31, 30));
+
+        assertThat(archive.contains(45L)).isTrue();
+        assertThat(archive.contains(61L)).isFalse();
+        assertThat(archive.findById(45L)).contains(row(45));
+        assertThat(archive.findById(61L)).isEmpty();
+
+        // 1..60 중 id 가 짝수이면 member 2, 홀수이면 member 1. 생성일은 id 일 차이
+        assertThat(archive.sumByCategory(1L, BASE.plusDays(1), BASE.plusDays(11)))
+                .containsEntry("식비", 1000.0 * (1 + 3 + 5 + 7 + 9));
+        assertThat(archive.sumByCategory(null, BASE.plusDays(1), BASE.plusDays(3)))
+                .containsEntry("식비", 1000.0 * (1 + 2));
+
+        ExpenseArchive reloaded = new ExpenseArchive(directory.toString());
+        reloaded.load();
+        assertThat(reloaded.findById(12L)).contains(row(12));
+    }
+
+    @Test
+    void segmentsWrittenByAnotherInstanceArePickedUpOnRefreshAndLookupMiss() throws IOException {
+        ExpenseArchive writer = new ExpenseArchive(directory.toString());
+        writer.load();
+        ExpenseArchive reader = new ExpenseArchive(directory.toString());
+        reader.load();
+
+        writer.append(rows(1, 10));
+        assertThat(reader.refresh()).isEqualTo(1);
+        assertThat(reader.contains(5L)).isTrue();
+        assertThat(reader.refresh()).isZero();
+
+        // 사진 경로 조회는 정리 작업이 쓰므로 항상 최신 목록을 본다
+        writer.append(rows(11, 10));
+        assertThat(reader.photoPaths()).contains("blob:0001:12", "/uploads/18.jpg");
+        assertThat(reader.findById(15L)).contains(row(15));
+    }
+
+    private static List<ArchivedExpense> rows(long firstId, int count) {
+        List<ArchivedExpense> rows = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            rows.add(row(id));
+        }
+        return rows;
+    }
+
+    private static ArchivedExpense row(long id) {
+        return new ArchivedExpense(
+                id,
+                id % 2 == 0 ? 2L : 1L,
+                BASE.plusDays(id),
+                1000.0 * id,
+                "식비",
+                "expense " + id,
+                "내용 " + "x".repeat((int) id % 7),
+                id % 3 == 0 ? List.of("blob:0001:" + id, "/uploads/" + id + ".jpg") : List.of());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.commute.cache;
+
+import com.example.commute.repository.CacheInvalidationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 같은 DB 를 보는 두 인스턴스(각자 캐시 + 전달 + 버스)를 만들어, 한쪽의 무효화가 다른 쪽 캐시에서 지워지는지 확인
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheInvalidationBusTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final long REDELIVER_DELAY_MILLIS = 100;
+
+    @Autowired
+    private CacheInvalidationRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node();
+        nodeB = new Node();
+        // 시작 위치를 잡아 두고, 이전 테스트의 알림은 여기서 소비한다
+        nodeA.transport.poll();
+        nodeB.transport.poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.transport.shutdown();
+        nodeB.transport.shutdown();
+    }
+
+    @Test
+    void committedEvictionReachesOtherInstance() {
+        nodeA.expenses().put("11", "cached on A");
+        nodeB.expenses().put("11", "cached on B");
+        nodeB.expenses().put("12", "cached on B");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                nodeA.bus.evict(CacheNames.EXPENSES, 11L));
+
+        assertThat(nodeA.expenses().get("11")).isNull();
+        assertThat(nodeB.expenses().get("11")).isNotNull();  // 아직 폴링 전
+
+        nodeB.transport.poll();
+
+        assertThat(nodeB.expenses().get("11")).isNull();
+        assertThat(nodeB.expenses().get("12")).isNotNull();
+    }
+
+    @Test
+    void rolledBackEvictionIsNotBroadcast() {
+        nodeB.expenses().put("21", "cached on B");
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.executeWithoutResult(status -> {
+            nodeA.bus.evict(CacheNames.EXPENSES, 21L);
+            status.setRollbackOnly();
+        });
+        nodeB.transport.poll();
+
+        assertThat(nodeB.expenses().get("21")).isNotNull();
+    }
+
+    @Test
+    void clearAndBatchesLargerThanBatchSize() {
+        Cache members = nodeB.cacheManager.getCache(CacheNames.MEMBERS);
+        members.put("alice", "details");
+        members.put("bob", "details");
+        nodeB.expenses().put("31", "cached on B");
+
+        for (int i = 0; i < BATCH_SIZE * 2 + 1; i++) {
+            nodeA.bus.evict(CacheNames.MEMBERS, "user" + i);
+        }
+        nodeA.bus.clear(CacheNames.EXPENSES);
+        nodeA.bus.evict(CacheNames.MEMBERS, "alice");
+        nodeB.transport.poll();  // 여러 배치를 한 번에 따라잡는다
+
+        assertThat(members.get("alice")).isNull();
+        assertThat(members.get("bob")).isNotNull();
+        assertThat(nodeB.expenses().get("31")).isNull();
+    }
+
+    @Test
+    void evictionArrivesWithinPollInterval() throws Exception {
+        nodeB.transport.start();  // 전용 폴링 스레드 (50ms 주기)
+        nodeB.expenses().put("41", "cached on B");
+        long start = System.nanoTime();
+        nodeA.bus.evict(CacheNames.EXPENSES, 41L);
+
+        while (nodeB.expenses().get("41") != null && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(10);
+        }
+        assertThat(nodeB.expenses().get("41")).isNull();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+    }
+
+    @Test
+    void valueRefilledRightAfterTheEvictionIsEvictedAgain() throws Exception {
+        nodeB.expenses().put("51", "cached on B");
+        nodeA.bus.evict(CacheNames.EXPENSES, 51L);
+        nodeB.transport.poll();
+        assertThat(nodeB.expenses().get("51")).isNull();
+
+        // 지워진 직후 아직 복제가 늦은 읽기 DB 에서 옛 값을 다시 채운 경우
+        nodeB.expenses().put("51", "stale refill on B");
+
+        long start = System.nanoTime();
+        while (nodeB.expenses().get("51") != null && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(10);
+        }
+        assertThat(nodeB.expenses().get("51")).isNull();
+    }
+
+    // 인스턴스 하나: 자기 캐시, 같은 테이블을 보는 전달, 버스
+    private class Node {
+
+        final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.MEMBERS, CacheNames.EXPENSES);
+        final DatabaseInvalidationTransport transport = new DatabaseInvalidationTransport(
+                repository, transactionManager, new SimpleMeterRegistry(), BATCH_SIZE, 10, 60, 50, REDELIVER_DELAY_MILLIS);
+        final CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, transport);
+
+        Cache expenses() {
+            return cacheManager.getCache(CacheNames.EXPENSES);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.commute.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitFilterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void classifiesEndpoints() {
+        assertThat(AdaptiveConcurrencyLimitFilter.classify(request("GET", "/api/expenses", null)))
+                .isEqualTo(AdaptiveConcurrencyLimitFilter.EndpointClass.READ);
+        assertThat(AdaptiveConcurrencyLimitFilter.classify(request("PUT", "/api/expenses/1", "application/json")))
+                .isEqualTo(AdaptiveConcurrencyLimitFilter.EndpointClass.WRITE);
+        assertThat(AdaptiveConcurrencyLimitFilter.classify(request("POST", "/api/expenses", "multipart/form-data; boundary=x")))
+                .isEqualTo(AdaptiveConcurrencyLimitFilter.EndpointClass.UPLOAD);
+        assertThat(AdaptiveConcurrencyLimitFilter.classify(request("GET", "/api/photos/3/content", null)))
+                .isEqualTo(AdaptiveConcurrencyLimitFilter.EndpointClass.EXPORT);
+        assertThat(AdaptiveConcurrencyLimitFilter.classify(request("GET", "/api/expenses/stream", null))).isNull();
+        assertThat(AdaptiveConcurrencyLimitFilter.classify(request("GET", "/actuator/health", null))).isNull();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAndGrowsBackWhenHealthy() {
+        AdaptiveConcurrencyLimitFilter.Limiter limiter = new AdaptiveConcurrencyLimitFilter.Limiter(20, 2, 200, 2.0, 0.9, 20 * MILLIS);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(5 * MILLIS, false);
+        }
+        double healthy = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(500 * MILLIS, false);
+        }
+        assertThat(limiter.getLimit()).isLessThan(healthy).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void fixedLimitIgnoresSlowAndFailedRequests() {
+        AdaptiveConcurrencyLimitFilter.Limiter limiter = AdaptiveConcurrencyLimitFilter.Limiter.fixed(5);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(i % 2 == 0 ? 5 * MILLIS : 30_000 * MILLIS, i % 3 == 0);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void uploadsAreBoundedByTheirFixedLimit() throws Exception {
+        AdaptiveConcurrencyLimitFilter filter = new AdaptiveConcurrencyLimitFilter(new SimpleMeterRegistry(), 20, 2, 200, 2, 1, 2.0, 0.9, 20, 1);
+        // 업로드 한도는 읽기/쓰기 한도(20)와 관계없이 upload-limit(2) 이다
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        FilterChain firstInProgress = (req, res) -> filter.doFilter(
+                request("PATCH", "/api/uploads/def", "application/offset+octet-stream"), second,
+                (r, s) -> filter.doFilter(request("PATCH", "/api/uploads/ghi", "application/offset+octet-stream"), third, (r2, s2) -> {
+                }));
+        filter.doFilter(request("PATCH", "/api/uploads/abc", "application/offset+octet-stream"), new MockHttpServletResponse(), firstInProgress);
+
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    void rejectsWithRetryAfterWhenSaturated() throws Exception {
+        AdaptiveConcurrencyLimitFilter filter = new AdaptiveConcurrencyLimitFilter(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, 2.0, 0.9, 20, 3);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // 첫 요청이 처리 중인 동안 두 번째 요청이 들어온다
+        FilterChain slowChain = (req, res) -> filter.doFilter(request("GET", "/api/expenses", null), rejected, (r, s) -> {
+        });
+        filter.doFilter(request("GET", "/api/expenses", null), new MockHttpServletResponse(), slowChain);
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("3");
+    }
+
+    @Test
+    void uploadsAreShedWhileReadsAreSaturated() throws Exception {
+        AdaptiveConcurrencyLimitFilter filter = new AdaptiveConcurrencyLimitFilter(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, 2.0, 0.9, 20, 1);
+        MockHttpServletResponse upload = new MockHttpServletResponse();
+
+        FilterChain readInProgress = (req, res) -> filter.doFilter(request("PATCH", "/api/uploads/abc", "application/offset+octet-stream"), upload, (r, s) -> {
+        });
+        filter.doFilter(request("GET", "/api/expenses", null), new MockHttpServletResponse(), readInProgress);
+
+        assertThat(upload.getStatus()).isEqualTo(503);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String contentType) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setContentType(contentType);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.commute.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicationRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = embedded("primary");
+        replica = embedded("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        DataSource dataSource = routing(replica);
+
+        assertThat(nodeName(dataSource, true)).isEqualTo("replica");
+        assertThat(nodeName(dataSource, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaIsDown() {
+        DataSource brokenReplica = new LazyConnectionDataSourceProxy(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("replica down");
+            }
+        };
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(primary, brokenReplica, 60_000);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        assertThat(nodeName(dataSource, true)).isEqualTo("primary");
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+    }
+
+    private DataSource routing(DataSource replicaDataSource) {
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(primary, replicaDataSource, 60_000);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private String nodeName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT NAME FROM NODE", String.class));
+    }
+
+    private static EmbeddedDatabase embedded(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE NODE (NAME VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO NODE (NAME) VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.commute.config;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// JPA 트랜잭션(JpaTransactionManager + 공유 EntityManager)을 거쳐도 readOnly 여부로 라우팅되는지 확인한다
+// open-in-view 가 켜져 있으면 요청의 첫 커넥션이 끝까지 재사용되어 라우팅이 무시된다
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.driver-class-name=org.h2.Driver",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "logging.level.org.springframework=INFO",
+        "logging.level.com.zaxxer.hikari=INFO"
+})
+class ReplicationRoutingJpaTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    void setUp() {
+        node(primaryDataSource, "primary");
+        node(replicaDataSource, "replica");
+    }
+
+    @Test
+    void jpaTransactionsRouteByReadOnlyFlag() {
+        assertThat(nodeName(true)).isEqualTo("replica");
+        // 같은 스레드에서 이어지는 쓰기 트랜잭션이 앞선 replica 커넥션을 물려받지 않는다
+        assertThat(nodeName(false)).isEqualTo("primary");
+        assertThat(nodeName(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void openEntityManagerInViewIsDisabled() {
+        assertThat(applicationContext.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    private String nodeName(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                (String) entityManager.createNativeQuery("SELECT NAME FROM NODE").getSingleResult());
+    }
+
+    private static void node(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS NODE (NAME VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM NODE");
+        jdbcTemplate.update("INSERT INTO NODE (NAME) VALUES (?)", name);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.commute.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkloadRoutingDataSourceTest {
+
+    private HikariDataSource oltp;
+    private HikariDataSource reporting;
+    private HikariDataSource background;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        oltp = pool("oltp");
+        reporting = pool("reporting");
+        background = pool("background");
+        WorkloadRoutingDataSource routingDataSource = new WorkloadRoutingDataSource(oltp, reporting, background);
+        routingDataSource.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        oltp.close();
+        reporting.close();
+        background.close();
+    }
+
+    @Test
+    void routesByWorkloadContext() {
+        assertThat(nodeName()).isEqualTo("oltp");
+        assertThat(DataSourceWorkloadContext.call(DataSourceWorkload.REPORTING, this::nodeName)).isEqualTo("reporting");
+        assertThat(DataSourceWorkloadContext.call(DataSourceWorkload.BACKGROUND, this::nodeName)).isEqualTo("background");
+        // 컨텍스트를 벗어나면 기본값(OLTP)으로 돌아온다
+        assertThat(nodeName()).isEqualTo("oltp");
+    }
+
+    @Test
+    void exhaustedReportingPoolDoesNotBlockOltp() throws Exception {
+        // 긴 리포트가 reporting 풀의 커넥션을 모두 잡고 있는 상태
+        try (Connection longReport = reporting.getConnection()) {
+            assertThatThrownBy(() -> DataSourceWorkloadContext.call(DataSourceWorkload.REPORTING, this::nodeName))
+                    .hasRootCauseInstanceOf(SQLTransientConnectionException.class);
+
+            long start = System.nanoTime();
+            assertThat(nodeName()).isEqualTo("oltp");
+            assertThat(System.nanoTime() - start).isLessThan(reporting.getConnectionTimeout() * 1_000_000L);
+        }
+    }
+
+    private String nodeName() {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT NAME FROM NODE", String.class));
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:workload-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(250);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS NODE (NAME VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM NODE");
+        jdbcTemplate.update("INSERT INTO NODE (NAME) VALUES (?)", name);
+        return dataSource;
+    }
+}
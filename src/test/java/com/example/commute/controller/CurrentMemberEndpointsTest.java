@@ -0,0 +1,170 @@
+package com.example.commute.controller;
+
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import com.example.commute.enums.RoleType;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import com.example.commute.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 실제 JWT 로 요청해서 컨트롤러가 토큰의 회원을 찾는지 확인한다
+// (JwtAuthenticationFilter 의 principal 은 CustomUserDetails 이므로 @AuthenticationPrincipal Member 는 항상 null 이었다)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:endpoints;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.springframework=INFO",
+        "logging.level.com.zaxxer.hikari=INFO"
+})
+@AutoConfigureMockMvc
+class CurrentMemberEndpointsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    private Member user;
+    private Member admin;
+
+    @BeforeEach
+    void setUp() {
+        user = member("ep-user", RoleType.USER);
+        admin = member("ep-admin", RoleType.ADMIN);
+    }
+
+    @Test
+    void syncReturnsOnlyTheTokenMembersExpenses() throws Exception {
+        save(user, "user sync");
+        save(admin, "admin sync");
+
+        mockMvc.perform(get("/api/expenses/sync").header("Authorization", bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[*].title", hasItem("user sync")))
+                .andExpect(jsonPath("$.changed[*].title", not(hasItem("admin sync"))))
+                .andExpect(jsonPath("$.watermark").exists());
+    }
+
+    @Test
+    void syncWithoutTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/expenses/sync"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void dashboardIsBuiltForTheTokenMember() throws Exception {
+        save(user, "user dashboard");
+
+        mockMvc.perform(get("/api/me/dashboard").header("Authorization", bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("ep-user"))
+                .andExpect(jsonPath("$.expenses[*].title", hasItem("user dashboard")));
+        mockMvc.perform(get("/api/me/dashboard"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void sparseFieldsetKeepsOnlySelectedFieldsAndFullListingKeepsItsShape() throws Exception {
+        save(user, "user fields");
+
+        mockMvc.perform(get("/api/expenses").param("fields", "title").header("Authorization", bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").exists())
+                .andExpect(jsonPath("$.content[*].title", hasItem("user fields")))
+                .andExpect(jsonPath("$.content[*].content").isEmpty());
+
+        // fields= 가 없으면 값이 없는 필드도 기존처럼 null 로 내려간다
+        mockMvc.perform(get("/api/expenses").header("Authorization", bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].title", hasItem("user fields")))
+                .andExpect(jsonPath("$.content[0]", hasKey("date")));
+    }
+
+    @Test
+    void onlyAdminsCanSubscribeToTheFeed() throws Exception {
+        mockMvc.perform(get("/api/expenses/stream").header("Authorization", bearer(admin)))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/expenses/stream").header("Authorization", bearer(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/expenses/stream"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void onlyAdminsCanUseTheProfilingEndpoints() throws Exception {
+        mockMvc.perform(get("/api/admin/jfr/recording").header("Authorization", bearer(admin)))
+                .andExpect(status().isNotFound());  // 녹화가 없음
+        mockMvc.perform(get("/api/admin/jfr/recording").header("Authorization", bearer(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/admin/jfr/stop"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void onlyAdminsCanReadStatementStatistics() throws Exception {
+        mockMvc.perform(get("/api/admin/jdbc/statements").header("Authorization", bearer(admin)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/jdbc/n-plus-one").header("Authorization", bearer(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/admin/jdbc"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String bearer(Member member) {
+        return "Bearer " + jwtService.generateToken(userDetailsService.loadUserByUsername(member.getUsername()));
+    }
+
+    private Member member(String username, RoleType role) {
+        return memberRepository.findByUsername(username).orElseGet(() -> memberRepository.save(Member.builder()
+                .username(username)
+                .password("password")
+                .role(role)
+                .build()));
+    }
+
+    // Expense.member 는 PERSIST cascade 라서 같은 트랜잭션에서 읽은 회원으로 저장한다
+    private Expense save(Member member, String title) {
+        return new TransactionTemplate(transactionManager).execute(status -> expenseRepository.save(Expense.builder()
+                .title(title)
+                .content("content")
+                .amount(1000.0)
+                .category(Expense.Category.식비)
+                .member(memberRepository.findById(member.getId()).orElseThrow())
+                .build()));
+    }
+}
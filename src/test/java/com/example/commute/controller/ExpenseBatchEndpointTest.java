@@ -0,0 +1,124 @@
+package com.example.commute.controller;
+
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import com.example.commute.enums.RoleType;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import com.example.commute.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// open-in-view 를 켜서 요청 동안 세션이 이어지는 경우에도 INDEPENDENT 일괄 작업의 수정이 반영되고,
+// GET 이 같은 배치의 앞선 수정/삭제를 보는지 확인한다
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-endpoint;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.open-in-view=true",
+        "logging.level.org.springframework=INFO",
+        "logging.level.com.zaxxer.hikari=INFO"
+})
+@AutoConfigureMockMvc
+class ExpenseBatchEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void independentUpdateIsPersistedAndGetSeesEarlierOperations() throws Exception {
+        Member admin = member("bt-admin", RoleType.ADMIN);
+        Long id = save(admin, "before").getId();
+
+        mockMvc.perform(post("/api/expenses/batch")
+                        .header("Authorization", bearer(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"mode": "INDEPENDENT", "operations": [
+                                  {"op": "GET", "id": %d},
+                                  {"op": "UPDATE", "id": %d, "expense": {"title": "after", "content": "changed", "category": "교통", "totalAmount": 2000.0}},
+                                  {"op": "GET", "id": %d}
+                                ]}
+                                """.formatted(id, id, id)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].expense.title").value("before"))
+                .andExpect(jsonPath("$.results[1].status").value(200))
+                .andExpect(jsonPath("$.results[2].expense.title").value("after"));
+
+        Expense stored = expenseRepository.findById(id).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("after");
+        assertThat(stored.getContent()).isEqualTo("changed");
+        assertThat(stored.getAmount()).isEqualTo(2000.0);
+        assertThat(stored.getCategory()).isEqualTo(Expense.Category.교통);
+
+        mockMvc.perform(post("/api/expenses/batch")
+                        .header("Authorization", bearer(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"mode": "INDEPENDENT", "operations": [
+                                  {"op": "GET", "id": %d},
+                                  {"op": "DELETE", "id": %d},
+                                  {"op": "GET", "id": %d}
+                                ]}
+                                """.formatted(id, id, id)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[1].status").value(204))
+                .andExpect(jsonPath("$.results[2].status").value(404));
+
+        assertThat(expenseRepository.findById(id)).isEmpty();
+    }
+
+    private String bearer(Member member) {
+        return "Bearer " + jwtService.generateToken(userDetailsService.loadUserByUsername(member.getUsername()));
+    }
+
+    private Member member(String username, RoleType role) {
+        return memberRepository.findByUsername(username).orElseGet(() -> memberRepository.save(Member.builder()
+                .username(username)
+                .password("password")
+                .role(role)
+                .build()));
+    }
+
+    // Expense.member 는 PERSIST cascade 라서 같은 트랜잭션에서 읽은 회원으로 저장한다
+    private Expense save(Member member, String title) {
+        return new TransactionTemplate(transactionManager).execute(status -> expenseRepository.save(Expense.builder()
+                .title(title)
+                .content("content")
+                .amount(1000.0)
+                .category(Expense.Category.식비)
+                .member(memberRepository.findById(member.getId()).orElseThrow())
+                .build()));
+    }
+}
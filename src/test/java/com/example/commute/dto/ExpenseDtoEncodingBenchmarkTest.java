@@ -0,0 +1,108 @@
+package com.example.commute.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 목록 한 페이지(ExpenseDto 200개)를 JSON / Smile / CBOR 로 인코딩·디코딩할 때의 CPU 시간과 전송 바이트 비교
+// 실행: gradle benchmark
+@Tag("benchmark")
+class ExpenseDtoEncodingBenchmarkTest {
+
+    private static final int PAGE_SIZE = 200;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2000;
+    private static final TypeReference<List<ExpenseDto>> EXPENSE_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    void compareEncodings() throws IOException {
+        List<ExpenseDto> page = samplePage();
+
+        Result json = run("json", mapper(new ObjectMapper()), page);
+        Result smile = run("smile", mapper(new ObjectMapper(new SmileFactory())), page);
+        Result cbor = run("cbor", mapper(new ObjectMapper(new CBORFactory())), page);
+
+        for (Result result : List.of(json, smile, cbor)) {
+            System.out.printf("%-6s %,8d bytes (gzip %,7d)  encode %,9d ns  decode %,9d ns%n",
+                    result.name(), result.bytes(), result.gzipBytes(), result.encodeNanos(), result.decodeNanos());
+        }
+
+        assertThat(smile.bytes()).isLessThan(json.bytes());
+        assertThat(cbor.bytes()).isLessThan(json.bytes());
+    }
+
+    private static Result run(String name, ObjectMapper mapper, List<ExpenseDto> page) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(page);
+        assertThat(mapper.readValue(encoded, EXPENSE_LIST)).hasSize(PAGE_SIZE);
+
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(page), EXPENSE_LIST);
+        }
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long start = threadBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(page);
+        }
+        long encodeNanos = (threadBean.getCurrentThreadCpuTime() - start) / ITERATIONS;
+
+        start = threadBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(encoded, EXPENSE_LIST);
+        }
+        long decodeNanos = (threadBean.getCurrentThreadCpuTime() - start) / ITERATIONS;
+
+        return new Result(name, encoded.length, gzip(encoded).length, encodeNanos, decodeNanos);
+    }
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<ExpenseDto> samplePage() {
+        List<ExpenseDto> page = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(ExpenseDto.builder()
+                    .id((long) i)
+                    .title("출장 경비 " + i)
+                    .category("교통")
+                    .content("KTX 왕복 및 택시 이용 " + i)
+                    .photoUrls(List.of("/upload/" + i + "_a.jpg", "/upload/" + i + "_b.jpg"))
+                    .totalAmount(12000.0 + i)
+                    .createdAt(now.minusHours(i))
+                    .updatedAt(now.minusHours(i))
+                    .build());
+        }
+        return page;
+    }
+
+    private record Result(String name, int bytes, int gzipBytes, long encodeNanos, long decodeNanos) {
+    }
+}
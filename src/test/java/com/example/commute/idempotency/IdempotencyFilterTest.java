@@ -0,0 +1,167 @@
+package com.example.commute.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IdempotencyFilter filter = new IdempotencyFilter(registry, (SharedIdempotencyKeys) null, 1024 * 1024, 60, 2000, 50, 1024);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryReplaysFirstResponseWithoutExecutingAgain() throws Exception {
+        MockHttpServletResponse first = send("alice", "key-1", creatingChain(201));
+        MockHttpServletResponse retry = send("alice", "key-1", creatingChain(201));
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader("Location")).isEqualTo("/api/expenses/1");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void keysAreScopedPerMember() throws Exception {
+        send("alice", "key-1", creatingChain(201));
+        MockHttpServletResponse other = send("bob", "key-1", creatingChain(201));
+
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(other.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void serverErrorsAreNotStored() throws Exception {
+        send("alice", "key-1", creatingChain(500));
+        MockHttpServletResponse retry = send("alice", "key-1", creatingChain(201));
+
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void oversizedResponseIsReplayedWithoutBodyInsteadOfExecutingAgain() throws Exception {
+        FilterChain largeChain = (req, res) -> {
+            executions.incrementAndGet();
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(201);
+            response.setContentType("application/json");
+            response.getWriter().write("[" + "0,".repeat(1000) + "0]");
+        };
+        MockHttpServletResponse first = send("alice", "key-1", largeChain);
+        MockHttpServletResponse retry = send("alice", "key-1", largeChain);
+
+        assertThat(first.getContentAsString()).hasSizeGreaterThan(1024);
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsByteArray()).isEmpty();
+        assertThat(retry.getContentType()).isNull();
+    }
+
+    @Test
+    void storeIsBoundedByStoredResponseSize() {
+        IdempotencyStore store = new IdempotencyStore(16 * 1024, Duration.ofMinutes(1));
+        for (int i = 0; i < 20; i++) {
+            String key = "alice\n/api/expenses\nkey-" + i;
+            store.complete(key, store.claim(key), new StoredResponse(201, Map.of(), new byte[2048]));
+        }
+        store.cleanUp();
+
+        assertThat(store.weightedSize()).isLessThanOrEqualTo(16 * 1024);
+        assertThat(store.size()).isLessThan(20);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstExecution() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            creatingChain(201).doFilter(req, res);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> sendUnchecked("alice", "key-1", slowChain), executor);
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> sendUnchecked("alice", "key-1", slowChain), executor);
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(replayed.getStatus()).isEqualTo(201);
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void requestsWithoutKeyPassThrough() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/expenses");
+            filter.doFilter(request, new MockHttpServletResponse(), creatingChain(201));
+        }
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    private FilterChain creatingChain(int status) {
+        return (req, res) -> {
+            int id = executions.incrementAndGet();
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(status);
+            response.setHeader("Location", "/api/expenses/" + id);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + id + "}");
+        };
+    }
+
+    private MockHttpServletResponse send(String username, String key, FilterChain chain) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/expenses");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse sendUnchecked(String username, String key, FilterChain chain) {
+        try {
+            return send(username, key, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.commute.idempotency;
+
+import com.example.commute.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 같은 DB 를 보는 두 인스턴스(각자 로컬 저장소 + 공유 키 테이블)를 만들어, 다른 인스턴스로 간 재시도가 다시 실행되지 않는지 확인
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SharedIdempotencyKeysTest {
+
+    private static final Duration TTL = Duration.ofMinutes(60);
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void clear() {
+        repository.deleteAllInBatch();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryOnAnotherInstanceReplaysTheStoredResponse() throws Exception {
+        IdempotencyFilter instanceA = filter(keys("instance-a", Duration.ofMinutes(2)));
+        IdempotencyFilter instanceB = filter(keys("instance-b", Duration.ofMinutes(2)));
+
+        MockHttpServletResponse first = send(instanceA, "key-1", creatingChain(201));
+        MockHttpServletResponse retry = send(instanceB, "key-1", creatingChain(201));
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader("Location")).isEqualTo("/api/expenses/1");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void serverErrorOnOneInstanceLetsAnotherInstanceExecute() throws Exception {
+        IdempotencyFilter instanceA = filter(keys("instance-a", Duration.ofMinutes(2)));
+        IdempotencyFilter instanceB = filter(keys("instance-b", Duration.ofMinutes(2)));
+
+        send(instanceA, "key-1", creatingChain(500));
+        MockHttpServletResponse retry = send(instanceB, "key-1", creatingChain(201));
+
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void keyHeldByAnotherInstanceIsBusyUntilItsLeaseExpires() {
+        SharedIdempotencyKeys instanceA = keys("instance-a", Duration.ofMinutes(2));
+        SharedIdempotencyKeys instanceB = keys("instance-b", Duration.ofMinutes(2));
+        SharedIdempotencyKeys crashed = keys("instance-c", Duration.ZERO);
+
+        assertThat(instanceA.claim("alice\n/api/expenses\nkey-1").owner()).isTrue();
+        SharedIdempotencyKeys.Claim busy = instanceB.claim("alice\n/api/expenses\nkey-1");
+        assertThat(busy.owner()).isFalse();
+        assertThat(busy.stored()).isNull();
+
+        // 실행하던 인스턴스가 죽어 lease 가 지난 키는 다른 인스턴스가 이어받는다
+        assertThat(crashed.claim("alice\n/api/expenses\nkey-2").owner()).isTrue();
+        assertThat(instanceB.claim("alice\n/api/expenses\nkey-2").owner()).isTrue();
+
+        instanceA.complete("alice\n/api/expenses\nkey-1", new StoredResponse(201, Map.of("Location", List.of("/api/expenses/9")), new byte[]{1, 2}));
+        SharedIdempotencyKeys.Claim stored = instanceB.claim("alice\n/api/expenses\nkey-1");
+        assertThat(stored.owner()).isFalse();
+        assertThat(stored.stored().status()).isEqualTo(201);
+        assertThat(stored.stored().headers()).containsEntry("Location", List.of("/api/expenses/9"));
+        assertThat(stored.stored().body()).containsExactly(1, 2);
+    }
+
+    private SharedIdempotencyKeys keys(String owner, Duration lease) {
+        return new SharedIdempotencyKeys(repository, transactionManager, new ObjectMapper(), TTL, lease, owner);
+    }
+
+    private static IdempotencyFilter filter(SharedIdempotencyKeys keys) {
+        return new IdempotencyFilter(new SimpleMeterRegistry(), keys, 1024 * 1024, TTL.toMinutes(), 2000, 50, 1024);
+    }
+
+    private FilterChain creatingChain(int status) {
+        return (req, res) -> {
+            int id = executions.incrementAndGet();
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(status);
+            response.setHeader("Location", "/api/expenses/" + id);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + id + "}");
+        };
+    }
+
+    private static MockHttpServletResponse send(IdempotencyFilter filter, String key, FilterChain chain) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/expenses");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.commute.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementShapeTest {
+
+    @Test
+    void literalsAndInListsCollapseToTheSameShape() {
+        String first = StatementShape.of("select p1_0.id from photo p1_0\n  where p1_0.expense_id in (?, ?, ?) and p1_0.file_name = 'a.jpg'");
+        String second = StatementShape.of("select p1_0.id from photo p1_0 where p1_0.expense_id in (?,?) and p1_0.file_name = 'b''s.jpg'");
+
+        assertThat(first).isEqualTo(second)
+                .isEqualTo("select p1_0.id from photo p1_0 where p1_0.expense_id in (?...) and p1_0.file_name = ?");
+    }
+
+    @Test
+    void numbersInsideIdentifiersAreKept() {
+        assertThat(StatementShape.of("select e1_0.id from expense e1_0 where e1_0.id = 42 limit 10"))
+                .isEqualTo("select e1_0.id from expense e1_0 where e1_0.id = ? limit ?");
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.commute.journal;
+
+import com.example.commute.event.ExpenseChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseEventJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAppendedEventsFromAnySequence() throws IOException {
+        ExpenseEventJournal journal = open();
+        journal.append(event(1L, "first"));
+        journal.append(new ExpenseChangedEvent(ExpenseChangedEvent.Type.DELETED, 2L, null, null, null, null));
+        journal.append(event(3L, "세 번째"));
+
+        List<JournalEntry> all = replay(journal, 1);
+        assertThat(all).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L);
+        assertThat(all.get(0).event()).isEqualTo(event(1L, "first"));
+        assertThat(all.get(1).event()).isEqualTo(new ExpenseChangedEvent(ExpenseChangedEvent.Type.DELETED, 2L, null, null, null, null));
+        assertThat(all.get(2).event().title()).isEqualTo("세 번째");
+        assertThat(replay(journal, 3)).extracting(JournalEntry::sequence).containsExactly(3L);
+        assertThat(journal.lastSequence()).isEqualTo(3L);
+        journal.close();
+    }
+
+    @Test
+    void rotatesAcrossSegmentsAndTailReaderFollows() throws IOException {
+        ExpenseEventJournal journal = open();
+        ExpenseEventJournal.Reader reader = journal.tail(1);
+        List<JournalEntry> tailed = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            journal.append(event(i, "expense " + i));
+            if (i % 50 == 0) {
+                tailed.addAll(reader.poll(1000));
+            }
+        }
+
+        assertThat(segmentCount()).isGreaterThan(1);
+        assertThat(tailed).extracting(JournalEntry::sequence).containsExactlyElementsOf(sequences(1, 200));
+        assertThat(replay(journal, 120)).extracting(JournalEntry::sequence).containsExactlyElementsOf(sequences(120, 200));
+        journal.close();
+
+        // 다시 열면 마지막 세그먼트 끝에서 이어 쓴다
+        ExpenseEventJournal reopened = open();
+        assertThat(reopened.append(event(201L, "after reopen"))).isEqualTo(201L);
+        assertThat(replay(reopened, 1)).hasSize(201);
+        reopened.close();
+    }
+
+    @Test
+    void recoveryDiscardsCorruptedTail() throws IOException {
+        ExpenseEventJournal journal = open();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(event(i, "expense " + i));
+        }
+        journal.close();
+
+        // 세 번째 레코드의 payload 를 깨뜨린다 (CRC 불일치)
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            int third = recordOffset(buffer, 2);
+            buffer.put(third + 8 + 20, (byte) (buffer.get(third + 8 + 20) ^ 0x5A));
+            buffer.force();
+        }
+
+        ExpenseEventJournal recovered = open();
+        assertThat(recovered.lastSequence()).isEqualTo(2L);
+        assertThat(recovered.append(event(30L, "rewritten"))).isEqualTo(3L);
+        recovered.close();
+
+        ExpenseEventJournal again = open();
+        List<JournalEntry> entries = replay(again, 1);
+        assertThat(entries).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L);
+        assertThat(entries.get(2).event().title()).isEqualTo("rewritten");
+        assertThat(segmentCount()).isEqualTo(1);
+        again.close();
+    }
+
+    @Test
+    void recoveryOfTornRecordAtSegmentStart() throws IOException {
+        open().close();
+
+        // 길이만 쓰이고 payload / CRC 는 쓰이지 않은 첫 레코드
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            buffer.putInt(0, 60);
+            buffer.putInt(4, 12345);
+            buffer.put(8, new byte[]{1, 2, 3, 4});
+            buffer.force();
+        }
+
+        ExpenseEventJournal recovered = open();
+        assertThat(recovered.lastSequence()).isZero();
+        assertThat(recovered.append(event(1L, "first"))).isEqualTo(1L);
+        assertThat(recovered.append(event(2L, "second"))).isEqualTo(2L);
+        recovered.close();
+
+        ExpenseEventJournal again = open();
+        assertThat(replay(again, 1)).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+        assertThat(again.lastSequence()).isEqualTo(2L);
+        assertThat(segmentCount()).isEqualTo(1);
+        again.close();
+    }
+
+    private ExpenseEventJournal open() throws IOException {
+        ExpenseEventJournal journal = new ExpenseEventJournal(directory.toString(), SEGMENT_SIZE, false);
+        journal.open();
+        return journal;
+    }
+
+    private static List<JournalEntry> replay(ExpenseEventJournal journal, long from) {
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(from, entries::add);
+        return entries;
+    }
+
+    private static ExpenseChangedEvent event(long id, String title) {
+        return new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, id, 7L, title, "식비", 1000.0 + id);
+    }
+
+    private static List<Long> sequences(long from, long to) {
+        List<Long> sequences = new ArrayList<>();
+        for (long i = from; i <= to; i++) {
+            sequences.add(i);
+        }
+        return sequences;
+    }
+
+    // index 번째 레코드의 시작 위치 ([int 길이][int CRC][payload])
+    private static int recordOffset(ByteBuffer buffer, int index) {
+        int position = 0;
+        for (int i = 0; i < index; i++) {
+            position += 8 + buffer.getInt(position);
+        }
+        return position;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+    }
+}
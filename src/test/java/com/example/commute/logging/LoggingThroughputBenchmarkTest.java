@@ -0,0 +1,152 @@
+package com.example.commute.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 이전 설정(동기 출력 + DEBUG + 사진 URL 목록 INFO)과 prod 설정(비동기 큐 + INFO + 샘플링)의 요청 처리량 비교
+// 요청 하나 = ExpenseService 가 남기던 로그 몇 줄 + 약간의 CPU 작업, 8 스레드로 고정 시간 동안 실행
+// 실행: gradle benchmark
+@Tag("benchmark")
+class LoggingThroughputBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long RUN_MILLIS = 3_000;
+    private static final List<String> PHOTO_URLS = photoUrls();
+
+    private static volatile long blackhole; // JIT 가 작업을 없애지 않도록
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compareLoggingSetups() throws Exception {
+        LoggerContext before = context();
+        before.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        before.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(fileAppender(before, "before.log"));
+        double beforeRps = run(before.getLogger("com.example.commute.service.ExpenseService"), false);
+        before.stop();
+
+        LoggerContext prod = context();
+        RateSamplingTurboFilter sampling = new RateSamplingTurboFilter();
+        sampling.setContext(prod);
+        sampling.addLoggerPrefix("com.example.commute.service.ExpenseService");
+        sampling.setPermitsPerSecond(20);
+        sampling.start();
+        prod.addTurboFilter(sampling);
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(prod);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(fileAppender(prod, "prod.log"));
+        async.start();
+        prod.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        prod.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(async);
+        double prodRps = run(prod.getLogger("com.example.commute.service.ExpenseService"), true);
+        prod.stop();
+
+        System.out.printf("before (sync, DEBUG)          %,12.0f req/s%n", beforeRps);
+        System.out.printf("prod (async, INFO, sampled)   %,12.0f req/s  (%.1fx, %,d events sampled out)%n",
+                prodRps, prodRps / beforeRps, sampling.getTotalSuppressed());
+
+        assertThat(sampling.getTotalSuppressed()).isPositive();
+        assertThat(prodRps).isGreaterThan(beforeRps);
+    }
+
+    private double run(Logger logger, boolean prod) throws InterruptedException {
+        drive(logger, prod, WARMUP_MILLIS);
+        return drive(logger, prod, RUN_MILLIS) * 1000.0 / RUN_MILLIS;
+    }
+
+    private long drive(Logger logger, boolean prod, long millis) throws InterruptedException {
+        AtomicLong requests = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long deadline = System.currentTimeMillis() + millis;
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                long local = 0;
+                long sink = 0;
+                while (System.currentTimeMillis() < deadline) {
+                    sink += handleRequest(logger, prod, local);
+                    local++;
+                }
+                blackhole = sink;
+                requests.addAndGet(local);
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        return requests.get();
+    }
+
+    // 이전/현재 ExpenseService.createExpense + getExpenseById 의 로그 모양
+    private static long handleRequest(Logger logger, boolean prod, long id) {
+        logger.info("Creating new expense with title: {}", "taxi " + id);
+        if (prod) {
+            logger.info("Adding {} photos to expense", PHOTO_URLS.size());
+            logger.debug("Photo URLs: {}", PHOTO_URLS);
+            logger.debug("Fetching expense with ID: {}", id);
+        } else {
+            logger.info("Adding photos to expense: {}", PHOTO_URLS);
+            logger.info("Fetching expense with ID: {}", id);
+        }
+        logger.debug("Converting Expense entity to DTO with ID: {}", id);
+
+        long work = id;
+        for (int i = 0; i < 2_000; i++) {
+            work = work * 31 + i;
+        }
+        logger.info("Expense created with ID: {}", id);
+        return work;
+    }
+
+    private static LoggerContext context() {
+        LoggerContext context = new LoggerContext();
+        context.start();
+        return context;
+    }
+
+    private Appender<ILoggingEvent> fileAppender(LoggerContext context, String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %5level [%thread] %logger{40} [%X{requestId}] : %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(dir.resolve(name).toString());
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.start();
+        return appender;
+    }
+
+    private static List<String> photoUrls() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            urls.add("/path/to/your/upload/directory/" + UUID.randomUUID() + "_receipt" + i + ".jpg");
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.commute.outbox;
+
+import com.example.commute.entity.OutboxEvent;
+import com.example.commute.event.ExpenseChangedEvent;
+import com.example.commute.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    private static final long BACKOFF_MILLIS = 60_000;
+    private static final long CLAIM_TIMEOUT_MILLIS = 300_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> handled = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clear() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void dispatchesDueEventsAndMarksThemDone() throws Exception {
+        OutboxEvent first = write("first");
+        OutboxEvent second = write("second");
+
+        relay(3, recording()).relay();
+
+        assertThat(handled).containsExactly("first", "second");
+        assertThat(reload(first).getStatus()).isEqualTo(OutboxEvent.Status.DONE);
+        assertThat(reload(second).getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    void failedEventIsRetriedWithExponentialBackoffUntilFailed() throws Exception {
+        OutboxEvent event = write("always fails");
+        OutboxRelay relay = relay(3, failing());
+
+        relay.relay();
+        OutboxEvent afterFirst = reload(event);
+        assertThat(afterFirst.getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+        assertThat(afterFirst.getAttempts()).isEqualTo(1);
+        assertThat(afterFirst.getLastError()).contains("handler down");
+        assertThat(afterFirst.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(60), within(10, ChronoUnit.SECONDS));
+
+        // backoff 가 지나기 전에는 다시 시도하지 않는다
+        relay.relay();
+        assertThat(reload(event).getAttempts()).isEqualTo(1);
+
+        makeDue(event);
+        relay.relay();
+        OutboxEvent afterSecond = reload(event);
+        assertThat(afterSecond.getAttempts()).isEqualTo(2);
+        assertThat(afterSecond.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(120), within(10, ChronoUnit.SECONDS));
+
+        makeDue(event);
+        relay.relay();
+        OutboxEvent failed = reload(event);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+        assertThat(failed.getStatus()).isEqualTo(OutboxEvent.Status.FAILED);
+        assertThat(failed.getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    void handlersRunAfterTheClaimCommitsWithoutHoldingATransaction() throws Exception {
+        OutboxEvent event = write("claimed");
+        List<Boolean> inTransaction = new CopyOnWriteArrayList<>();
+        List<LocalDateTime> leasedUntil = new CopyOnWriteArrayList<>();
+
+        relay(3, handler(changed -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            // 점유가 이미 커밋되어 다른 relay 에게는 아직 처리 시점이 아닌 이벤트로 보인다
+            leasedUntil.add(reload(event).getNextAttemptAt());
+        })).relay();
+
+        assertThat(inTransaction).containsExactly(false);
+        assertThat(leasedUntil.get(0)).isAfter(LocalDateTime.now().plusSeconds(60));
+        assertThat(reload(event).getStatus()).isEqualTo(OutboxEvent.Status.DONE);
+    }
+
+    @Test
+    void handlerThatRollsBackItsOwnTransactionDoesNotAffectTheBatch() throws Exception {
+        OutboxEvent poison = write("poison");
+        OutboxEvent healthy = write("healthy");
+
+        // 예외를 삼키지만 자기 트랜잭션은 롤백하는 핸들러. relay 트랜잭션에 참여하지 않으므로 배치 기록은 그대로 커밋된다
+        TransactionTemplate joining = new TransactionTemplate(transactionManager);
+        OutboxHandler swallowing = handler(event -> {
+            if ("poison".equals(event.title())) {
+                try {
+                    joining.executeWithoutResult(status -> {
+                        throw new IllegalStateException("constraint violated");
+                    });
+                } catch (IllegalStateException ignored) {
+                    // 로그만 남기고 넘어가는 핸들러
+                }
+            }
+            handled.add(event.title());
+        });
+
+        relay(3, swallowing).relay();
+
+        assertThat(handled).containsExactly("poison", "healthy");
+        assertThat(reload(poison).getStatus()).isEqualTo(OutboxEvent.Status.DONE);
+        assertThat(reload(healthy).getStatus()).isEqualTo(OutboxEvent.Status.DONE);
+    }
+
+    @Test
+    void claimedEventIsRetriedAfterTheClaimTimeoutWhenTheRelayDiesMidBatch() throws Exception {
+        OutboxEvent event = write("orphaned claim");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 결과를 기록하기 전에 죽은 relay 를 흉내 낸다: 점유만 커밋된 상태
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findDue(
+                        OutboxEvent.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, 10))
+                .forEach(claimed -> claimed.setNextAttemptAt(LocalDateTime.now().plusMinutes(5))));
+
+        relay(3, recording()).relay();
+        assertThat(handled).isEmpty();
+
+        makeDue(event);
+        relay(3, recording()).relay();
+        assertThat(handled).containsExactly("orphaned claim");
+        assertThat(reload(event).getStatus()).isEqualTo(OutboxEvent.Status.DONE);
+    }
+
+    private OutboxRelay relay(int maxAttempts, OutboxHandler handler) {
+        return new OutboxRelay(outboxEventRepository, objectMapper, List.of(handler), transactionManager,
+                new SimpleMeterRegistry(), 10, maxAttempts, BACKOFF_MILLIS, 10 * BACKOFF_MILLIS, 24, CLAIM_TIMEOUT_MILLIS);
+    }
+
+    private OutboxHandler recording() {
+        return handler(event -> handled.add(event.title()));
+    }
+
+    private OutboxHandler failing() {
+        return handler(event -> {
+            throw new IOException("handler down");
+        });
+    }
+
+    private static OutboxHandler handler(ThrowingConsumer consumer) {
+        return new OutboxHandler() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void handle(ExpenseChangedEvent event) throws Exception {
+                consumer.accept(event);
+            }
+        };
+    }
+
+    private OutboxEvent write(String title) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        ExpenseChangedEvent event = new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, 1L, 1L, title, "식비", 1000.0);
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .eventType("EXPENSE_CREATED")
+                .aggregateId(1L)
+                .payload(objectMapper.writeValueAsString(event))
+                .status(OutboxEvent.Status.PENDING)
+                .attempts(0)
+                .createdAt(now)
+                .nextAttemptAt(now.minusSeconds(1))
+                .build());
+    }
+
+    private void makeDue(OutboxEvent event) {
+        OutboxEvent current = reload(event);
+        current.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(current);
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxEventRepository.findById(event.getId()).orElseThrow();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingConsumer {
+        void accept(ExpenseChangedEvent event) throws Exception;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.commute.outbox;
+
+import com.example.commute.event.ExpenseChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class WebhookOutboxHandlerTest {
+
+    private static final String URL = "http://hooks.test/expenses";
+
+    private final RestClient.Builder builder = RestClient.builder();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+    private final WebhookOutboxHandler handler = new WebhookOutboxHandler(builder.build(), URL);
+
+    private final ExpenseChangedEvent event =
+            new ExpenseChangedEvent(ExpenseChangedEvent.Type.UPDATED, 7L, 1L, "점심", "식비", 9000.0);
+
+    @Test
+    void postsTheEventAsJsonWithADeduplicationKey() {
+        server.expect(requestTo(URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(WebhookOutboxHandler.EVENT_KEY_HEADER, "UPDATED:7"))
+                .andExpect(jsonPath("$.expenseId").value(7))
+                .andExpect(jsonPath("$.category").value("식비"))
+                .andRespond(withSuccess("", MediaType.TEXT_PLAIN));
+
+        handler.handle(event);
+
+        server.verify();
+    }
+
+    @Test
+    void nonSuccessResponseFailsSoTheRelayRetries() {
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThatThrownBy(() -> handler.handle(event)).isInstanceOf(RestClientResponseException.class);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.commute.service;
+
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.dto.ExpenseBatchOperation;
+import com.example.commute.dto.ExpenseBatchRequest;
+import com.example.commute.dto.ExpenseBatchResponse;
+import com.example.commute.dto.ExpenseBatchResult;
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import com.example.commute.enums.RoleType;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Import({ExpenseService.class, ExpenseBatchService.class, CacheInvalidationBus.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseBatchServiceTest {
+
+    @Autowired
+    private ExpenseBatchService expenseBatchService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Member author;
+    private Member other;
+
+    @BeforeEach
+    void setUp() {
+        author = member("b-author");
+        other = member("b-other");
+    }
+
+    @Test
+    void independentOperationsSucceedOrFailOnTheirOwn() {
+        Expense mine = save(author, "mine");
+        Expense theirs = save(other, "theirs");
+
+        ExpenseBatchResponse response = expenseBatchService.execute(author.getUsername(), request(ExpenseBatchRequest.Mode.INDEPENDENT,
+                create("new 1", "식비"),
+                create("bad category", "NOT_A_CATEGORY"),
+                update(mine.getId(), "mine edited"),
+                update(theirs.getId(), "not allowed"),
+                get(theirs.getId()),
+                ExpenseBatchOperation.builder().op(ExpenseBatchOperation.Type.DELETE).id(mine.getId()).build(),
+                get(Long.MAX_VALUE)));
+
+        List<ExpenseBatchResult> results = response.getResults();
+        assertThat(results).extracting(ExpenseBatchResult::getStatus)
+                .containsExactly(201, 400, 200, 403, 200, 401, 404);
+        assertThat(results.get(0).getExpense().getId()).isNotNull();
+        assertThat(results.get(2).getExpense().getTitle()).isEqualTo("mine edited");
+        assertThat(results.get(4).getExpense().getTitle()).isEqualTo("theirs");
+
+        assertThat(expenseRepository.findById(results.get(0).getExpense().getId())).isPresent();
+        assertThat(expenseRepository.findById(mine.getId()).orElseThrow().getTitle()).isEqualTo("mine edited");
+        assertThat(expenseRepository.findById(theirs.getId()).orElseThrow().getTitle()).isEqualTo("theirs");
+    }
+
+    @Test
+    void atomicBatchRollsBackEverythingOnFirstFailure() {
+        Expense mine = save(author, "atomic mine");
+        Expense theirs = save(other, "atomic theirs");
+        long before = expenseRepository.count();
+
+        ExpenseBatchResponse response = expenseBatchService.execute(author.getUsername(), request(ExpenseBatchRequest.Mode.ATOMIC,
+                create("atomic new", "식비"),
+                update(mine.getId(), "atomic edited"),
+                update(theirs.getId(), "not allowed"),
+                create("never reached", "식비")));
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getResults()).extracting(ExpenseBatchResult::getStatus)
+                .containsExactly(424, 424, 403, 424);
+        assertThat(expenseRepository.count()).isEqualTo(before);
+        assertThat(expenseRepository.findById(mine.getId()).orElseThrow().getTitle()).isEqualTo("atomic mine");
+    }
+
+    @Test
+    void atomicBatchCommitsAllOperations() {
+        Expense mine = save(author, "atomic ok");
+
+        ExpenseBatchResponse response = expenseBatchService.execute(author.getUsername(), request(ExpenseBatchRequest.Mode.ATOMIC,
+                create("atomic a", "식비"),
+                create("atomic b", "식비"),
+                update(mine.getId(), "atomic ok edited"),
+                get(mine.getId())));
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getResults()).extracting(ExpenseBatchResult::getStatus)
+                .containsExactly(201, 201, 200, 200);
+        assertThat(response.getResults().get(3).getExpense().getTitle()).isEqualTo("atomic ok edited");
+    }
+
+    private Member member(String username) {
+        return memberRepository.findByUsername(username).orElseGet(() -> memberRepository.save(Member.builder()
+                .username(username)
+                .password("password")
+                .role(RoleType.USER)
+                .build()));
+    }
+
+    // Expense.member 는 PERSIST cascade 라서 같은 트랜잭션에서 읽은 회원으로 저장한다
+    private Expense save(Member member, String title) {
+        return new TransactionTemplate(transactionManager).execute(status -> expenseRepository.save(Expense.builder()
+                .title(title)
+                .content("content")
+                .amount(1000.0)
+                .category(Expense.Category.식비)
+                .member(memberRepository.findById(member.getId()).orElseThrow())
+                .build()));
+    }
+
+    private static ExpenseBatchRequest request(ExpenseBatchRequest.Mode mode, ExpenseBatchOperation... operations) {
+        return ExpenseBatchRequest.builder().mode(mode).operations(List.of(operations)).build();
+    }
+
+    private static ExpenseBatchOperation create(String title, String category) {
+        return ExpenseBatchOperation.builder().op(ExpenseBatchOperation.Type.CREATE).expense(dto(title, category)).build();
+    }
+
+    private static ExpenseBatchOperation update(Long id, String title) {
+        return ExpenseBatchOperation.builder().op(ExpenseBatchOperation.Type.UPDATE).id(id).expense(dto(title, "식비")).build();
+    }
+
+    private static ExpenseBatchOperation get(Long id) {
+        return ExpenseBatchOperation.builder().op(ExpenseBatchOperation.Type.GET).id(id).build();
+    }
+
+    private static ExpenseDto dto(String title, String category) {
+        return ExpenseDto.builder().title(title).category(category).totalAmount(1000.0).build();
+    }
+}
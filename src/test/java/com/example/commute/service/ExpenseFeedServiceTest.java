@@ -0,0 +1,152 @@
+package com.example.commute.service;
+
+import com.example.commute.event.ExpenseChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// 전송 스레드 대신 테스트가 직접 돌리는 executor 를 써서 버퍼링/overflow 를 결정적으로 확인한다
+class ExpenseFeedServiceTest {
+
+    private final ManualExecutor sender = new ManualExecutor();
+    private final ExpenseFeedService feed = new ExpenseFeedService(sender, 3, 60_000);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(feed)).build();
+
+    @Test
+    void subscriberReceivesOnlyMatchingEvents() throws Exception {
+        MvcResult result = subscribe("식비");
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+
+        feed.onExpenseChanged(event(1, "식비"));
+        feed.onExpenseChanged(event(2, "교통"));
+        sender.runAll();
+
+        String body = body(result);
+        assertThat(body).contains("event:expense").contains("\"title\":\"expense 1\"");
+        assertThat(body).doesNotContain("expense 2").doesNotContain("event:overflow");
+    }
+
+    @Test
+    void fullBufferDropsOldestEventsAndReportsOverflow() throws Exception {
+        MvcResult result = subscribe(null);
+
+        // 전송 작업이 돌기 전에 버퍼(3)보다 많은 알림이 쌓인다
+        for (int i = 1; i <= 5; i++) {
+            feed.onExpenseChanged(event(i, "식비"));
+        }
+        sender.runAll();
+
+        String body = body(result);
+        assertThat(body).contains("event:overflow\ndata:2");
+        assertThat(body).doesNotContain("\"title\":\"expense 1\"").doesNotContain("\"title\":\"expense 2\"");
+        assertThat(body.indexOf("expense 3")).isLessThan(body.indexOf("expense 4"));
+        assertThat(body.indexOf("expense 4")).isLessThan(body.indexOf("expense 5"));
+        assertThat(body.indexOf("event:overflow")).isLessThan(body.indexOf("expense 3"));
+    }
+
+    @Test
+    void slowSubscriberDoesNotHoldBackOthers() throws Exception {
+        MvcResult all = subscribe(null);
+        MvcResult filtered = subscribe("교통");
+
+        for (int i = 1; i <= 5; i++) {
+            feed.onExpenseChanged(event(i, "식비"));
+        }
+        feed.onExpenseChanged(event(6, "교통"));
+        sender.runAll();
+
+        assertThat(body(all)).contains("event:overflow\ndata:3").contains("expense 6");
+        assertThat(body(filtered)).contains("expense 6").doesNotContain("event:overflow");
+    }
+
+    private MvcResult subscribe(String category) throws Exception {
+        return mockMvc.perform(category != null ? get("/feed").param("category", category) : get("/feed"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static ExpenseChangedEvent event(long id, String category) {
+        return new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, id, 1L, "expense " + id, category, 1000.0);
+    }
+
+    @RestController
+    static class FeedController {
+        private final ExpenseFeedService feed;
+
+        FeedController(ExpenseFeedService feed) {
+            this.feed = feed;
+        }
+
+        @GetMapping("/feed")
+        SseEmitter feed(@RequestParam(value = "category", required = false) String category) {
+            return feed.subscribe(category, null);
+        }
+    }
+
+    // execute() 된 작업을 runAll() 을 부를 때까지 모아 둔다
+    private static final class ManualExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean shutdown;
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.commute.service;
+
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import com.example.commute.entity.Photo;
+import com.example.commute.enums.RoleType;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 목록 조회 1회당 힙 할당량 / CPU 시간을 읽기 전용 세션과 일반(읽기-쓰기) 세션으로 비교한다
+// 실행: gradle benchmark
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseReadPathBenchmarkTest {
+
+    private static final int EXPENSES = 500;
+    private static final int PAGE_SIZE = 200;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        if (expenseRepository.count() > 0) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Member member = memberRepository.save(Member.builder()
+                    .username("bench")
+                    .password("password")
+                    .role(RoleType.ADMIN)
+                    .build());
+            List<Expense> expenses = new ArrayList<>();
+            for (int i = 0; i < EXPENSES; i++) {
+                Expense expense = Expense.builder()
+                        .title("expense " + i)
+                        .content("x".repeat(400))
+                        .amount(1000.0 + i)
+                        .category(Expense.Category.values()[i % Expense.Category.values().length])
+                        .member(member)
+                        .build();
+                List<Photo> photos = new ArrayList<>();
+                photos.add(new Photo("a.jpg", "/upload/a_" + i + ".jpg", expense));
+                photos.add(new Photo("b.jpg", "/upload/b_" + i + ".jpg", expense));
+                expense.setPhotos(photos);
+                expenses.add(expense);
+            }
+            expenseRepository.saveAll(expenses);
+        });
+    }
+
+    @Test
+    void listingEntitiesAreLoadedReadOnly() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            Page<Expense> page = expenseRepository.findAll(PageRequest.of(0, PAGE_SIZE));
+            Session session = entityManager.unwrap(Session.class);
+            assertThat(page.getContent()).allMatch(session::isReadOnly);
+        });
+    }
+
+    @Test
+    void compareReadOnlyAndReadWriteListingCost() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 두 쪽 모두 같은 쿼리와 같은 매핑을 실행하고, 힌트(읽기 전용 + 수동 flush)와 트랜잭션 모드만 다르다
+        // 기준선: 힌트 없이 읽기-쓰기 트랜잭션 (스냅샷 + 커밋 시 dirty checking)
+        Runnable readWriteListing = () -> readWrite.execute(status -> listing(false));
+        Runnable readOnlyListing = () -> readOnly.execute(status -> listing(true));
+
+        Measurement readWriteResult = measure(readWriteListing);
+        Measurement readOnlyResult = measure(readOnlyListing);
+
+        System.out.printf("read-write listing: %,d bytes/request, %,d ns cpu/request%n",
+                readWriteResult.bytesPerRequest(), readWriteResult.cpuNanosPerRequest());
+        System.out.printf("read-only  listing: %,d bytes/request, %,d ns cpu/request%n",
+                readOnlyResult.bytesPerRequest(), readOnlyResult.cpuNanosPerRequest());
+
+        assertThat(readOnly.execute(status -> listing(true))).hasSize(PAGE_SIZE);
+    }
+
+    // ExpenseRepository.findAll(Pageable) 의 내용 쿼리와 같은 쿼리, 힌트만 선택적으로 붙인다
+    private List<String> listing(boolean hinted) {
+        TypedQuery<Expense> query = entityManager
+                .createQuery("select e from Expense e", Expense.class)
+                .setFirstResult(0)
+                .setMaxResults(PAGE_SIZE);
+        if (hinted) {
+            query.setHint(HibernateHints.HINT_READ_ONLY, true);
+            query.setHint(HibernateHints.HINT_FLUSH_MODE, "MANUAL");
+        }
+        return query.getResultList().stream()
+                .map(e -> e.getTitle() + e.getContent() + e.getPhotos().size())
+                .toList();
+    }
+
+    private static Measurement measure(Runnable listing) {
+        for (int i = 0; i < WARMUP; i++) {
+            listing.run();
+        }
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+        long cpuBefore = threadBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            listing.run();
+        }
+        long bytes = threadBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+        long cpu = threadBean.getCurrentThreadCpuTime() - cpuBefore;
+        return new Measurement(bytes / ITERATIONS, cpu / ITERATIONS);
+    }
+
+    private record Measurement(long bytesPerRequest, long cpuNanosPerRequest) {
+    }
+}
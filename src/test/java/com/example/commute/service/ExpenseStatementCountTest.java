@@ -0,0 +1,111 @@
+package com.example.commute.service;
+
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Member;
+import com.example.commute.entity.Photo;
+import com.example.commute.enums.RoleType;
+import com.example.commute.jdbc.JdbcProxyConfig;
+import com.example.commute.jdbc.NPlusOneFinding;
+import com.example.commute.jdbc.RequestStatements;
+import com.example.commute.jdbc.StatementStats;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 목록 조회가 행마다 같은 SQL 을 반복하지 않는지(N+1) datasource-proxy 집계로 검증
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Import({ExpenseService.class, CacheInvalidationBus.class, JdbcProxyConfig.class, StatementStats.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseStatementCountTest {
+
+    private static final int EXPENSES = 30;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private StatementStats statementStats;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Member member;
+
+    @BeforeEach
+    void seed() {
+        member = memberRepository.findByUsername("statements").orElseGet(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    Member saved = memberRepository.save(Member.builder()
+                            .username("statements")
+                            .password("password")
+                            .role(RoleType.USER)
+                            .build());
+                    List<Expense> expenses = new ArrayList<>();
+                    for (int i = 0; i < EXPENSES; i++) {
+                        Expense expense = Expense.builder()
+                                .title("expense " + i)
+                                .amount(1000.0 + i)
+                                .category(Expense.Category.values()[i % Expense.Category.values().length])
+                                .member(saved)
+                                .build();
+                        List<Photo> photos = new ArrayList<>();
+                        photos.add(new Photo("a.jpg", "/upload/a_" + i + ".jpg", expense));
+                        photos.add(new Photo("b.jpg", "/upload/b_" + i + ".jpg", expense));
+                        expense.setPhotos(photos);
+                        expenses.add(expense);
+                    }
+                    expenseRepository.saveAll(expenses);
+                    return saved;
+                }));
+    }
+
+    @Test
+    void listingAPageDoesNotRepeatStatementsPerRow() {
+        RequestStatements.begin();
+        expenseService.getMemberExpenses(member, PageRequest.of(0, EXPENSES));
+        Map<String, Integer> counts = RequestStatements.end();
+
+        assertThat(counts).isNotEmpty();
+        assertThat(statementStats.inspect("getMemberExpenses", counts)).isEmpty();
+    }
+
+    @Test
+    void repeatedSingleRowLookupsAreReported() {
+        List<Long> ids = expenseRepository.findAll().stream().map(Expense::getId).limit(10).toList();
+
+        RequestStatements.begin();
+        ids.forEach(expenseService::getExpenseById);
+        List<NPlusOneFinding> findings = statementStats.inspect("getExpenseById x10", RequestStatements.end());
+
+        assertThat(findings).anySatisfy(finding -> {
+            assertThat(finding.count()).isGreaterThanOrEqualTo(10);
+            assertThat(finding.shape()).containsIgnoringCase("from expense");
+        });
+        assertThat(statementStats.getFindings()).containsAll(findings);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.commute.service;
+
+import com.example.commute.repository.JobLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLeaseServiceTest {
+
+    private static final String JOB = "expense-archiver";
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JobLeaseService first;
+    private JobLeaseService second;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseRepository.deleteAll();
+        first = new JobLeaseService(jobLeaseRepository, transactionManager, "instance-1");
+        second = new JobLeaseService(jobLeaseRepository, transactionManager, "instance-2");
+    }
+
+    @Test
+    void onlyOneInstanceHoldsTheLeaseUntilItIsReleased() {
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(30))).isTrue();
+        assertThat(second.tryAcquire(JOB, Duration.ofMinutes(30))).isFalse();
+
+        // 가진 쪽은 연장할 수 있다
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(30))).isTrue();
+
+        first.release(JOB);
+        assertThat(second.tryAcquire(JOB, Duration.ofMinutes(30))).isTrue();
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(30))).isFalse();
+    }
+
+    @Test
+    void expiredLeaseOfADeadInstanceCanBeTakenOver() {
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(30))).isTrue();
+        jobLeaseRepository.findById(JOB).ifPresent(lease -> {
+            lease.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+            jobLeaseRepository.save(lease);
+        });
+
+        assertThat(second.tryAcquire(JOB, Duration.ofMinutes(30))).isTrue();
+        assertThat(jobLeaseRepository.findById(JOB).orElseThrow().getOwner()).isEqualTo("instance-2");
+    }
+}
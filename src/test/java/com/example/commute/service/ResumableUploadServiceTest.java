@@ -0,0 +1,199 @@
+package com.example.commute.service;
+
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.dto.ExpenseDto;
+import com.example.commute.dto.UploadedFileDto;
+import com.example.commute.entity.Member;
+import com.example.commute.entity.Photo;
+import com.example.commute.entity.UploadSession;
+import com.example.commute.enums.RoleType;
+import com.example.commute.exception.ChecksumMismatchException;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.MemberRepository;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.repository.UploadSessionRepository;
+import com.example.commute.storage.PackedBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Import({ExpenseService.class, CacheInvalidationBus.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResumableUploadServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    private ResumableUploadService service;
+    private final Member owner = Member.builder().id(1L).username("owner").build();
+    private final Member other = Member.builder().id(2L).username("other").build();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path uploads = Files.createDirectories(directory.resolve("uploads"));
+        service = new ResumableUploadService(uploadSessionRepository,
+                new StaticListableBeanFactory().getBeanProvider(PackedBlobStore.class),
+                directory.resolve("tmp").toString(), uploads.toString(), 1024, 60);
+    }
+
+    @AfterEach
+    void clear() {
+        uploadSessionRepository.deleteAllInBatch();
+        photoRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rejectsChunksThatDoNotStartAtTheCurrentOffset() throws IOException {
+        UploadSession session = service.create(owner, 10, "receipt.jpg", "image/jpeg");
+        service.appendChunk(session.getId(), owner, 0, body("01234"), null);
+
+        assertThatThrownBy(() -> service.appendChunk(session.getId(), owner, 3, body("34567"), null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.appendChunk(session.getId(), other, 5, body("56789"), null))
+                .hasMessageContaining("업로드를 찾을 수 없습니다");
+        assertThat(service.get(session.getId(), owner).getUploadOffset()).isEqualTo(5);
+        assertThat(Files.size(Paths.get(session.getTempPath()))).isEqualTo(5);
+    }
+
+    @Test
+    void rollsBackAChunkWhoseChecksumDoesNotMatch() throws Exception {
+        UploadSession session = service.create(owner, 10, "receipt.jpg", "image/jpeg");
+        service.appendChunk(session.getId(), owner, 0, body("01234"), checksum("01234"));
+
+        assertThatThrownBy(() -> service.appendChunk(session.getId(), owner, 5, body("XXXXX"), checksum("56789")))
+                .isInstanceOf(ChecksumMismatchException.class);
+        assertThat(service.get(session.getId(), owner).getUploadOffset()).isEqualTo(5);
+        assertThat(Files.readString(Paths.get(session.getTempPath()))).isEqualTo("01234");
+
+        UploadSession completed = service.appendChunk(session.getId(), owner, 5, body("56789"), checksum("56789"));
+        assertThat(Files.readString(Paths.get(completed.getFilePath()))).isEqualTo("0123456789");
+    }
+
+    @Test
+    void completionStoresTheFileWithoutAPhotoAndCanBeAttachedOnlyOnce() throws IOException {
+        UploadSession pending = service.create(owner, 10, "other.jpg", "image/jpeg");
+        UploadSession session = service.create(owner, 10, "receipt.jpg", "image/jpeg");
+        service.appendChunk(session.getId(), owner, 0, body("01234"), null);
+        UploadSession completed = service.appendChunk(session.getId(), owner, 5, body("56789"), null);
+
+        assertThat(completed.isComplete()).isTrue();
+        assertThat(completed.getFilePath()).startsWith(directory.resolve("uploads").toString()).endsWith("_receipt.jpg");
+        assertThat(Files.readString(Paths.get(completed.getFilePath()))).isEqualTo("0123456789");
+        assertThat(Paths.get(session.getTempPath())).doesNotExist();
+        assertThat(photoRepository.count()).isZero();
+        assertThatThrownBy(() -> service.appendChunk(session.getId(), owner, 10, body("x"), null))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> service.findCompleted(List.of(session.getId()), other))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findCompleted(List.of(session.getId(), pending.getId()), owner))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findCompleted(List.of(session.getId(), session.getId()), owner))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.findCompleted(List.of(session.getId()), owner))
+                .extracting(UploadSession::getFilePath)
+                .containsExactly(completed.getFilePath());
+    }
+
+    @Test
+    void uploadIsConsumedInTheTransactionThatSavesTheExpense() throws IOException {
+        Member author = memberRepository.findByUsername("u-author").orElseGet(() -> memberRepository.save(Member.builder()
+                .username("u-author")
+                .password("password")
+                .role(RoleType.USER)
+                .build()));
+        UploadSession session = service.create(author, 10, "receipt.jpg", "image/jpeg");
+        service.appendChunk(session.getId(), author, 0, body("0123456789"), null);
+        List<String> ids = List.of(session.getId());
+
+        // 같은 배치의 다른 게시글이 실패하면 사용 처리도 롤백되어 같은 업로드를 다시 붙일 수 있다
+        ExpenseDto withUpload = expense("식비", service.findCompleted(ids, author));
+        assertThatThrownBy(() -> expenseService.createExpenses(
+                List.of(withUpload, expense("NOT_A_CATEGORY", List.of())), List.of("u-author", "u-author")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.findCompleted(ids, author)).hasSize(1);
+
+        ExpenseDto created = expenseService.createExpenses(List.of(withUpload), List.of("u-author")).get(0);
+        Photo photo = photoRepository.findAll().stream()
+                .filter(saved -> saved.getExpense() != null && created.getId().equals(saved.getExpense().getId()))
+                .findFirst().orElseThrow();
+        assertThat(photo.getFileName()).isEqualTo("receipt.jpg");
+        assertThat(photo.getFileType()).isEqualTo("image/jpeg");
+        assertThat(photo.getFileSize()).isEqualTo(10L);
+
+        // 확인을 통과한 요청이라도 다른 게시글이 먼저 붙였으면 저장 트랜잭션에서 거절된다
+        assertThatThrownBy(() -> service.findCompleted(ids, author)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> expenseService.createExpenses(List.of(withUpload), List.of("u-author")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ExpenseDto expense(String category, List<UploadSession> uploads) {
+        ExpenseDto expenseDto = ExpenseDto.builder()
+                .title("with upload")
+                .content("content")
+                .category(category)
+                .totalAmount(1000.0)
+                .photoUrls(uploads.stream().map(UploadSession::getFilePath).toList())
+                .build();
+        expenseDto.setUploadedFiles(uploads.stream()
+                .map(upload -> UploadedFileDto.builder()
+                        .uploadId(upload.getId())
+                        .filePath(upload.getFilePath())
+                        .fileName(upload.getFileName())
+                        .fileType(upload.getFileType())
+                        .fileSize(upload.getUploadLength())
+                        .build())
+                .toList());
+        return expenseDto;
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String checksum(String content) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        return "sha256 " + Base64.getEncoder().encodeToString(digest);
+    }
+}
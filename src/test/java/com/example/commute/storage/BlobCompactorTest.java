@@ -0,0 +1,94 @@
+package com.example.commute.storage;
+
+import com.example.commute.archive.ArchivedExpense;
+import com.example.commute.archive.ExpenseArchive;
+import com.example.commute.cache.CacheInvalidationBus;
+import com.example.commute.entity.Photo;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.repository.UploadSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobCompactorTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PackedBlobStore store;
+
+    @AfterEach
+    void close() throws IOException {
+        photoRepository.deleteAll();
+        store.close();
+    }
+
+    @Test
+    void movesLiveBlobsAndKeepsSegmentsHeldByTheArchive() throws IOException {
+        store = new PackedBlobStore(directory.resolve("blobs").toString(), 128, false);
+        store.open();
+        BlobLocation live = append("a".repeat(40));
+        BlobLocation deleted = append("b".repeat(40));
+        BlobLocation archived = append("c".repeat(40));
+        append("d".repeat(80));
+        assertThat(List.of(live.segment(), deleted.segment(), archived.segment())).containsExactly(1L, 1L, 2L);
+
+        Photo photo = photoRepository.save(new Photo("live.jpg", live.toPath(), null));
+        ExpenseArchive archive = new ExpenseArchive(directory.resolve("archive").toString());
+        archive.load();
+        archive.append(List.of(new ArchivedExpense(1L, 1L, LocalDateTime.of(2020, 1, 1, 0, 0), 1000.0,
+                "식비", "archived", "content", List.of(archived.toPath()))));
+
+        new BlobCompactor(store, photoRepository, uploadSessionRepository, new CacheInvalidationBus((CacheManager) null, null), archive, transactionManager, 0.5)
+                .compact();
+
+        String movedPath = photoRepository.findById(photo.getId()).orElseThrow().getFilePath();
+        BlobLocation moved = BlobLocation.parse(movedPath);
+        assertThat(moved.segment()).isNotEqualTo(1L);
+        assertThat(text(store.read(moved))).isEqualTo("a".repeat(40));
+        assertThat(store.exists(deleted)).isFalse();
+        assertThat(store.sealedSegments()).doesNotContain(1L).contains(2L);
+        assertThat(text(store.read(archived))).isEqualTo("c".repeat(40));
+    }
+
+    private BlobLocation append(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return store.append(new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private static String text(ByteBuffer content) {
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
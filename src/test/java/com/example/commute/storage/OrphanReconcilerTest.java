@@ -0,0 +1,144 @@
+package com.example.commute.storage;
+
+import com.example.commute.archive.ArchivedExpense;
+import com.example.commute.archive.ExpenseArchive;
+import com.example.commute.entity.Expense;
+import com.example.commute.entity.Photo;
+import com.example.commute.entity.UploadSession;
+import com.example.commute.repository.ExpenseRepository;
+import com.example.commute.repository.PhotoRepository;
+import com.example.commute.repository.UploadSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.springframework=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrphanReconcilerTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clear() {
+        photoRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        uploadSessionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findsOrphanFilesAndRowsAndDeletesThemOnlyOutsideDryRun() throws IOException {
+        Path uploads = Files.createDirectories(directory.resolve("uploads"));
+        String uploadDir = uploads.toString();
+        Path referenced = file(uploads, "referenced.jpg", true);
+        Path orphan = file(uploads, "orphan.jpg", true);
+        Path recent = file(uploads, "recent.jpg", false);
+        Path archived = file(uploads, "archived.jpg", true);
+        Path pending = file(uploads, "pending.jpg", true);
+
+        Photo live = photoRepository.save(new Photo("referenced.jpg", uploadDir + "/referenced.jpg", null));
+        Photo missingFile = photoRepository.save(new Photo("gone.jpg", uploadDir + "/gone.jpg", null));
+        Expense expense = expenseRepository.save(Expense.builder()
+                .title("deleted")
+                .content("deleted")
+                .amount(1000.0)
+                .category(Expense.Category.식비)
+                .createdAt(LocalDateTime.now())
+                .build());
+        Photo missingExpense = photoRepository.save(new Photo("referenced.jpg", uploadDir + "/referenced.jpg", expense));
+        expenseRepository.deleteAllByIdInBatch(List.of(expense.getId()));
+
+        // 완료됐지만 아직 게시글에 붙지 않은 업로드 (만료 전)
+        LocalDateTime now = LocalDateTime.now();
+        uploadSessionRepository.save(UploadSession.builder()
+                .id("pending-upload")
+                .memberId(1L)
+                .fileName("pending.jpg")
+                .fileType("image/jpeg")
+                .uploadLength(11)
+                .uploadOffset(11)
+                .tempPath(uploads.resolve("pending.part").toString())
+                .createdAt(now.minusHours(2))
+                .expiresAt(now.plusHours(1))
+                .filePath(uploadDir + "/pending.jpg")
+                .build());
+
+        ExpenseArchive archive = new ExpenseArchive(directory.resolve("archive").toString());
+        archive.load();
+        archive.append(List.of(new ArchivedExpense(1L, 1L, LocalDateTime.of(2020, 1, 1, 0, 0), 1000.0,
+                "식비", "archived", "content", List.of(uploadDir + "/archived.jpg"))));
+        OrphanReconciler reconciler = reconciler(uploadDir, archive);
+
+        OrphanReport dryRun = reconciler.reconcile(true);
+        assertThat(dryRun.dryRun()).isTrue();
+        assertThat(dryRun.scannedFiles()).isEqualTo(5);
+        assertThat(dryRun.orphanFiles()).isEqualTo(1);
+        assertThat(dryRun.scannedRows()).isEqualTo(3);
+        assertThat(dryRun.orphanRows()).isEqualTo(2);
+        assertThat(dryRun.samples()).anyMatch(sample -> sample.contains("orphan.jpg"));
+        assertThat(orphan).exists();
+        assertThat(photoRepository.count()).isEqualTo(3);
+
+        OrphanReport report = reconciler.reconcile(false);
+        assertThat(report.orphanFiles()).isEqualTo(1);
+        assertThat(report.orphanRows()).isEqualTo(2);
+        assertThat(orphan).doesNotExist();
+        assertThat(referenced).exists();
+        assertThat(recent).exists();
+        assertThat(archived).exists();
+        assertThat(pending).exists();
+        assertThat(photoRepository.findById(live.getId())).isPresent();
+        assertThat(photoRepository.findById(missingFile.getId())).isEmpty();
+        assertThat(photoRepository.findById(missingExpense.getId())).isEmpty();
+        assertThat(reconciler.getLastReport()).isEqualTo(report);
+    }
+
+    private OrphanReconciler reconciler(String uploadDir, ExpenseArchive archive) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("expenseArchive", archive));
+        return new OrphanReconciler(photoRepository, expenseRepository, uploadSessionRepository,
+                beans.getBeanProvider(PackedBlobStore.class), beans.getBeanProvider(ExpenseArchive.class),
+                transactionManager, uploadDir, true, 2, 2, 60, 0);
+    }
+
+    // old 이면 grace(60분) 보다 오래된 파일로 만든다
+    private static Path file(Path directory, String name, boolean old) throws IOException {
+        Path file = Files.writeString(directory.resolve(name), name);
+        if (old) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        }
+        return file;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.commute.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PackedBlobStoreTest {
+
+    private static final long SEGMENT_SIZE = 128;
+
+    @TempDir
+    Path directory;
+
+    private PackedBlobStore store;
+
+    @AfterEach
+    void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void locationRoundTripsThroughItsPath() {
+        BlobLocation location = new BlobLocation(3, 16, 42);
+
+        assertThat(location.toPath()).isEqualTo("blob:3/16/42");
+        assertThat(BlobLocation.parse(location.toPath())).isEqualTo(location);
+        assertThat(location.toPath()).startsWith(BlobLocation.segmentPrefix(3));
+        assertThat(BlobLocation.isBlob("./uploads/receipt.jpg")).isFalse();
+        assertThat(BlobLocation.isBlob(null)).isFalse();
+        assertThatThrownBy(() -> BlobLocation.parse("blob:3/16")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlobLocation.parse("./uploads/receipt.jpg")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsBackBlobsFromActiveAndSealedSegments() throws IOException {
+        store = open();
+        BlobLocation first = append("first receipt content");
+        BlobLocation second = append("second receipt, 두 번째 영수증");
+        BlobLocation third = append("third receipt ".repeat(3));
+
+        assertThat(first.segment()).isEqualTo(1L);
+        assertThat(store.sealedSegments()).isNotEmpty();
+        assertThat(third.segment()).isEqualTo(store.activeSegment());
+        assertThat(text(store.read(first))).isEqualTo("first receipt content");
+        assertThat(text(store.read(second))).isEqualTo("second receipt, 두 번째 영수증");
+        assertThat(text(store.read(third))).isEqualTo("third receipt ".repeat(3));
+        assertThat(store.exists(second)).isTrue();
+
+        store.close();
+        store = open();
+        assertThat(store.activeSegment()).isEqualTo(third.segment());
+        assertThat(text(store.read(first))).isEqualTo("first receipt content");
+    }
+
+    @Test
+    void rejectsShortInputWithoutLeavingARecord() throws IOException {
+        store = open();
+        BlobLocation kept = append("kept");
+
+        assertThatThrownBy(() -> store.append(new ByteArrayInputStream(new byte[3]), 10))
+                .isInstanceOf(IOException.class);
+
+        assertThat(store.segmentBytes(store.activeSegment())).isEqualTo(kept.offset() + kept.length());
+        assertThat(append("next").offset()).isEqualTo(kept.offset() + kept.length() + 16);
+    }
+
+    @Test
+    void detectsCorruptedContentInActiveAndSealedSegments() throws IOException {
+        store = open();
+        BlobLocation sealed = append("sealed receipt content");
+        append("x".repeat(100));
+        BlobLocation active = append("active");
+        assertThat(sealed.segment()).isNotEqualTo(active.segment());
+
+        flipByte(sealed);
+        flipByte(active);
+
+        assertThatThrownBy(() -> store.read(sealed)).isInstanceOf(IOException.class).hasMessageContaining("체크섬");
+        assertThatThrownBy(() -> store.read(active)).isInstanceOf(IOException.class).hasMessageContaining("체크섬");
+        assertThatThrownBy(() -> store.read(new BlobLocation(active.segment(), active.offset(), active.length() + 1)))
+                .isInstanceOf(IOException.class).hasMessageContaining("헤더");
+    }
+
+    @Test
+    void deletesOnlySealedSegments() throws IOException {
+        store = open();
+        BlobLocation sealed = append("x".repeat(100));
+        BlobLocation active = append("y".repeat(100));
+
+        assertThatThrownBy(() -> store.deleteSegment(active.segment())).isInstanceOf(IllegalArgumentException.class);
+        store.deleteSegment(sealed.segment());
+        assertThat(store.exists(sealed)).isFalse();
+        assertThat(store.sealedSegments()).doesNotContain(sealed.segment());
+        assertThat(text(store.read(active))).isEqualTo("y".repeat(100));
+    }
+
+    private PackedBlobStore open() throws IOException {
+        PackedBlobStore opened = new PackedBlobStore(directory.toString(), SEGMENT_SIZE, false);
+        opened.open();
+        return opened;
+    }
+
+    private BlobLocation append(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return store.append(new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private void flipByte(BlobLocation location) throws IOException {
+        Path path = directory.resolve(String.format("%010d.pack", location.segment()));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, location.offset());
+            one.put(0, (byte) (one.get(0) ^ 0xFF)).rewind();
+            channel.write(one, location.offset());
+        }
+    }
+
+    private static String text(ByteBuffer content) {
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}